@@ -25,6 +25,7 @@ import com.vaadin.ui.AbsoluteLayout;
 import com.vaadin.ui.Component;
 import com.vaadin.ui.LegacyComponent;
 
+import fi.jasoft.dragdroplayouts.client.ui.DragProxyMode;
 import fi.jasoft.dragdroplayouts.client.ui.LayoutDragMode;
 import fi.jasoft.dragdroplayouts.client.ui.absolutelayout.DDAbsoluteLayoutState;
 import fi.jasoft.dragdroplayouts.details.AbsoluteLayoutTargetDetails;
@@ -33,6 +34,7 @@ import fi.jasoft.dragdroplayouts.interfaces.DragFilter;
 import fi.jasoft.dragdroplayouts.interfaces.DragFilterSupport;
 import fi.jasoft.dragdroplayouts.interfaces.DragImageProvider;
 import fi.jasoft.dragdroplayouts.interfaces.DragImageReferenceSupport;
+import fi.jasoft.dragdroplayouts.interfaces.DragStartThresholdSupport;
 import fi.jasoft.dragdroplayouts.interfaces.LayoutDragSource;
 import fi.jasoft.dragdroplayouts.interfaces.ShimSupport;
 
@@ -44,7 +46,8 @@ import fi.jasoft.dragdroplayouts.interfaces.ShimSupport;
 @SuppressWarnings("serial")
 public class DDAbsoluteLayout extends AbsoluteLayout
         implements LayoutDragSource, DropTarget, ShimSupport, LegacyComponent,
-        DragImageReferenceSupport, DragFilterSupport {
+        DragImageReferenceSupport, DragFilterSupport,
+        DragStartThresholdSupport {
 
     // Drop handler which handles dd drop events
     private DropHandler dropHandler;
@@ -54,6 +57,10 @@ public class DDAbsoluteLayout extends AbsoluteLayout
 
     private DragImageProvider dragImageProvider;
 
+    // Keeps the draggable components in the state up to date
+    private final DDLayoutStateManager stateManager = new DDLayoutStateManager(
+            this);
+
     /**
      * Creates an AbsoluteLayout with full size.
      */
@@ -77,9 +84,7 @@ public class DDAbsoluteLayout extends AbsoluteLayout
     public void paintContent(PaintTarget target) throws PaintException {
 
         // Paint the drop handler criterions
-        if (dropHandler != null && isEnabled()) {
-            dropHandler.getAcceptCriterion().paint(target);
-        }
+        stateManager.paintAcceptCriterion(target);
     }
 
     /**
@@ -132,6 +137,34 @@ public class DDAbsoluteLayout extends AbsoluteLayout
         getState().ddState.dragMode = mode;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    public void setDragStartThreshold(int distance, int delay) {
+        DDUtil.setDragStartThreshold(getState().ddState, distance, delay);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public int getDragStartDistance() {
+        return getState().ddState.dragStartDistance;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public int getDragStartDelay() {
+        return getState().ddState.dragStartDelay;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public int getSuppressedDragStartCount() {
+        return stateManager.getSuppressedDragStartCount();
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -158,6 +191,20 @@ public class DDAbsoluteLayout extends AbsoluteLayout
      */
     public void setDragFilter(DragFilter dragFilter) {
         this.dragFilter = dragFilter;
+        stateManager.invalidate();
+        markAsDirty();
+    }
+
+    /**
+     * Evaluates the drag filter and the drag image provider again for all
+     * components in the layout. The filter and the provider are otherwise
+     * only evaluated for components as they are added to the layout, so this
+     * needs to be called when their result depends on something else, like
+     * the caption or data of a component.
+     */
+    public void refreshDragFilter() {
+        stateManager.invalidate();
+        markAsDirty();
     }
 
     /**
@@ -178,19 +225,19 @@ public class DDAbsoluteLayout extends AbsoluteLayout
      */
     @Override
     public void changeVariables(Object source, Map<String, Object> variables) {
-        // TODO Auto-generated method stub
-
+        stateManager.changeVariables(variables);
     }
 
     @Override
     public void beforeClientResponse(boolean initial) {
         super.beforeClientResponse(initial);
-        DDUtil.onBeforeClientResponse(this, getState());
+        stateManager.updateState(getState(), initial);
     }
 
     @Override
     public void setDragImageProvider(DragImageProvider provider) {
         this.dragImageProvider = provider;
+        stateManager.invalidate();
         markAsDirty();
     }
 
@@ -198,4 +245,14 @@ public class DDAbsoluteLayout extends AbsoluteLayout
     public DragImageProvider getDragImageProvider() {
         return this.dragImageProvider;
     }
+
+    @Override
+    public void setDragProxyMode(DragProxyMode mode) {
+        DDUtil.setDragProxyMode(getState().ddState, mode);
+    }
+
+    @Override
+    public DragProxyMode getDragProxyMode() {
+        return getState().ddState.dragProxyMode;
+    }
 }
@@ -26,6 +26,7 @@ import com.vaadin.ui.Accordion;
 import com.vaadin.ui.Component;
 import com.vaadin.ui.LegacyComponent;
 
+import fi.jasoft.dragdroplayouts.client.ui.DragProxyMode;
 import fi.jasoft.dragdroplayouts.client.ui.LayoutDragMode;
 import fi.jasoft.dragdroplayouts.client.ui.accordion.DDAccordionState;
 import fi.jasoft.dragdroplayouts.details.AccordionTargetDetails;
@@ -34,6 +35,7 @@ import fi.jasoft.dragdroplayouts.interfaces.DragFilter;
 import fi.jasoft.dragdroplayouts.interfaces.DragFilterSupport;
 import fi.jasoft.dragdroplayouts.interfaces.DragImageProvider;
 import fi.jasoft.dragdroplayouts.interfaces.DragImageReferenceSupport;
+import fi.jasoft.dragdroplayouts.interfaces.DragStartThresholdSupport;
 import fi.jasoft.dragdroplayouts.interfaces.LayoutDragSource;
 import fi.jasoft.dragdroplayouts.interfaces.ShimSupport;
 
@@ -46,7 +48,8 @@ import fi.jasoft.dragdroplayouts.interfaces.ShimSupport;
 @SuppressWarnings("serial")
 public class DDAccordion extends Accordion
         implements LayoutDragSource, DropTarget, ShimSupport, LegacyComponent,
-        DragImageReferenceSupport, DragFilterSupport {
+        DragImageReferenceSupport, DragFilterSupport,
+        DragStartThresholdSupport {
 
     /**
      * The drop handler which handles dropped components in the layout.
@@ -58,6 +61,10 @@ public class DDAccordion extends Accordion
 
     private DragImageProvider dragImageProvider;
 
+    // Keeps the draggable components in the state up to date
+    private final DDLayoutStateManager stateManager = new DDLayoutStateManager(
+            this);
+
     /**
      * Construct a new accordion
      */
@@ -146,15 +153,41 @@ public class DDAccordion extends Accordion
         getState().ddState.dragMode = mode;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    public void setDragStartThreshold(int distance, int delay) {
+        DDUtil.setDragStartThreshold(getState().ddState, distance, delay);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public int getDragStartDistance() {
+        return getState().ddState.dragStartDistance;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public int getDragStartDelay() {
+        return getState().ddState.dragStartDelay;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public int getSuppressedDragStartCount() {
+        return stateManager.getSuppressedDragStartCount();
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     public void paintContent(PaintTarget target) throws PaintException {
         // Add drop handler
-        if (dropHandler != null && isEnabled()) {
-            dropHandler.getAcceptCriterion().paint(target);
-        }
+        stateManager.paintAcceptCriterion(target);
     }
 
     /**
@@ -204,6 +237,20 @@ public class DDAccordion extends Accordion
      */
     public void setDragFilter(DragFilter dragFilter) {
         this.dragFilter = dragFilter;
+        stateManager.invalidate();
+        markAsDirty();
+    }
+
+    /**
+     * Evaluates the drag filter and the drag image provider again for all
+     * components in the layout. The filter and the provider are otherwise
+     * only evaluated for components as they are added to the layout, so this
+     * needs to be called when their result depends on something else, like
+     * the caption or data of a component.
+     */
+    public void refreshDragFilter() {
+        stateManager.invalidate();
+        markAsDirty();
     }
 
     @Override
@@ -214,17 +261,18 @@ public class DDAccordion extends Accordion
     @Override
     public void beforeClientResponse(boolean initial) {
         super.beforeClientResponse(initial);
-        DDUtil.onBeforeClientResponse(this, getState());
+        stateManager.updateState(getState(), initial);
     }
 
     @Override
     public void changeVariables(Object source, Map<String, Object> variables) {
-        // FIXME Remove when drag&drop no longer is legacy
+        stateManager.changeVariables(variables);
     }
 
     @Override
     public void setDragImageProvider(DragImageProvider provider) {
         this.dragImageProvider = provider;
+        stateManager.invalidate();
         markAsDirty();
     }
 
@@ -232,4 +280,14 @@ public class DDAccordion extends Accordion
     public DragImageProvider getDragImageProvider() {
         return this.dragImageProvider;
     }
+
+    @Override
+    public void setDragProxyMode(DragProxyMode mode) {
+        DDUtil.setDragProxyMode(getState().ddState, mode);
+    }
+
+    @Override
+    public DragProxyMode getDragProxyMode() {
+        return getState().ddState.dragProxyMode;
+    }
 }
@@ -19,10 +19,8 @@ import com.vaadin.event.Transferable;
 import com.vaadin.event.dd.DropHandler;
 import com.vaadin.event.dd.DropTarget;
 import com.vaadin.event.dd.TargetDetails;
-import com.vaadin.event.dd.TargetDetailsImpl;
 import com.vaadin.server.PaintException;
 import com.vaadin.server.PaintTarget;
-import com.vaadin.shared.MouseEventDetails;
 import com.vaadin.shared.ui.dd.HorizontalDropLocation;
 import com.vaadin.shared.ui.dd.VerticalDropLocation;
 import com.vaadin.ui.Component;
@@ -30,13 +28,16 @@ import com.vaadin.ui.CssLayout;
 import com.vaadin.ui.LegacyComponent;
 
 import fi.jasoft.dragdroplayouts.client.ui.Constants;
+import fi.jasoft.dragdroplayouts.client.ui.DragProxyMode;
 import fi.jasoft.dragdroplayouts.client.ui.LayoutDragMode;
 import fi.jasoft.dragdroplayouts.client.ui.csslayout.DDCssLayoutState;
+import fi.jasoft.dragdroplayouts.details.AbstractLayoutTargetDetails;
 import fi.jasoft.dragdroplayouts.events.LayoutBoundTransferable;
 import fi.jasoft.dragdroplayouts.interfaces.DragFilter;
 import fi.jasoft.dragdroplayouts.interfaces.DragFilterSupport;
 import fi.jasoft.dragdroplayouts.interfaces.DragImageProvider;
 import fi.jasoft.dragdroplayouts.interfaces.DragImageReferenceSupport;
+import fi.jasoft.dragdroplayouts.interfaces.DragStartThresholdSupport;
 import fi.jasoft.dragdroplayouts.interfaces.LayoutDragSource;
 import fi.jasoft.dragdroplayouts.interfaces.ShimSupport;
 
@@ -50,7 +51,8 @@ import fi.jasoft.dragdroplayouts.interfaces.ShimSupport;
 @SuppressWarnings("serial")
 public class DDCssLayout extends CssLayout
         implements LayoutDragSource, DropTarget, ShimSupport, LegacyComponent,
-        DragFilterSupport, DragImageReferenceSupport {
+        DragFilterSupport, DragImageReferenceSupport,
+        DragStartThresholdSupport {
 
     // Drop handler which handles dd drop events
     private DropHandler dropHandler;
@@ -60,6 +62,10 @@ public class DDCssLayout extends CssLayout
 
     private DragImageProvider dragImageProvider;
 
+    // Keeps the draggable components in the state up to date
+    private final DDLayoutStateManager stateManager = new DDLayoutStateManager(
+            this);
+
     /**
      * Construct a new Css layout
      */
@@ -80,7 +86,7 @@ public class DDCssLayout extends CssLayout
     /**
      * Target details for dropping on a absolute layout.
      */
-    public class CssLayoutTargetDetails extends TargetDetailsImpl {
+    public class CssLayoutTargetDetails extends AbstractLayoutTargetDetails {
 
         private int index = -1;
 
@@ -98,8 +104,7 @@ public class DDCssLayout extends CssLayout
             // Get over which component (if any) the drop was made and the
             // index of it
             if (getData(Constants.DROP_DETAIL_TO) != null) {
-                index = Integer
-                        .valueOf(getData(Constants.DROP_DETAIL_TO).toString());
+                index = getIntData(Constants.DROP_DETAIL_TO, -1);
                 if (index >= 0 && index < components.size()) {
                     over = components.get(index);
                 }
@@ -113,17 +118,6 @@ public class DDCssLayout extends CssLayout
             }
         }
 
-        /**
-         * Some details about the mouse event
-         * 
-         * @return details about the actual event that caused the event details.
-         *         Practically mouse move or mouse up.
-         */
-        public MouseEventDetails getMouseEvent() {
-            return MouseEventDetails.deSerialize(
-                    getData(Constants.DROP_DETAIL_MOUSE_EVENT).toString());
-        }
-
         /**
          * Get the horizontal position of the dropped component within the
          * underlying cell.
@@ -216,6 +210,26 @@ public class DDCssLayout extends CssLayout
         return new CssLayoutTargetDetails(clientVariables);
     }
 
+    /**
+     * Moves a child component to a new position in the layout.
+     * <p>
+     * Unlike removing and adding the component again the component stays
+     * attached. No detach and attach events are fired and the client only
+     * receives the new order of the children.
+     * 
+     * @param component
+     *            The child component to move
+     * @param index
+     *            The index of the component after it has been moved
+     * @throws IllegalArgumentException
+     *             if the component is not a child of the layout
+     * @throws IndexOutOfBoundsException
+     *             if the index is out of bounds
+     */
+    public void moveComponent(Component component, int index) {
+        DDUtil.moveComponent(this, components, component, index);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -230,6 +244,34 @@ public class DDCssLayout extends CssLayout
         getState().ddState.dragMode = mode;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    public void setDragStartThreshold(int distance, int delay) {
+        DDUtil.setDragStartThreshold(getState().ddState, distance, delay);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public int getDragStartDistance() {
+        return getState().ddState.dragStartDistance;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public int getDragStartDelay() {
+        return getState().ddState.dragStartDelay;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public int getSuppressedDragStartCount() {
+        return stateManager.getSuppressedDragStartCount();
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -242,6 +284,20 @@ public class DDCssLayout extends CssLayout
      */
     public void setDragFilter(DragFilter dragFilter) {
         this.dragFilter = dragFilter;
+        stateManager.invalidate();
+        markAsDirty();
+    }
+
+    /**
+     * Evaluates the drag filter and the drag image provider again for all
+     * components in the layout. The filter and the provider are otherwise
+     * only evaluated for components as they are added to the layout, so this
+     * needs to be called when their result depends on something else, like
+     * the caption or data of a component.
+     */
+    public void refreshDragFilter() {
+        stateManager.invalidate();
+        markAsDirty();
     }
 
     /**
@@ -249,9 +305,7 @@ public class DDCssLayout extends CssLayout
      * 
      */
     public void paintContent(PaintTarget target) throws PaintException {
-        if (dropHandler != null && isEnabled()) {
-            dropHandler.getAcceptCriterion().paint(target);
-        }
+        stateManager.paintAcceptCriterion(target);
     }
 
     @Override
@@ -262,17 +316,18 @@ public class DDCssLayout extends CssLayout
     @Override
     public void beforeClientResponse(boolean initial) {
         super.beforeClientResponse(initial);
-        DDUtil.onBeforeClientResponse(this, getState());
+        stateManager.updateState(getState(), initial);
     }
 
     @Override
     public void changeVariables(Object source, Map<String, Object> variables) {
-        // TODO Auto-generated method stub
+        stateManager.changeVariables(variables);
     }
 
     @Override
     public void setDragImageProvider(DragImageProvider provider) {
         this.dragImageProvider = provider;
+        stateManager.invalidate();
         markAsDirty();
     }
 
@@ -280,4 +335,14 @@ public class DDCssLayout extends CssLayout
     public DragImageProvider getDragImageProvider() {
         return this.dragImageProvider;
     }
+
+    @Override
+    public void setDragProxyMode(DragProxyMode mode) {
+        DDUtil.setDragProxyMode(getState().ddState, mode);
+    }
+
+    @Override
+    public DragProxyMode getDragProxyMode() {
+        return getState().ddState.dragProxyMode;
+    }
 }
@@ -19,23 +19,24 @@ import com.vaadin.event.Transferable;
 import com.vaadin.event.dd.DropHandler;
 import com.vaadin.event.dd.DropTarget;
 import com.vaadin.event.dd.TargetDetails;
-import com.vaadin.event.dd.TargetDetailsImpl;
 import com.vaadin.server.PaintException;
 import com.vaadin.server.PaintTarget;
-import com.vaadin.shared.MouseEventDetails;
 import com.vaadin.shared.ui.dd.VerticalDropLocation;
 import com.vaadin.ui.Component;
 import com.vaadin.ui.FormLayout;
 import com.vaadin.ui.LegacyComponent;
 
 import fi.jasoft.dragdroplayouts.client.ui.Constants;
+import fi.jasoft.dragdroplayouts.client.ui.DragProxyMode;
 import fi.jasoft.dragdroplayouts.client.ui.LayoutDragMode;
 import fi.jasoft.dragdroplayouts.client.ui.formlayout.DDFormLayoutState;
+import fi.jasoft.dragdroplayouts.details.AbstractLayoutTargetDetails;
 import fi.jasoft.dragdroplayouts.events.LayoutBoundTransferable;
 import fi.jasoft.dragdroplayouts.interfaces.DragFilter;
 import fi.jasoft.dragdroplayouts.interfaces.DragFilterSupport;
 import fi.jasoft.dragdroplayouts.interfaces.DragImageProvider;
 import fi.jasoft.dragdroplayouts.interfaces.DragImageReferenceSupport;
+import fi.jasoft.dragdroplayouts.interfaces.DragStartThresholdSupport;
 import fi.jasoft.dragdroplayouts.interfaces.LayoutDragSource;
 import fi.jasoft.dragdroplayouts.interfaces.ShimSupport;
 
@@ -48,7 +49,8 @@ import fi.jasoft.dragdroplayouts.interfaces.ShimSupport;
  */
 public class DDFormLayout extends FormLayout
         implements LayoutDragSource, DropTarget, ShimSupport, LegacyComponent,
-        DragFilterSupport, DragImageReferenceSupport {
+        DragFilterSupport, DragImageReferenceSupport,
+        DragStartThresholdSupport {
     /**
      * The drop handler which handles dropped components in the layout.
      */
@@ -59,11 +61,15 @@ public class DDFormLayout extends FormLayout
 
     private DragImageProvider dragImageProvider;
 
+    // Keeps the draggable components in the state up to date
+    private final DDLayoutStateManager stateManager = new DDLayoutStateManager(
+            this);
+
     /**
      * Contains the component over which the drop was made and the index on
      * which the drop was made.
      */
-    public class FormLayoutTargetDetails extends TargetDetailsImpl {
+    public class FormLayoutTargetDetails extends AbstractLayoutTargetDetails {
 
         private Component over;
 
@@ -75,8 +81,7 @@ public class DDFormLayout extends FormLayout
             // Get over which component (if any) the drop was made and the
             // index of it
             if (getData(Constants.DROP_DETAIL_TO) != null) {
-                index = Integer
-                        .valueOf(getData(Constants.DROP_DETAIL_TO).toString());
+                index = getIntData(Constants.DROP_DETAIL_TO, -1);
                 if (index >= 0 && index < components.size()) {
                     over = components.get(index);
                 }
@@ -107,17 +112,6 @@ public class DDFormLayout extends FormLayout
             return index;
         }
 
-        /**
-         * Some details about the mouse event
-         * 
-         * @return details about the actual event that caused the event details.
-         *         Practically mouse move or mouse up.
-         */
-        public MouseEventDetails getMouseEvent() {
-            return MouseEventDetails.deSerialize(
-                    (String) getData(Constants.DROP_DETAIL_MOUSE_EVENT));
-        }
-
         /**
          * Get the horizontal position of the dropped component within the
          * underlying cell.
@@ -161,9 +155,7 @@ public class DDFormLayout extends FormLayout
      * .Map)
      */
     public void paintContent(PaintTarget target) throws PaintException {
-        if (dropHandler != null && isEnabled()) {
-            dropHandler.getAcceptCriterion().paint(target);
-        }
+        stateManager.paintAcceptCriterion(target);
     }
 
     public TargetDetails translateDropTargetDetails(
@@ -203,6 +195,26 @@ public class DDFormLayout extends FormLayout
         }
     }
 
+    /**
+     * Moves a child component to a new position in the layout.
+     * <p>
+     * Unlike removing and adding the component again the component stays
+     * attached. No detach and attach events are fired and the client only
+     * receives the new order of the children.
+     * 
+     * @param component
+     *            The child component to move
+     * @param index
+     *            The index of the component after it has been moved
+     * @throws IllegalArgumentException
+     *             if the component is not a child of the layout
+     * @throws IndexOutOfBoundsException
+     *             if the index is out of bounds
+     */
+    public void moveComponent(Component component, int index) {
+        DDUtil.moveComponent(this, components, component, index);
+    }
+
     /**
      * Returns the mode of which dragging is visualized.
      * 
@@ -222,6 +234,34 @@ public class DDFormLayout extends FormLayout
         getState().ddState.dragMode = mode;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    public void setDragStartThreshold(int distance, int delay) {
+        DDUtil.setDragStartThreshold(getState().ddState, distance, delay);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public int getDragStartDistance() {
+        return getState().ddState.dragStartDistance;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public int getDragStartDelay() {
+        return getState().ddState.dragStartDelay;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public int getSuppressedDragStartCount() {
+        return stateManager.getSuppressedDragStartCount();
+    }
+
     /**
      * Sets the ratio which determines how a cell is divided into drop zones.
      * The ratio is measured from the top and bottom borders. For example,
@@ -269,6 +309,20 @@ public class DDFormLayout extends FormLayout
      */
     public void setDragFilter(DragFilter dragFilter) {
         this.dragFilter = dragFilter;
+        stateManager.invalidate();
+        markAsDirty();
+    }
+
+    /**
+     * Evaluates the drag filter and the drag image provider again for all
+     * components in the layout. The filter and the provider are otherwise
+     * only evaluated for components as they are added to the layout, so this
+     * needs to be called when their result depends on something else, like
+     * the caption or data of a component.
+     */
+    public void refreshDragFilter() {
+        stateManager.invalidate();
+        markAsDirty();
     }
 
     @Override
@@ -279,17 +333,18 @@ public class DDFormLayout extends FormLayout
     @Override
     public void beforeClientResponse(boolean initial) {
         super.beforeClientResponse(initial);
-        DDUtil.onBeforeClientResponse(this, getState());
+        stateManager.updateState(getState(), initial);
     }
 
     @Override
     public void changeVariables(Object source, Map<String, Object> variables) {
-        // TODO Auto-generated method stub
+        stateManager.changeVariables(variables);
     }
 
     @Override
     public void setDragImageProvider(DragImageProvider provider) {
         this.dragImageProvider = provider;
+        stateManager.invalidate();
         markAsDirty();
     }
 
@@ -297,4 +352,14 @@ public class DDFormLayout extends FormLayout
     public DragImageProvider getDragImageProvider() {
         return this.dragImageProvider;
     }
+
+    @Override
+    public void setDragProxyMode(DragProxyMode mode) {
+        DDUtil.setDragProxyMode(getState().ddState, mode);
+    }
+
+    @Override
+    public DragProxyMode getDragProxyMode() {
+        return getState().ddState.dragProxyMode;
+    }
 }
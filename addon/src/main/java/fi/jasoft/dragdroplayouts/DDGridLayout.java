@@ -19,10 +19,8 @@ import com.vaadin.event.Transferable;
 import com.vaadin.event.dd.DropHandler;
 import com.vaadin.event.dd.DropTarget;
 import com.vaadin.event.dd.TargetDetails;
-import com.vaadin.event.dd.TargetDetailsImpl;
 import com.vaadin.server.PaintException;
 import com.vaadin.server.PaintTarget;
-import com.vaadin.shared.MouseEventDetails;
 import com.vaadin.shared.ui.dd.HorizontalDropLocation;
 import com.vaadin.shared.ui.dd.VerticalDropLocation;
 import com.vaadin.ui.Component;
@@ -30,13 +28,16 @@ import com.vaadin.ui.GridLayout;
 import com.vaadin.ui.LegacyComponent;
 
 import fi.jasoft.dragdroplayouts.client.ui.Constants;
+import fi.jasoft.dragdroplayouts.client.ui.DragProxyMode;
 import fi.jasoft.dragdroplayouts.client.ui.LayoutDragMode;
 import fi.jasoft.dragdroplayouts.client.ui.gridlayout.DDGridLayoutState;
+import fi.jasoft.dragdroplayouts.details.AbstractLayoutTargetDetails;
 import fi.jasoft.dragdroplayouts.events.LayoutBoundTransferable;
 import fi.jasoft.dragdroplayouts.interfaces.DragFilter;
 import fi.jasoft.dragdroplayouts.interfaces.DragFilterSupport;
 import fi.jasoft.dragdroplayouts.interfaces.DragImageProvider;
 import fi.jasoft.dragdroplayouts.interfaces.DragImageReferenceSupport;
+import fi.jasoft.dragdroplayouts.interfaces.DragStartThresholdSupport;
 import fi.jasoft.dragdroplayouts.interfaces.LayoutDragSource;
 import fi.jasoft.dragdroplayouts.interfaces.ShimSupport;
 
@@ -49,7 +50,8 @@ import fi.jasoft.dragdroplayouts.interfaces.ShimSupport;
 @SuppressWarnings("serial")
 public class DDGridLayout extends GridLayout
         implements LayoutDragSource, DropTarget, ShimSupport, LegacyComponent,
-        DragFilterSupport, DragImageReferenceSupport {
+        DragFilterSupport, DragImageReferenceSupport,
+        DragStartThresholdSupport {
 
     private DropHandler dropHandler;
 
@@ -58,10 +60,14 @@ public class DDGridLayout extends GridLayout
 
     private DragImageProvider dragImageProvider;
 
+    // Keeps the draggable components in the state up to date
+    private final DDLayoutStateManager stateManager = new DDLayoutStateManager(
+            this);
+
     /**
      * Target details for a drop event
      */
-    public class GridLayoutTargetDetails extends TargetDetailsImpl {
+    public class GridLayoutTargetDetails extends AbstractLayoutTargetDetails {
 
         private Component over;
 
@@ -72,19 +78,8 @@ public class DDGridLayout extends GridLayout
         protected GridLayoutTargetDetails(Map<String, Object> rawDropData) {
             super(rawDropData, DDGridLayout.this);
 
-            if (getData(Constants.DROP_DETAIL_ROW) != null) {
-                row = Integer
-                        .valueOf(getData(Constants.DROP_DETAIL_ROW).toString());
-            } else {
-                row = -1;
-            }
-
-            if (getData(Constants.DROP_DETAIL_COLUMN) != null) {
-                column = Integer.valueOf(
-                        getData(Constants.DROP_DETAIL_COLUMN).toString());
-            } else {
-                column = -1;
-            }
+            row = getIntData(Constants.DROP_DETAIL_ROW, -1);
+            column = getIntData(Constants.DROP_DETAIL_COLUMN, -1);
 
             if (row != -1 && column != -1) {
                 over = getComponent(column, row);
@@ -156,17 +151,6 @@ public class DDGridLayout extends GridLayout
             return Boolean.valueOf(
                     getData(Constants.DROP_DETAIL_EMPTY_CELL).toString());
         }
-
-        /**
-         * Some details about the mouse event
-         * 
-         * @return details about the actual event that caused the event details.
-         *         Practically mouse move or mouse up.
-         */
-        public MouseEventDetails getMouseEvent() {
-            return MouseEventDetails.deSerialize(
-                    getData(Constants.DROP_DETAIL_MOUSE_EVENT).toString());
-        }
     }
 
     /**
@@ -174,6 +158,10 @@ public class DDGridLayout extends GridLayout
      */
     public class GridLayoutTransferable extends LayoutBoundTransferable {
 
+        private final int sourceRow;
+
+        private final int sourceColumn;
+
         /**
          * Constructor
          * 
@@ -185,6 +173,8 @@ public class DDGridLayout extends GridLayout
         public GridLayoutTransferable(Component sourceComponent,
                 Map<String, Object> rawVariables) {
             super(sourceComponent, rawVariables);
+            sourceRow = getIntData(Constants.DROP_DETAIL_ROW, -1);
+            sourceColumn = getIntData(Constants.DROP_DETAIL_COLUMN, -1);
         }
 
         /**
@@ -193,8 +183,7 @@ public class DDGridLayout extends GridLayout
          * @return The row index
          */
         public int getSourceRow() {
-            return Integer
-                    .valueOf(getData(Constants.DROP_DETAIL_ROW).toString());
+            return sourceRow;
         }
 
         /**
@@ -203,8 +192,7 @@ public class DDGridLayout extends GridLayout
          * @return The column index
          */
         public int getSourceColumn() {
-            return Integer
-                    .valueOf(getData(Constants.DROP_DETAIL_COLUMN).toString());
+            return sourceColumn;
         }
     }
 
@@ -247,14 +235,12 @@ public class DDGridLayout extends GridLayout
 
     @Override
     public void paintContent(PaintTarget target) throws PaintException {
-        if (dropHandler != null && isEnabled()) {
-            dropHandler.getAcceptCriterion().paint(target);
-        }
+        stateManager.paintAcceptCriterion(target);
     }
 
     @Override
     public void changeVariables(Object source, Map<String, Object> variables) {
-        // To be compatible with Designer drag & drop
+        stateManager.changeVariables(variables);
     }
 
     /**
@@ -289,6 +275,34 @@ public class DDGridLayout extends GridLayout
         getState().ddState.dragMode = mode;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    public void setDragStartThreshold(int distance, int delay) {
+        DDUtil.setDragStartThreshold(getState().ddState, distance, delay);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public int getDragStartDistance() {
+        return getState().ddState.dragStartDistance;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public int getDragStartDelay() {
+        return getState().ddState.dragStartDelay;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public int getSuppressedDragStartCount() {
+        return stateManager.getSuppressedDragStartCount();
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -372,6 +386,20 @@ public class DDGridLayout extends GridLayout
      */
     public void setDragFilter(DragFilter dragFilter) {
         this.dragFilter = dragFilter;
+        stateManager.invalidate();
+        markAsDirty();
+    }
+
+    /**
+     * Evaluates the drag filter and the drag image provider again for all
+     * components in the layout. The filter and the provider are otherwise
+     * only evaluated for components as they are added to the layout, so this
+     * needs to be called when their result depends on something else, like
+     * the caption or data of a component.
+     */
+    public void refreshDragFilter() {
+        stateManager.invalidate();
+        markAsDirty();
     }
 
     @Override
@@ -382,12 +410,13 @@ public class DDGridLayout extends GridLayout
     @Override
     public void beforeClientResponse(boolean initial) {
         super.beforeClientResponse(initial);
-        DDUtil.onBeforeClientResponse(this, getState());
+        stateManager.updateState(getState(), initial);
     }
 
     @Override
     public void setDragImageProvider(DragImageProvider provider) {
         this.dragImageProvider = provider;
+        stateManager.invalidate();
         markAsDirty();
     }
 
@@ -396,4 +425,13 @@ public class DDGridLayout extends GridLayout
         return this.dragImageProvider;
     }
 
+    @Override
+    public void setDragProxyMode(DragProxyMode mode) {
+        DDUtil.setDragProxyMode(getState().ddState, mode);
+    }
+
+    @Override
+    public DragProxyMode getDragProxyMode() {
+        return getState().ddState.dragProxyMode;
+    }
 }
@@ -19,24 +19,25 @@ import com.vaadin.event.Transferable;
 import com.vaadin.event.dd.DropHandler;
 import com.vaadin.event.dd.DropTarget;
 import com.vaadin.event.dd.TargetDetails;
-import com.vaadin.event.dd.TargetDetailsImpl;
 import com.vaadin.server.PaintException;
 import com.vaadin.server.PaintTarget;
-import com.vaadin.shared.MouseEventDetails;
 import com.vaadin.shared.ui.dd.HorizontalDropLocation;
 import com.vaadin.ui.Component;
 import com.vaadin.ui.HorizontalLayout;
 import com.vaadin.ui.LegacyComponent;
 
 import fi.jasoft.dragdroplayouts.client.ui.Constants;
+import fi.jasoft.dragdroplayouts.client.ui.DragProxyMode;
 import fi.jasoft.dragdroplayouts.client.ui.LayoutDragMode;
 import fi.jasoft.dragdroplayouts.client.ui.horizontallayout.DDHorizontalLayoutState;
 import fi.jasoft.dragdroplayouts.client.ui.util.IframeCoverUtility;
+import fi.jasoft.dragdroplayouts.details.AbstractLayoutTargetDetails;
 import fi.jasoft.dragdroplayouts.events.LayoutBoundTransferable;
 import fi.jasoft.dragdroplayouts.interfaces.DragFilter;
 import fi.jasoft.dragdroplayouts.interfaces.DragFilterSupport;
 import fi.jasoft.dragdroplayouts.interfaces.DragImageProvider;
 import fi.jasoft.dragdroplayouts.interfaces.DragImageReferenceSupport;
+import fi.jasoft.dragdroplayouts.interfaces.DragStartThresholdSupport;
 import fi.jasoft.dragdroplayouts.interfaces.LayoutDragSource;
 import fi.jasoft.dragdroplayouts.interfaces.ShimSupport;
 
@@ -49,7 +50,8 @@ import fi.jasoft.dragdroplayouts.interfaces.ShimSupport;
 @SuppressWarnings("serial")
 public class DDHorizontalLayout extends HorizontalLayout
         implements LayoutDragSource, DropTarget, ShimSupport, LegacyComponent,
-        DragFilterSupport, DragImageReferenceSupport {
+        DragFilterSupport, DragImageReferenceSupport,
+        DragStartThresholdSupport {
 
     /**
      * The drop handler which handles dropped components in the layout.
@@ -61,11 +63,16 @@ public class DDHorizontalLayout extends HorizontalLayout
 
     private DragImageProvider dragImageProvider;
 
+    // Keeps the draggable components in the state up to date
+    private final DDLayoutStateManager stateManager = new DDLayoutStateManager(
+            this);
+
     /**
      * Contains the component over which the drop was made and the index on
      * which the drop was made.
      */
-    public class HorizontalLayoutTargetDetails extends TargetDetailsImpl {
+    public class HorizontalLayoutTargetDetails
+            extends AbstractLayoutTargetDetails {
 
         private Component over;
 
@@ -78,8 +85,7 @@ public class DDHorizontalLayout extends HorizontalLayout
             // Get over which component (if any) the drop was made and the
             // index of it
             if (getData(Constants.DROP_DETAIL_TO) != null) {
-                index = Integer
-                        .valueOf(getData(Constants.DROP_DETAIL_TO).toString());
+                index = getIntData(Constants.DROP_DETAIL_TO, -1);
                 if (index >= 0 && index < components.size()) {
                     over = components.get(index);
                 }
@@ -110,17 +116,6 @@ public class DDHorizontalLayout extends HorizontalLayout
             return index;
         }
 
-        /**
-         * Some details about the mouse event
-         * 
-         * @return details about the actual event that caused the event details.
-         *         Practically mouse move or mouse up.
-         */
-        public MouseEventDetails getMouseEvent() {
-            return MouseEventDetails.deSerialize(
-                    getData(Constants.DROP_DETAIL_MOUSE_EVENT).toString());
-        }
-
         /**
          * Get the horizontal position of the dropped component within the
          * underlying cell.
@@ -162,9 +157,7 @@ public class DDHorizontalLayout extends HorizontalLayout
      */
     public void paintContent(PaintTarget target) throws PaintException {
 
-        if (dropHandler != null && isEnabled()) {
-            dropHandler.getAcceptCriterion().paint(target);
-        }
+        stateManager.paintAcceptCriterion(target);
 
         // Drop ratios
         target.addAttribute(Constants.ATTRIBUTE_HORIZONTAL_DROP_RATIO,
@@ -227,6 +220,26 @@ public class DDHorizontalLayout extends HorizontalLayout
         }
     }
 
+    /**
+     * Moves a child component to a new position in the layout.
+     * <p>
+     * Unlike removing and adding the component again the component stays
+     * attached. No detach and attach events are fired and the client only
+     * receives the new order of the children.
+     * 
+     * @param component
+     *            The child component to move
+     * @param index
+     *            The index of the component after it has been moved
+     * @throws IllegalArgumentException
+     *             if the component is not a child of the layout
+     * @throws IndexOutOfBoundsException
+     *             if the index is out of bounds
+     */
+    public void moveComponent(Component component, int index) {
+        DDUtil.moveComponent(this, components, component, index);
+    }
+
     /**
      * Returns the mode of which dragging is visualized.
      * 
@@ -246,6 +259,34 @@ public class DDHorizontalLayout extends HorizontalLayout
         getState().ddState.dragMode = mode;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    public void setDragStartThreshold(int distance, int delay) {
+        DDUtil.setDragStartThreshold(getState().ddState, distance, delay);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public int getDragStartDistance() {
+        return getState().ddState.dragStartDistance;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public int getDragStartDelay() {
+        return getState().ddState.dragStartDelay;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public int getSuppressedDragStartCount() {
+        return stateManager.getSuppressedDragStartCount();
+    }
+
     /**
      * Sets the ratio which determines how a cell is divided into drop zones.
      * The ratio is measured from the left and right borders. For example,
@@ -293,6 +334,20 @@ public class DDHorizontalLayout extends HorizontalLayout
      */
     public void setDragFilter(DragFilter dragFilter) {
         this.dragFilter = dragFilter;
+        stateManager.invalidate();
+        markAsDirty();
+    }
+
+    /**
+     * Evaluates the drag filter and the drag image provider again for all
+     * components in the layout. The filter and the provider are otherwise
+     * only evaluated for components as they are added to the layout, so this
+     * needs to be called when their result depends on something else, like
+     * the caption or data of a component.
+     */
+    public void refreshDragFilter() {
+        stateManager.invalidate();
+        markAsDirty();
     }
 
     @Override
@@ -303,17 +358,18 @@ public class DDHorizontalLayout extends HorizontalLayout
     @Override
     public void beforeClientResponse(boolean initial) {
         super.beforeClientResponse(initial);
-        DDUtil.onBeforeClientResponse(this, getState());
+        stateManager.updateState(getState(), initial);
     }
 
     @Override
     public void changeVariables(Object source, Map<String, Object> variables) {
-        // TODO Auto-generated method stub
+        stateManager.changeVariables(variables);
     }
 
     @Override
     public void setDragImageProvider(DragImageProvider provider) {
         this.dragImageProvider = provider;
+        stateManager.invalidate();
         markAsDirty();
     }
 
@@ -321,4 +377,14 @@ public class DDHorizontalLayout extends HorizontalLayout
     public DragImageProvider getDragImageProvider() {
         return this.dragImageProvider;
     }
+
+    @Override
+    public void setDragProxyMode(DragProxyMode mode) {
+        DDUtil.setDragProxyMode(getState().ddState, mode);
+    }
+
+    @Override
+    public DragProxyMode getDragProxyMode() {
+        return getState().ddState.dragProxyMode;
+    }
 }
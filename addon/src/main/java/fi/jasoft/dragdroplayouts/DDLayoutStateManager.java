@@ -0,0 +1,335 @@
+/*
+ * Copyright 2015 John Ahlroos
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package fi.jasoft.dragdroplayouts;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import com.vaadin.event.dd.DropHandler;
+import com.vaadin.event.dd.DropTarget;
+import com.vaadin.event.dd.acceptcriteria.AcceptCriterion;
+import com.vaadin.server.PaintException;
+import com.vaadin.server.PaintTarget;
+import com.vaadin.shared.Connector;
+import com.vaadin.ui.Component;
+import com.vaadin.ui.HasComponents;
+import com.vaadin.ui.HasComponents.ComponentAttachDetachNotifier;
+import com.vaadin.ui.HasComponents.ComponentAttachEvent;
+import com.vaadin.ui.HasComponents.ComponentAttachListener;
+import com.vaadin.ui.HasComponents.ComponentDetachEvent;
+import com.vaadin.ui.HasComponents.ComponentDetachListener;
+
+import fi.jasoft.dragdroplayouts.client.ui.Constants;
+import fi.jasoft.dragdroplayouts.client.ui.LayoutDragMode;
+import fi.jasoft.dragdroplayouts.client.ui.interfaces.DDLayoutState;
+import fi.jasoft.dragdroplayouts.client.ui.interfaces.DragAndDropAwareState;
+import fi.jasoft.dragdroplayouts.interfaces.ClientSideDragFilter;
+import fi.jasoft.dragdroplayouts.interfaces.DragFilter;
+import fi.jasoft.dragdroplayouts.interfaces.DragFilterSupport;
+import fi.jasoft.dragdroplayouts.interfaces.DragImageProvider;
+import fi.jasoft.dragdroplayouts.interfaces.DragImageReferenceSupport;
+
+/**
+ * Keeps the draggable components and the reference drag images of a layout's
+ * {@link DDLayoutState} up to date.
+ * <p>
+ * Instead of running the drag filter and drag image provider for every child
+ * each time the layout is repainted only the children attached since the
+ * previous response are evaluated. All children are re-evaluated only after
+ * {@link #invalidate()} has been called, for instance when the drag filter
+ * changes or the application calls the layout's refreshDragFilter(). A filter
+ * whose result depends on the state of the components, like their captions,
+ * is not re-evaluated when that state changes. Nothing is evaluated while the
+ * drag mode is {@link LayoutDragMode#NONE}.
+ * <p>
+ * Filters implementing {@link ClientSideDragFilter} are not evaluated on the
+ * server at all, instead their rule is sent to the client.
+ * <p>
+ * The accept criterion of the drop handler is only painted when it is not the
+ * same instance as the criterion the client already has. Criteria are compared
+ * by identity, so changes made to a criterion after it has been painted, for
+ * instance to the values of a mutable criterion, do not reach the client. The
+ * drop handler has to return a new criterion for the change to take effect.
+ * Whether the layout accepts drops at all is sent in the state.
+ *
+ * @author John Ahlroos / www.jasoft.fi
+ * @since 1.3.0
+ */
+@SuppressWarnings("serial")
+public class DDLayoutStateManager implements ComponentAttachListener,
+        ComponentDetachListener, Serializable {
+
+    private final HasComponents layout;
+
+    // Draggable components as last sent to the client
+    private final Set<Connector> draggable = new LinkedHashSet<Connector>();
+
+    // Reference images as last sent to the client
+    private final Map<Connector, Connector> referenceImages = new HashMap<Connector, Connector>();
+
+    // Components attached since the last response
+    private final Set<Component> attached = new LinkedHashSet<Component>();
+
+    // Components detached since the last response
+    private final Set<Component> detached = new LinkedHashSet<Component>();
+
+    // Should all children be re-evaluated on the next response
+    private boolean invalidated = true;
+
+    // Have the collections changed since they were last sent
+    private boolean changed = false;
+
+    // Accept criterion as last painted to the client
+    private AcceptCriterion paintedCriterion;
+
+    // Suppressed drag starts reported by earlier client side widgets
+    private int earlierSuppressedDragStarts = 0;
+
+    // Suppressed drag starts reported by the current client side widget
+    private int reportedSuppressedDragStarts = 0;
+
+    /**
+     * Creates a state manager for a layout. If the layout notifies about
+     * attached and detached children only those children are evaluated on
+     * the next response, otherwise all children are evaluated on every
+     * response.
+     *
+     * @param layout
+     *            The layout whose state should be managed
+     */
+    public DDLayoutStateManager(HasComponents layout) {
+        this.layout = layout;
+        if (layout instanceof ComponentAttachDetachNotifier) {
+            ComponentAttachDetachNotifier notifier = (ComponentAttachDetachNotifier) layout;
+            notifier.addComponentAttachListener(this);
+            notifier.addComponentDetachListener(this);
+        }
+    }
+
+    /**
+     * Forces the drag filter and drag image provider to be evaluated for all
+     * children on the next response. Called by the layouts when the filter or
+     * image provider changes, and from their refreshDragFilter() when the
+     * result of the filter depends on something else than which components
+     * are in the layout.
+     */
+    public void invalidate() {
+        invalidated = true;
+        attached.clear();
+        detached.clear();
+    }
+
+    /**
+     * Updates the draggable components and reference images in the state.
+     *
+     * @param state
+     *            The state of the layout
+     */
+    public void updateState(DragAndDropAwareState state) {
+        updateState(state, false);
+    }
+
+    /**
+     * Updates the draggable components, reference images and drop handler
+     * presence in the state. Should be called from the layout's
+     * beforeClientResponse().
+     *
+     * @param state
+     *            The state of the layout
+     * @param initial
+     *            Is the client missing the layout, in which case the accept
+     *            criterion is painted again
+     */
+    public void updateState(DragAndDropAwareState state, boolean initial) {
+        DDLayoutState dragAndDropState = state.getDragAndDropState();
+        DragFilter filter = getDragFilter();
+
+        if (initial) {
+            paintedCriterion = null;
+        }
+        dragAndDropState.acceptDrops = getDropHandler() != null;
+
+        if (dragAndDropState.dragMode == LayoutDragMode.NONE) {
+            // Dragging is disabled, evaluate everything when it is enabled
+            if (!draggable.isEmpty() || !referenceImages.isEmpty()) {
+                draggable.clear();
+                referenceImages.clear();
+                changed = true;
+            }
+            dragAndDropState.dragFilterRule = null;
+            invalidate();
+
+        } else if (invalidated
+                || !(layout instanceof ComponentAttachDetachNotifier)) {
+            draggable.clear();
+            referenceImages.clear();
+            // Client side filters without image providers need no iteration
+            if (!(filter instanceof ClientSideDragFilter)
+                    || getDragImageProvider() != null) {
+                Iterator<Component> componentIterator = layout.iterator();
+                while (componentIterator.hasNext()) {
+                    evaluate(componentIterator.next());
+                }
+            }
+            invalidated = false;
+            changed = true;
+
+        } else {
+            for (Component c : detached) {
+                changed |= draggable.remove(c);
+                changed |= referenceImages.remove(c) != null;
+            }
+            detached.clear();
+
+            for (Component c : attached) {
+                evaluate(c);
+                changed = true;
+            }
+            attached.clear();
+        }
+
+        if (dragAndDropState.dragMode != LayoutDragMode.NONE) {
+            dragAndDropState.dragFilterRule = null;
+            if (filter instanceof ClientSideDragFilter) {
+                dragAndDropState.dragFilterRule = ((ClientSideDragFilter) filter)
+                        .getRule();
+            }
+        }
+
+        if (changed) {
+            dragAndDropState.draggable = new ArrayList<Connector>(draggable);
+            dragAndDropState.referenceImageComponents = new HashMap<Connector, Connector>(
+                    referenceImages);
+            changed = false;
+        }
+    }
+
+    /**
+     * Paints the accept criterion of the layout's drop handler if the client
+     * does not have it yet. Should be called from the layout's
+     * paintContent().
+     * <p>
+     * A criterion which is the same instance as the previously painted one is
+     * not painted again even if its content has changed.
+     *
+     * @param target
+     *            The paint target
+     * @throws PaintException
+     *             if painting the criterion fails
+     */
+    public void paintAcceptCriterion(PaintTarget target)
+            throws PaintException {
+        DropHandler dropHandler = getDropHandler();
+        AcceptCriterion criterion = dropHandler != null
+                ? dropHandler.getAcceptCriterion() : null;
+        if (criterion != null && criterion != paintedCriterion) {
+            criterion.paint(target);
+        }
+        paintedCriterion = criterion;
+    }
+
+    /**
+     * Handles the variables the client sends about the layout. Should be
+     * called from the layout's changeVariables().
+     *
+     * @param variables
+     *            The variables sent by the client
+     */
+    public void changeVariables(Map<String, Object> variables) {
+        Object suppressed = variables
+                .get(Constants.VARIABLE_SUPPRESSED_DRAG_STARTS);
+        if (suppressed != null) {
+            int count = DDUtil.toInt(suppressed, 0);
+            if (count < reportedSuppressedDragStarts) {
+                // The widget was recreated and counts from zero again
+                earlierSuppressedDragStarts += reportedSuppressedDragStarts;
+            }
+            reportedSuppressedDragStarts = count;
+        }
+    }
+
+    /**
+     * Returns how many presses the drag start threshold has kept from
+     * starting a drag, as reported by the client
+     *
+     * @return The number of suppressed drag starts
+     */
+    public int getSuppressedDragStartCount() {
+        return earlierSuppressedDragStarts + reportedSuppressedDragStarts;
+    }
+
+    private void evaluate(Component c) {
+        draggable.remove(c);
+        referenceImages.remove(c);
+
+        DragFilter filter = getDragFilter();
+        if (filter != null && !(filter instanceof ClientSideDragFilter)
+                && filter.isDraggable(c)) {
+            draggable.add(c);
+        }
+
+        DragImageProvider provider = getDragImageProvider();
+        if (provider != null) {
+            Component dragImage = provider.getDragImage(c);
+            if (dragImage != null) {
+                referenceImages.put(c, dragImage);
+            }
+        }
+    }
+
+    private DragFilter getDragFilter() {
+        if (layout instanceof DragFilterSupport) {
+            return ((DragFilterSupport) layout).getDragFilter();
+        }
+        return null;
+    }
+
+    private DropHandler getDropHandler() {
+        if (layout instanceof DropTarget && layout.isEnabled()) {
+            return ((DropTarget) layout).getDropHandler();
+        }
+        return null;
+    }
+
+    private DragImageProvider getDragImageProvider() {
+        if (layout instanceof DragImageReferenceSupport) {
+            return ((DragImageReferenceSupport) layout).getDragImageProvider();
+        }
+        return null;
+    }
+
+    @Override
+    public void componentAttachedToContainer(ComponentAttachEvent event) {
+        Component c = event.getAttachedComponent();
+        if (!invalidated) {
+            detached.remove(c);
+            attached.add(c);
+        }
+    }
+
+    @Override
+    public void componentDetachedFromContainer(ComponentDetachEvent event) {
+        Component c = event.getDetachedComponent();
+        if (!invalidated) {
+            // Attached and detached during the same round trip, nothing to do
+            attached.remove(c);
+            detached.add(c);
+        }
+    }
+}
@@ -3,12 +3,14 @@ package fi.jasoft.dragdroplayouts;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 
 import com.vaadin.event.dd.DropHandler;
 import com.vaadin.shared.Connector;
 import com.vaadin.ui.Component;
 import com.vaadin.ui.HasComponents;
 
+import fi.jasoft.dragdroplayouts.client.ui.DragProxyMode;
 import fi.jasoft.dragdroplayouts.client.ui.interfaces.DDLayoutState;
 import fi.jasoft.dragdroplayouts.client.ui.interfaces.DragAndDropAwareState;
 import fi.jasoft.dragdroplayouts.drophandlers.AbstractDefaultLayoutDropHandler;
@@ -18,6 +20,14 @@ import fi.jasoft.dragdroplayouts.interfaces.DragImageReferenceSupport;
 
 public class DDUtil {
 
+    /**
+     * Evaluates the drag filter and drag image provider for all components in
+     * the layout and updates the state.
+     * 
+     * @deprecated Evaluates every child on each response, use a
+     *             {@link DDLayoutStateManager} instead
+     */
+    @Deprecated
     public static void onBeforeClientResponse(HasComponents layout,
             DragAndDropAwareState state) {
         DDLayoutState dragAndDropState = state.getDragAndDropState();
@@ -47,6 +57,100 @@ public class DDUtil {
         }
     }
 
+    /**
+     * Sets the drag start threshold of a layout
+     * 
+     * @param state
+     *            The drag and drop state of the layout
+     * @param distance
+     *            The distance in pixels
+     * @param delay
+     *            The delay in milliseconds
+     * @throws IllegalArgumentException
+     *             if the distance or delay is negative
+     */
+    public static void setDragStartThreshold(DDLayoutState state, int distance,
+            int delay) {
+        if (distance < 0 || delay < 0) {
+            throw new IllegalArgumentException(
+                    "Drag start distance and delay cannot be negative");
+        }
+        state.dragStartDistance = distance;
+        state.dragStartDelay = delay;
+    }
+
+    /**
+     * Sets what the drag image of a layout is built from
+     * 
+     * @param state
+     *            The drag and drop state of the layout
+     * @param mode
+     *            The drag proxy mode
+     * @throws IllegalArgumentException
+     *             if the mode is null
+     */
+    public static void setDragProxyMode(DDLayoutState state,
+            DragProxyMode mode) {
+        if (mode == null) {
+            throw new IllegalArgumentException(
+                    "Drag proxy mode cannot be null");
+        }
+        state.dragProxyMode = mode;
+    }
+
+    /**
+     * Moves a child component of a layout to a new position without
+     * detaching it
+     * 
+     * @param layout
+     *            The layout the component belongs to
+     * @param components
+     *            The children of the layout
+     * @param component
+     *            The child component to move
+     * @param index
+     *            The index of the component after it has been moved
+     * @throws IllegalArgumentException
+     *             if the component is not a child of the layout
+     * @throws IndexOutOfBoundsException
+     *             if the index is out of bounds
+     */
+    public static void moveComponent(HasComponents layout,
+            List<Component> components, Component component, int index) {
+        int oldIndex = components.indexOf(component);
+        if (oldIndex == -1) {
+            throw new IllegalArgumentException(
+                    "Component is not a child of this layout");
+        }
+        if (index < 0 || index >= components.size()) {
+            throw new IndexOutOfBoundsException(
+                    "Index " + index + " is out of bounds");
+        }
+        if (index != oldIndex) {
+            components.remove(oldIndex);
+            components.add(index, component);
+            layout.markAsDirty();
+        }
+    }
+
+    /**
+     * Converts a drag and drop detail sent by the client to an integer
+     * 
+     * @param data
+     *            The detail, either an Integer or its string form
+     * @param defaultValue
+     *            The value to return if the detail is null
+     * @return The value of the detail
+     */
+    public static int toInt(Object data, int defaultValue) {
+        if (data == null) {
+            return defaultValue;
+        } else if (data instanceof Integer) {
+            return (Integer) data;
+        }
+        return Integer.parseInt(data.toString());
+    }
+
     public static void verifyHandlerType(HasComponents layout,
             DropHandler handler) {
         if (handler instanceof AbstractDefaultLayoutDropHandler) {
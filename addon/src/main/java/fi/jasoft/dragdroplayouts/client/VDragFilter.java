@@ -13,28 +13,107 @@
  */
 package fi.jasoft.dragdroplayouts.client;
 
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 import com.google.gwt.user.client.ui.Widget;
 import com.vaadin.client.ComponentConnector;
+import com.vaadin.client.HasComponentsConnector;
+import com.vaadin.client.ServerConnector;
 import com.vaadin.client.Util;
 import com.vaadin.client.VCaption;
 import com.vaadin.client.ui.VAccordion.StackItem;
+import com.vaadin.shared.Connector;
 
 import fi.jasoft.dragdroplayouts.client.ui.interfaces.DDLayoutState;
+import fi.jasoft.dragdroplayouts.client.ui.interfaces.DragFilterRule;
 
 public class VDragFilter {
 
     private final DDLayoutState state;
 
+    // Connector ids of the draggable components
+    private final Set<String> draggableIds = new HashSet<String>();
+
+    // The child list the indexes were built from, a new list is set by the
+    // parent connector whenever its children change
+    private List<ComponentConnector> indexedChildren;
+
+    private final Map<ComponentConnector, Integer> childIndexes = new HashMap<ComponentConnector, Integer>();
+
     public VDragFilter(DDLayoutState state) {
         this.state = state;
+        if (state.draggable != null) {
+            for (Connector connector : state.draggable) {
+                if (connector != null) {
+                    draggableIds.add(connector.getConnectorId());
+                }
+            }
+        }
     }
 
     public boolean isDraggable(Widget widget) {
         ComponentConnector component = findConnectorFor(widget);
-        if (state.draggable != null) {
-            return state.draggable.contains(component);
+        if (state.dragFilterRule != null) {
+            return component != null
+                    && isDraggable(state.dragFilterRule, component);
+        }
+        return component != null
+                && draggableIds.contains(component.getConnectorId());
+    }
+
+    private boolean isDraggable(DragFilterRule rule,
+            ComponentConnector component) {
+        return matches(rule, component) == rule.allow;
+    }
+
+    private boolean matches(DragFilterRule rule,
+            ComponentConnector component) {
+        switch (rule.type) {
+        case STYLE_NAME:
+            List<String> styles = component.getState().styles;
+            if (styles != null) {
+                for (String style : styles) {
+                    if (rule.values.contains(style)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        case INDEX_RANGE:
+            ServerConnector parent = component.getParent();
+            if (parent instanceof HasComponentsConnector) {
+                int index = getIndex((HasComponentsConnector) parent,
+                        component);
+                return index >= rule.fromIndex && index < rule.toIndex;
+            }
+            return false;
+        case CONNECTOR_ID:
+            return rule.values.contains(component.getConnectorId());
+        default:
+            return false;
+        }
+    }
+
+    /**
+     * Returns the index of a child component. The indexes of the children are
+     * looked up once and only looked up again when the children change.
+     */
+    private int getIndex(HasComponentsConnector parent,
+            ComponentConnector component) {
+        List<ComponentConnector> children = parent.getChildComponents();
+        if (children != indexedChildren) {
+            childIndexes.clear();
+            for (int i = 0; i < children.size(); i++) {
+                childIndexes.put(children.get(i), i);
+            }
+            indexedChildren = children;
         }
-        return false;
+        Integer index = childIndexes.get(component);
+        return index == null ? -1 : index;
     }
 
     private ComponentConnector findConnectorFor(Widget widget) {
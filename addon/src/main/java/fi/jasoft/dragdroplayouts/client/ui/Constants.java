@@ -43,6 +43,9 @@ public interface Constants {
     public static final String TRANSFERABLE_DETAIL_MOUSEDOWN = "mouseDown";
     public static final String TRANSFERABLE_DETAIL_CAPTION = "caption";
 
+    // Variables
+    public static final String VARIABLE_SUPPRESSED_DRAG_STARTS = "suppressedDragStarts";
+
     // Attributes
     public static final String ATTRIBUTE_HORIZONTAL_DROP_RATIO = "hDropRatio";
     public static final String ATTRIBUTE_VERTICAL_DROP_RATIO = "vDropRatio";
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2015 John Ahlroos
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package fi.jasoft.dragdroplayouts.client.ui;
+
+/**
+ * DragProxyMode specifies what the drag image is built from when a component
+ * is dragged.
+ * 
+ * @author John Ahlroos / www.jasoft.fi
+ * @since 1.3.0
+ */
+public enum DragProxyMode {
+
+    /**
+     * Makes a deep copy of the dragged element including all its children.
+     * This is the default behaviour.
+     */
+    CLONE,
+
+    /**
+     * Shows an empty box of the same size as the dragged element. The box can
+     * be styled with the v-dd-drag-outline style name.
+     */
+    OUTLINE,
+
+    /**
+     * Makes a copy of the dragged element without its children and shows the
+     * caption of the dragged component in it.
+     */
+    SHALLOW
+
+    ;
+}
@@ -16,7 +16,11 @@ package fi.jasoft.dragdroplayouts.client.ui;
 import com.google.gwt.user.client.ui.Widget;
 import com.vaadin.client.ApplicationConnection;
 import com.vaadin.client.ComponentConnector;
+import com.vaadin.client.UIDL;
 import com.vaadin.client.ui.dd.VAbstractDropHandler;
+import com.vaadin.client.ui.dd.VAcceptCallback;
+import com.vaadin.client.ui.dd.VAcceptCriteria;
+import com.vaadin.client.ui.dd.VAcceptCriterion;
 import com.vaadin.client.ui.dd.VDragEvent;
 
 public abstract class VDDAbstractDropHandler<W extends Widget>
@@ -24,6 +28,11 @@ public abstract class VDDAbstractDropHandler<W extends Widget>
 
     private final ComponentConnector connector;
 
+    // The accept criterion, to tell if validating visits the server
+    private VAcceptCriterion criterion;
+
+    private UIDL criterionUIDL;
+
     public VDDAbstractDropHandler(ComponentConnector connector) {
         this.connector = connector;
     }
@@ -37,6 +46,63 @@ public abstract class VDDAbstractDropHandler<W extends Widget>
         dragLeave(drag);
     }
 
+    @Override
+    public void dragEnter(VDragEvent drag) {
+        cancelDragOver();
+        super.dragEnter(drag);
+    }
+
+    /**
+     * Schedules {@link #dragOverFrame(VDragEvent)} for the next animation
+     * frame. Browsers send mouse moves more often than the screen refreshes,
+     * so only the latest position of the drag is processed.
+     */
+    @Override
+    public void dragOver(VDragEvent drag) {
+        VDragOverScheduler.schedule(this, drag);
+    }
+
+    /**
+     * Updates the drop details and the emphasis of the layout while dragging.
+     * Called at most once per animation frame with the latest position of the
+     * drag.
+     * 
+     * @param drag
+     *            The drag event
+     */
+    protected void dragOverFrame(VDragEvent drag) {
+        // NOP
+    }
+
+    /**
+     * Discards the drag over pass scheduled for the next animation frame.
+     * Should be called when the drag leaves the layout or is dropped, the drop
+     * itself is always handled with the exact position of the drag.
+     */
+    protected void cancelDragOver() {
+        VDragOverScheduler.cancel(this);
+    }
+
+    @Override
+    public void updateAcceptRules(UIDL rules) {
+        super.updateAcceptRules(rules);
+        criterionUIDL = rules;
+        criterion = VAcceptCriteria.get(rules.getStringAttribute("name"));
+    }
+
+    /**
+     * Validates the drop. The mouse event details are serialized into the
+     * drop details only if the accept criterion is checked on the server.
+     */
+    @Override
+    protected void validate(VAcceptCallback cb, VDragEvent event) {
+        if (criterion == null
+                || criterion.needsServerSideCheck(event, criterionUIDL)) {
+            VDragDropUtil.serializeMouseEventDetails(event);
+        }
+        super.validate(cb, event);
+    }
+
     @Override
     protected void dragAccepted(VDragEvent drag) {
         // NOP
@@ -1,22 +1,80 @@
 package fi.jasoft.dragdroplayouts.client.ui;
 
+import java.util.Arrays;
+
 import com.google.gwt.dom.client.Element;
 import com.google.gwt.dom.client.NativeEvent;
 import com.google.gwt.user.client.DOM;
+import com.google.gwt.user.client.Window;
+import com.google.gwt.user.client.ui.Widget;
 import com.vaadin.client.ComponentConnector;
 import com.vaadin.client.WidgetUtil;
+import com.vaadin.client.ui.dd.VDragEvent;
 import com.vaadin.client.ui.orderedlayout.Slot;
 import com.vaadin.client.ui.orderedlayout.VAbstractOrderedLayout;
 
 public abstract class VDDAbstractOrderedLayoutDropHandler<W extends VAbstractOrderedLayout>
         extends VDDAbstractDropHandler<W> {
 
+    // Slot geometry captured during a drag, in viewport coordinates
+    private Slot[] slots;
+
+    // Start and end of the slots along the layout axis
+    private int[] slotStarts;
+
+    private int[] slotEnds;
+
+    // Start and end of the slots across the layout axis
+    private int[] crossStarts;
+
+    private int[] crossEnds;
+
+    // Session and positions version the slot geometry was measured in
+    private VDragSession geometrySession;
+
+    private int geometryVersion;
+
+    // The slot found for the latest event
+    private NativeEvent slotEvent;
+
+    private Element slotElement;
+
+    private Slot slot;
+
     public VDDAbstractOrderedLayoutDropHandler(ComponentConnector connector) {
         super(connector);
     }
 
     protected abstract Slot getSlot(Element e, NativeEvent event);
 
+    /**
+     * Returns the slot the drag is over. The slot is only searched once per
+     * event, so updating the drop details, validating the drop and
+     * emphasizing the slot all share the same result.
+     * 
+     * @param drag
+     *            The drag event
+     * @return The slot or null if the drag is not over a slot
+     */
+    protected Slot getSlot(VDragEvent drag) {
+        NativeEvent event = drag.getCurrentGwtEvent();
+        Element e = drag.getElementOver();
+        if (event == null || event != slotEvent || e != slotElement) {
+            VDragSession session = VDragSession.get(drag);
+            int version = session.getPositionsVersion();
+            if (session != geometrySession || version != geometryVersion) {
+                // Scrolled, resized or changed since the slots were measured
+                slots = null;
+                geometrySession = session;
+                geometryVersion = version;
+            }
+            slot = getSlot(e, event);
+            slotEvent = event;
+            slotElement = e;
+        }
+        return slot;
+    }
+
     protected Slot findSlotAtPosition(int clientX, int clientY,
             NativeEvent event) {
         com.google.gwt.dom.client.Element elementUnderMouse = WidgetUtil
@@ -28,40 +86,133 @@ public abstract class VDDAbstractOrderedLayoutDropHandler<W extends VAbstractOrd
     }
 
     protected Slot findSlotHorizontally(int spacerSize, NativeEvent event) {
-        int counter = 0;
-        Slot slotLeft, slotRight;
-        int clientX = event.getClientX();
-        int clientY = event.getClientY();
-        while (counter < spacerSize) {
-            counter++;
-            slotRight = findSlotAtPosition(clientX + counter, clientY, event);
-            slotLeft = findSlotAtPosition(clientX - counter, clientY, event);
-            if (slotRight != null) {
-                return slotRight;
-            }
-            if (slotLeft != null) {
-                return slotLeft;
+        return findClosestSlot(false, spacerSize, event);
+    }
+
+    protected Slot findSlotVertically(int spacerSize, NativeEvent event) {
+        return findClosestSlot(true, spacerSize, event);
+    }
+
+    @Override
+    public void dragEnter(VDragEvent drag) {
+        invalidateSlotGeometry();
+        super.dragEnter(drag);
+    }
+
+    /**
+     * Discards the slot geometry captured during the drag and the slot found
+     * for the latest event. Called when the drag enters or leaves the layout.
+     * The geometry is also measured again when the positions of the
+     * {@link VDragSession} change.
+     */
+    protected void invalidateSlotGeometry() {
+        slots = null;
+        slotEvent = null;
+        slotElement = null;
+        slot = null;
+        geometrySession = null;
+    }
+
+    /**
+     * Finds the slot closest to the pointer along the layout axis, at most
+     * spacerSize pixels away. The slot rectangles are measured once per drag
+     * and searched with a binary search, so no hit testing is done while
+     * dragging.
+     */
+    private Slot findClosestSlot(boolean vertical, int spacerSize,
+            NativeEvent event) {
+        if (slots == null) {
+            measureSlotGeometry(vertical);
+        }
+
+        int position = vertical ? event.getClientY() : event.getClientX();
+        int cross = vertical ? event.getClientX() : event.getClientY();
+
+        // First slot starting after the position
+        int low = 0;
+        int high = slots.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (slotStarts[mid] <= position) {
+                low = mid + 1;
+            } else {
+                high = mid;
             }
         }
-        return null;
+
+        // Slots after the position win ties like they did when probing
+        int after = low;
+        int before = low - 1;
+        int afterDistance = after < slots.length
+                ? slotStarts[after] - position : Integer.MAX_VALUE;
+        int beforeDistance = before >= 0 ? position - slotEnds[before] + 1
+                : Integer.MAX_VALUE;
+
+        boolean afterFound = afterDistance <= spacerSize
+                && isWithinCrossAxis(after, cross);
+        boolean beforeFound = beforeDistance <= spacerSize
+                && isWithinCrossAxis(before, cross);
+
+        Slot slot = null;
+        if (afterFound && (!beforeFound || afterDistance <= beforeDistance)) {
+            slot = slots[after];
+        } else if (beforeFound) {
+            slot = slots[before];
+        }
+        return slot;
     }
 
-    protected Slot findSlotVertically(int spacerSize, NativeEvent event) {
-        int counter = 0;
-        Slot slotTop, slotBottom;
-        int clientX = event.getClientX();
-        int clientY = event.getClientY();
-        while (counter < spacerSize) {
-            counter++;
-            slotBottom = findSlotAtPosition(clientX, clientY + counter, event);
-            slotTop = findSlotAtPosition(clientX, clientY - counter, event);
-            if (slotBottom != null) {
-                return slotBottom;
+    private boolean isWithinCrossAxis(int index, int cross) {
+        return cross >= crossStarts[index] && cross < crossEnds[index];
+    }
+
+    private void measureSlotGeometry(boolean vertical) {
+        W layout = getLayout();
+        int count = layout.getWidgetCount();
+        int scrollLeft = Window.getScrollLeft();
+        int scrollTop = Window.getScrollTop();
+
+        slots = new Slot[count];
+        slotStarts = new int[count];
+        slotEnds = new int[count];
+        crossStarts = new int[count];
+        crossEnds = new int[count];
+
+        int size = 0;
+        for (int i = 0; i < count; i++) {
+            Widget widget = layout.getWidget(i);
+            if (!(widget instanceof Slot)) {
+                continue;
             }
-            if (slotTop != null) {
-                return slotTop;
+            Element element = widget.getElement();
+            int left = element.getAbsoluteLeft() - scrollLeft;
+            int top = element.getAbsoluteTop() - scrollTop;
+            int right = left + element.getOffsetWidth();
+            int bottom = top + element.getOffsetHeight();
+
+            int start = vertical ? top : left;
+            int end = vertical ? bottom : right;
+
+            // Keep the slots ordered by their start, they usually already are
+            int index = size;
+            while (index > 0 && slotStarts[index - 1] > start) {
+                slots[index] = slots[index - 1];
+                slotStarts[index] = slotStarts[index - 1];
+                slotEnds[index] = slotEnds[index - 1];
+                crossStarts[index] = crossStarts[index - 1];
+                crossEnds[index] = crossEnds[index - 1];
+                index--;
             }
+            slots[index] = (Slot) widget;
+            slotStarts[index] = start;
+            slotEnds[index] = end;
+            crossStarts[index] = vertical ? left : top;
+            crossEnds[index] = vertical ? right : bottom;
+            size++;
+        }
+
+        if (size < count) {
+            slots = Arrays.copyOf(slots, size);
         }
-        return null;
     }
 }
@@ -37,9 +37,11 @@ import com.vaadin.client.ui.VLink;
 import com.vaadin.client.ui.VScrollTable;
 import com.vaadin.client.ui.VTabsheet.TabCaption;
 import com.vaadin.client.ui.VTwinColSelect;
+import com.vaadin.client.ui.dd.VDragEvent;
 import com.vaadin.client.ui.dd.VTransferable;
 import com.vaadin.client.ui.orderedlayout.Slot;
 import com.vaadin.client.ui.orderedlayout.VAbstractOrderedLayout;
+import com.vaadin.shared.MouseEventDetails;
 import com.vaadin.shared.ui.dd.HorizontalDropLocation;
 import com.vaadin.shared.ui.dd.VerticalDropLocation;
 import com.vaadin.ui.Button;
@@ -53,6 +55,7 @@ import fi.jasoft.dragdroplayouts.client.ui.interfaces.VDDHasDropHandler;
 import fi.jasoft.dragdroplayouts.client.ui.interfaces.VHasDragFilter;
 import fi.jasoft.dragdroplayouts.client.ui.interfaces.VHasDragImageReferenceSupport;
 import fi.jasoft.dragdroplayouts.client.ui.interfaces.VHasDragMode;
+import fi.jasoft.dragdroplayouts.client.ui.interfaces.VHasDragStartThreshold;
 import fi.jasoft.dragdroplayouts.client.ui.interfaces.VHasIframeShims;
 import fi.jasoft.dragdroplayouts.client.ui.tabsheet.VDDTabSheet;
 
@@ -482,6 +485,11 @@ public final class VDragDropUtil {
                     ((VHasDragMode) widget).setDragMode(state.dragMode);
                 }
 
+                if (widget instanceof VHasDragStartThreshold) {
+                    ((VHasDragStartThreshold) widget).setDragStartThreshold(
+                            state.dragStartDistance, state.dragStartDelay);
+                }
+
                 if (widget instanceof VHasIframeShims) {
                     ((VHasIframeShims) widget)
                             .iframeShimsEnabled(state.iframeShims);
@@ -496,6 +504,8 @@ public final class VDragDropUtil {
                     ((VHasDragImageReferenceSupport) widget)
                             .setDragImageProvider(
                                     new VDDLayoutStateDragImageProvider(state));
+                    ((VHasDragImageReferenceSupport) widget)
+                            .setDragProxyMode(state.dragProxyMode);
                 }
             }
         });
@@ -507,17 +517,26 @@ public final class VDragDropUtil {
         if (AbstractComponentConnector.isRealUpdate(uidl)
                 && !uidl.hasAttribute("hidden")) {
             UIDL acceptCrit = uidl.getChildByTagName("-ac");
-            if (acceptCrit == null) {
-                widget.setDropHandler(null);
-            } else {
+            if (acceptCrit != null) {
                 if (widget.getDropHandler() == null) {
                     widget.setDropHandler(dropHandler);
                 }
                 widget.getDropHandler().updateAcceptRules(acceptCrit);
+            } else if (!acceptsDrops(connector)) {
+                widget.setDropHandler(null);
             }
+            // Otherwise the accept criterion has not changed
         }
     }
 
+    private static boolean acceptsDrops(ComponentConnector connector) {
+        if (connector.getState() instanceof DragAndDropAwareState) {
+            return ((DragAndDropAwareState) connector.getState())
+                    .getDragAndDropState().acceptDrops;
+        }
+        return false;
+    }
+
     /**
      * Returns the parent layout that the slot belongs to
      * 
@@ -553,4 +572,50 @@ public final class VDragDropUtil {
         }
         return index;
     }
+
+    /**
+     * Updates the mouse event details of a drag. The details are kept as the
+     * element they are relative to and serialized only when they are sent to
+     * the server, see {@link #serializeMouseEventDetails(VDragEvent)}. Drop
+     * events are serialized right away since they are always sent.
+     * 
+     * @param event
+     *            The drag event
+     * @param relativeTo
+     *            The element the coordinates are relative to
+     */
+    public static void updateMouseEventDetails(VDragEvent event,
+            Element relativeTo) {
+        VDragSession.get(event).setMouseEventElement(relativeTo);
+        if (isDropEvent(event.getCurrentGwtEvent())) {
+            serializeMouseEventDetails(event);
+        }
+    }
+
+    /**
+     * Puts the serialized mouse event details of a drag into its drop details.
+     * Should be called before the drop details are sent to the server.
+     * 
+     * @param event
+     *            The drag event
+     */
+    public static void serializeMouseEventDetails(VDragEvent event) {
+        NativeEvent nativeEvent = event.getCurrentGwtEvent();
+        Element relativeTo = VDragSession.get(event).getMouseEventElement();
+        if (nativeEvent != null && relativeTo != null) {
+            MouseEventDetails details = MouseEventDetailsBuilder
+                    .buildMouseEventDetails(nativeEvent, relativeTo);
+            event.getDropDetails().put(Constants.DROP_DETAIL_MOUSE_EVENT,
+                    details.serialize());
+        }
+    }
+
+    private static boolean isDropEvent(NativeEvent event) {
+        if (event == null) {
+            return false;
+        }
+        String type = event.getType();
+        return "mouseup".equals(type) || "touchend".equals(type)
+                || "drop".equals(type);
+    }
 }
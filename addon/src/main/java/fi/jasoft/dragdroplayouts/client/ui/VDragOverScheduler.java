@@ -0,0 +1,97 @@
+/*
+ * Copyright 2015 John Ahlroos
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package fi.jasoft.dragdroplayouts.client.ui;
+
+import com.google.gwt.animation.client.AnimationScheduler;
+import com.google.gwt.animation.client.AnimationScheduler.AnimationCallback;
+import com.google.gwt.animation.client.AnimationScheduler.AnimationHandle;
+import com.vaadin.client.ui.dd.VDragAndDropManager;
+import com.vaadin.client.ui.dd.VDragEvent;
+
+/**
+ * Collapses the drag over events of the drop handlers into at most one pass
+ * per animation frame.
+ * <p>
+ * Only one drag can be in progress at a time so only the latest drag over is
+ * kept. The drag event is updated by the drag and drop manager for every
+ * mouse move, so the pass always sees the latest pointer position. The pass
+ * is skipped if the drop handler is no longer the current one when the frame
+ * is rendered, for instance because the drag left the layout or was dropped.
+ *
+ * @author John Ahlroos / www.jasoft.fi
+ * @since 1.3.0
+ */
+final class VDragOverScheduler {
+
+    private static VDDAbstractDropHandler<?> pendingHandler;
+
+    private static VDragEvent pendingDrag;
+
+    private static AnimationHandle frame;
+
+    private static final AnimationCallback CALLBACK = new AnimationCallback() {
+
+        @Override
+        public void execute(double timestamp) {
+            VDDAbstractDropHandler<?> handler = pendingHandler;
+            VDragEvent drag = pendingDrag;
+            frame = null;
+            pendingHandler = null;
+            pendingDrag = null;
+
+            if (handler != null && VDragAndDropManager.get()
+                    .getCurrentDropHandler() == handler) {
+                handler.dragOverFrame(drag);
+            }
+        }
+    };
+
+    private VDragOverScheduler() {
+        // Static helpers only
+    }
+
+    /**
+     * Schedules a drag over pass of a drop handler for the next animation
+     * frame, replacing any pass scheduled earlier.
+     *
+     * @param handler
+     *            The drop handler the drag is over
+     * @param drag
+     *            The drag event
+     */
+    static void schedule(VDDAbstractDropHandler<?> handler, VDragEvent drag) {
+        pendingHandler = handler;
+        pendingDrag = drag;
+        if (frame == null) {
+            frame = AnimationScheduler.get().requestAnimationFrame(CALLBACK);
+        }
+    }
+
+    /**
+     * Cancels the pass scheduled for a drop handler, if any.
+     *
+     * @param handler
+     *            The drop handler
+     */
+    static void cancel(VDDAbstractDropHandler<?> handler) {
+        if (pendingHandler == handler) {
+            pendingHandler = null;
+            pendingDrag = null;
+            if (frame != null) {
+                frame.cancel();
+                frame = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,403 @@
+/*
+ * Copyright 2015 John Ahlroos
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package fi.jasoft.dragdroplayouts.client.ui;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.core.client.Scheduler;
+import com.google.gwt.core.client.Scheduler.ScheduledCommand;
+import com.google.gwt.dom.client.Element;
+import com.google.gwt.event.shared.HandlerRegistration;
+import com.google.gwt.user.client.Event;
+import com.google.gwt.user.client.Event.NativePreviewEvent;
+import com.google.gwt.user.client.Event.NativePreviewHandler;
+import com.google.gwt.user.client.ui.Widget;
+import com.vaadin.client.ComponentConnector;
+import com.vaadin.client.Util;
+import com.vaadin.client.WidgetUtil;
+import com.vaadin.client.ui.dd.VDragEvent;
+
+import fi.jasoft.dragdroplayouts.client.ui.util.IframeCoverUtility;
+
+/**
+ * Lookups shared by all layouts for the lifetime of a drag.
+ * <p>
+ * While the pointer moves the same connectors, widgets and element positions
+ * are looked up over and over again by every layout the drag passes. The
+ * session remembers them until the page is scrolled or resized, or elements
+ * are added to or removed from the page. Elements marked with
+ * {@link #TRANSIENT_ATTRIBUTE}, like drop placeholders, and the drag image do
+ * not invalidate the lookups. Layouts which move placeholders within the flow
+ * of the page need to call {@link #invalidatePositions()}, since the elements
+ * after the placeholder move with it.
+ * <p>
+ * A session is started when a layout starts a drag and ends when the mouse
+ * button is released. The iframes of layouts with shims enabled are covered
+ * for the duration of the session.
+ * <p>
+ * Drags started elsewhere, for instance HTML5 drags, do not reliably end with
+ * a mouse up so nothing would end their session. They get a lookup-only
+ * session the first time one is requested, which does not listen to the page
+ * and does not remember anything but the mouse event element. It is replaced
+ * when the next drag requests a session.
+ *
+ * @author John Ahlroos / www.jasoft.fi
+ * @since 1.3.0
+ */
+public class VDragSession {
+
+    /**
+     * Attribute marking elements which are added and removed while dragging
+     * without affecting the layouts
+     */
+    public static final String TRANSIENT_ATTRIBUTE = "data-dd-transient";
+
+    private static VDragSession current;
+
+    private final VDragEvent drag;
+
+    // Does the session listen to the page and remember lookups
+    private final boolean listening;
+
+    private final Map<Widget, ComponentConnector> connectors = new HashMap<Widget, ComponentConnector>();
+
+    // Absolute left and top of elements
+    private final Map<Element, int[]> positions = new HashMap<Element, int[]>();
+
+    // The latest widget lookup
+    private Element lookupElement;
+
+    private Class<?> lookupType;
+
+    private Widget lookupWidget;
+
+    private int draggedWidth = -1;
+
+    private int draggedHeight = -1;
+
+    // Changes whenever the remembered positions are forgotten
+    private int positionsVersion = 0;
+
+    // Element the mouse event details are relative to
+    private Element mouseEventElement;
+
+    private JavaScriptObject listener;
+
+    private HandlerRegistration endHandler;
+
+    private VDragSession(VDragEvent drag, boolean listening) {
+        this.drag = drag;
+        this.listening = listening;
+    }
+
+    /**
+     * Starts a new session for a drag started by a layout, ending any previous
+     * session. The session ends when the mouse button is released.
+     *
+     * @param drag
+     *            The drag event of the drag
+     * @return The started session
+     */
+    public static VDragSession start(VDragEvent drag) {
+        if (current != null) {
+            current.end();
+        }
+        current = new VDragSession(drag, true);
+        current.listen();
+        return current;
+    }
+
+    /**
+     * Returns the session of a drag. Drags which were not started by a layout
+     * get a lookup-only session, ending any previous session.
+     *
+     * @param drag
+     *            The drag event
+     * @return The session of the drag
+     */
+    public static VDragSession get(VDragEvent drag) {
+        if (current == null || current.drag != drag) {
+            if (current != null) {
+                current.end();
+            }
+            current = new VDragSession(drag, false);
+        }
+        return current;
+    }
+
+    /**
+     * Ends the session of a drag, if it still has one. Used for drags which do
+     * not end with a mouse up, like HTML5 drags.
+     *
+     * @param drag
+     *            The drag event
+     */
+    public static void end(VDragEvent drag) {
+        if (current != null && current.drag == drag) {
+            current.end();
+        }
+    }
+
+    /**
+     * Ends the session and releases everything it remembers
+     */
+    public void end() {
+        if (current == this) {
+            current = null;
+        }
+        if (listener != null) {
+            removeListener(listener);
+            listener = null;
+        }
+        if (endHandler != null) {
+            endHandler.removeHandler();
+            endHandler = null;
+            IframeCoverUtility.uncoverIframes();
+        }
+        invalidate();
+    }
+
+    /**
+     * Forgets everything remembered so far. Called when elements are added to
+     * or removed from the page.
+     */
+    public void invalidate() {
+        connectors.clear();
+        lookupElement = null;
+        lookupType = null;
+        lookupWidget = null;
+        draggedWidth = -1;
+        draggedHeight = -1;
+        invalidatePositions();
+    }
+
+    /**
+     * Forgets the remembered element positions. Called when the page is
+     * scrolled or resized, and when a placeholder has been moved.
+     */
+    public void invalidatePositions() {
+        positions.clear();
+        positionsVersion++;
+    }
+
+    /**
+     * Returns a version of the element positions, which changes whenever the
+     * positions remembered by the session are forgotten. Layouts which
+     * remember geometry of their own measure it again when the version
+     * changes, instead of listening to the page themselves. Lookup-only
+     * sessions cannot tell when the positions change and return a new version
+     * every time.
+     */
+    public int getPositionsVersion() {
+        if (!listening) {
+            positionsVersion++;
+        }
+        return positionsVersion;
+    }
+
+    /**
+     * Returns the element the mouse event details of the drag are relative to
+     */
+    public Element getMouseEventElement() {
+        return mouseEventElement;
+    }
+
+    /**
+     * Sets the element the mouse event details of the drag are relative to
+     */
+    public void setMouseEventElement(Element element) {
+        mouseEventElement = element;
+    }
+
+    /**
+     * Returns the connector of the dragged component, if the drag was started
+     * by a layout
+     */
+    public ComponentConnector getDraggedConnector() {
+        return (ComponentConnector) drag.getTransferable()
+                .getData(Constants.TRANSFERABLE_DETAIL_COMPONENT);
+    }
+
+    /**
+     * Returns the width the dragged component requires or 0 if the drag was
+     * not started by a layout
+     */
+    public int getDraggedWidth() {
+        if (draggedWidth == -1 || !listening) {
+            ComponentConnector connector = getDraggedConnector();
+            draggedWidth = connector == null ? 0
+                    : Util.getRequiredWidth(connector.getWidget());
+        }
+        return draggedWidth;
+    }
+
+    /**
+     * Returns the height the dragged component requires or 0 if the drag was
+     * not started by a layout
+     */
+    public int getDraggedHeight() {
+        if (draggedHeight == -1 || !listening) {
+            ComponentConnector connector = getDraggedConnector();
+            draggedHeight = connector == null ? 0
+                    : Util.getRequiredHeight(connector.getWidget());
+        }
+        return draggedHeight;
+    }
+
+    /**
+     * Returns the connector of a widget
+     *
+     * @see Util#findConnectorFor(Widget)
+     */
+    public ComponentConnector findConnectorFor(Widget widget) {
+        if (connectors.containsKey(widget)) {
+            return connectors.get(widget);
+        }
+        ComponentConnector connector = Util.findConnectorFor(widget);
+        if (listening) {
+            connectors.put(widget, connector);
+        }
+        return connector;
+    }
+
+    /**
+     * Returns the widget an element belongs to. The pointer usually stays
+     * over the same element for many events, so the latest lookup is
+     * remembered.
+     *
+     * @see WidgetUtil#findWidget(Element, Class)
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T findWidget(Element element, Class<?> type) {
+        if (!listening) {
+            return (T) WidgetUtil.findWidget(element, type);
+        }
+        if (element != lookupElement || type != lookupType) {
+            lookupWidget = WidgetUtil.findWidget(element, type);
+            lookupElement = element;
+            lookupType = type;
+        }
+        return (T) lookupWidget;
+    }
+
+    /**
+     * Returns the absolute left position of an element
+     *
+     * @see Element#getAbsoluteLeft()
+     */
+    public int getAbsoluteLeft(Element element) {
+        return getPosition(element)[0];
+    }
+
+    /**
+     * Returns the absolute top position of an element
+     *
+     * @see Element#getAbsoluteTop()
+     */
+    public int getAbsoluteTop(Element element) {
+        return getPosition(element)[1];
+    }
+
+    private int[] getPosition(Element element) {
+        int[] position = positions.get(element);
+        if (position == null) {
+            position = new int[] { element.getAbsoluteLeft(),
+                    element.getAbsoluteTop() };
+            if (listening) {
+                positions.put(element, position);
+            }
+        }
+        return position;
+    }
+
+    private void listen() {
+        // Cover before observing so the covers do not invalidate the lookups
+        IframeCoverUtility.coverIframes();
+        listener = addListener();
+        endHandler = Event.addNativePreviewHandler(new NativePreviewHandler() {
+
+            @Override
+            public void onPreviewNativeEvent(NativePreviewEvent event) {
+                int type = event.getTypeInt();
+                if (type == Event.ONMOUSEUP || type == Event.ONTOUCHEND
+                        || type == Event.ONTOUCHCANCEL) {
+                    // End after the drop has been handled
+                    Scheduler.get().scheduleDeferred(new ScheduledCommand() {
+
+                        @Override
+                        public void execute() {
+                            end();
+                        }
+                    });
+                }
+            }
+        });
+    }
+
+    /**
+     * Listens for scrolling of any element, resizing of the window and
+     * elements added to or removed from the page
+     */
+    private native JavaScriptObject addListener()
+    /*-{
+        if (!$wnd.addEventListener) {
+            return null;
+        }
+        var self = this;
+        var listener = {};
+        listener.geometry = $entry(function() {
+            self.@fi.jasoft.dragdroplayouts.client.ui.VDragSession::invalidatePositions()();
+        });
+        $wnd.addEventListener('scroll', listener.geometry, true);
+        $wnd.addEventListener('resize', listener.geometry, false);
+
+        if ($wnd.MutationObserver) {
+            var isTransient = function(nodes) {
+                for (var i = 0; i < nodes.length; i++) {
+                    var node = nodes[i];
+                    if (node.nodeType != 1) {
+                        return false;
+                    }
+                    if (!node.hasAttribute('data-dd-transient')
+                            && (' ' + node.className + ' ').indexOf(' v-drag-element ') < 0) {
+                        return false;
+                    }
+                }
+                return true;
+            };
+            listener.observer = new $wnd.MutationObserver($entry(function(records) {
+                for (var i = 0; i < records.length; i++) {
+                    if (!isTransient(records[i].addedNodes)
+                            || !isTransient(records[i].removedNodes)) {
+                        self.@fi.jasoft.dragdroplayouts.client.ui.VDragSession::invalidate()();
+                        return;
+                    }
+                }
+            }));
+            listener.observer.observe($doc.body, {childList: true, subtree: true});
+        }
+        return listener;
+    }-*/;
+
+    private static native void removeListener(JavaScriptObject listener)
+    /*-{
+        $wnd.removeEventListener('scroll', listener.geometry, true);
+        $wnd.removeEventListener('resize', listener.geometry, false);
+        if (listener.observer) {
+            listener.observer.disconnect();
+        }
+    }-*/;
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2015 John Ahlroos
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package fi.jasoft.dragdroplayouts.client.ui;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.dom.client.Element;
+import com.google.gwt.dom.client.NativeEvent;
+import com.google.gwt.event.dom.client.MouseDownEvent;
+import com.google.gwt.event.dom.client.MouseDownHandler;
+import com.google.gwt.event.dom.client.TouchStartEvent;
+import com.google.gwt.event.dom.client.TouchStartHandler;
+import com.google.gwt.event.shared.HandlerRegistration;
+import com.google.gwt.user.client.ui.Widget;
+import com.vaadin.client.WidgetUtil;
+
+/**
+ * Listens to the mouse down and touch start events of a layout which supports
+ * dragging on behalf of its mouse handler.
+ * <p>
+ * The listeners are added to the element of the layout and receive the
+ * presses as they bubble from the pressed element towards the document root,
+ * so the innermost layout is asked first. A layout which takes the press
+ * stops its propagation, so at most one drag start is prepared per gesture
+ * and the press does not reach the ancestors of the layout, for instance a
+ * DragAndDropWrapper around it. Presses the layout cannot drag bubble on to
+ * the outer layouts. Handlers inside a layout which stop the propagation of a
+ * press keep it from starting a drag.
+ * <p>
+ * Touch starts are listened to passively so they never delay scrolling. The
+ * pressed widget is looked up once per press and shared by the layouts.
+ *
+ * @author John Ahlroos / www.jasoft.fi
+ * @since 1.3.0
+ */
+final class VDragStartDispatcher implements MouseDownHandler,
+        TouchStartHandler, HandlerRegistration {
+
+    // The widget lookup of the current press
+    private static NativeEvent targetEvent;
+
+    private static Element targetElement;
+
+    private static Widget targetWidget;
+
+    private final VLayoutDragDropMouseHandler handler;
+
+    private final HandlerRegistration mouseDownReg;
+
+    private HandlerRegistration touchStartReg;
+
+    private JavaScriptObject touchStartListener;
+
+    private VDragStartDispatcher(Widget widget,
+            VLayoutDragDropMouseHandler handler) {
+        this.handler = handler;
+        mouseDownReg = widget.addDomHandler(this, MouseDownEvent.getType());
+        touchStartListener = addTouchStartListener(widget.getElement());
+        if (touchStartListener == null) {
+            touchStartReg = widget.addDomHandler(this,
+                    TouchStartEvent.getType());
+        }
+    }
+
+    /**
+     * Starts dispatching the presses of a widget to a mouse handler
+     *
+     * @param widget
+     *            The widget the mouse handler listens to
+     * @param handler
+     *            The mouse handler
+     * @return A registration which stops the dispatching
+     */
+    static HandlerRegistration listen(Widget widget,
+            VLayoutDragDropMouseHandler handler) {
+        return new VDragStartDispatcher(widget, handler);
+    }
+
+    /**
+     * Returns the widget of the pressed element. The lookup is done once per
+     * press and shared by the mouse handlers.
+     *
+     * @param element
+     *            The pressed element
+     * @return The widget the element belongs to
+     */
+    static Widget findWidget(Element element) {
+        if (element != targetElement) {
+            targetWidget = WidgetUtil.findWidget(element, null);
+            targetElement = element;
+        }
+        return targetWidget;
+    }
+
+    @Override
+    public void onMouseDown(MouseDownEvent event) {
+        dispatch(event.getNativeEvent());
+    }
+
+    @Override
+    public void onTouchStart(TouchStartEvent event) {
+        dispatch(event.getNativeEvent());
+    }
+
+    private void dispatch(NativeEvent event) {
+        if (event != targetEvent) {
+            // The page might have changed since the previous press
+            targetEvent = event;
+            targetElement = null;
+            targetWidget = null;
+        }
+        if (handler.startGesture(event)) {
+            event.stopPropagation();
+        }
+    }
+
+    @Override
+    public void removeHandler() {
+        mouseDownReg.removeHandler();
+        if (touchStartListener != null) {
+            removeTouchStartListener(touchStartListener);
+            touchStartListener = null;
+        }
+        if (touchStartReg != null) {
+            touchStartReg.removeHandler();
+            touchStartReg = null;
+        }
+        targetEvent = null;
+        targetElement = null;
+        targetWidget = null;
+    }
+
+    private native JavaScriptObject addTouchStartListener(Element element)
+    /*-{
+        if (!element.addEventListener) {
+            return null;
+        }
+        var self = this;
+        var listener = {element: element};
+        listener.start = $entry(function(e) {
+            self.@fi.jasoft.dragdroplayouts.client.ui.VDragStartDispatcher::dispatch(Lcom/google/gwt/dom/client/NativeEvent;)(e);
+        });
+        element.addEventListener('touchstart', listener.start, {passive: true, capture: false});
+        return listener;
+    }-*/;
+
+    private static native void removeTouchStartListener(
+            JavaScriptObject listener)
+    /*-{
+        listener.element.removeEventListener('touchstart', listener.start, false);
+    }-*/;
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2015 John Ahlroos
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package fi.jasoft.dragdroplayouts.client.ui;
+
+/**
+ * Decides when a pressed pointer has moved far and long enough to start a
+ * drag, and counts the gestures the threshold has held back.
+ * <p>
+ * A gesture which is held back at least once and ends without starting a
+ * drag is a suppressed drag start, it would have started a drag without the
+ * threshold.
+ *
+ * @author John Ahlroos / www.jasoft.fi
+ * @since 1.3.0
+ */
+public class VDragStartThreshold {
+
+    /**
+     * The time in milliseconds a touch has to be held before its moves can
+     * start a drag. Touches which move sooner scroll the page without
+     * waiting for the layouts.
+     */
+    public static final int TOUCH_DELAY = 300;
+
+    /**
+     * The distance in pixels a touch may move while it is being held
+     */
+    public static final int TOUCH_SLOP = 10;
+
+    // Gestures which would have started a drag without the thresholds
+    private static int suppressedDragStarts = 0;
+
+    private int distance = 0;
+
+    private int delay = 0;
+
+    // Gestures this threshold has held back
+    private int suppressed = 0;
+
+    // Did the threshold hold back a move of the current gesture
+    private boolean heldBack;
+
+    /**
+     * Sets how far the pointer has to move and how long it has to be pressed
+     * before a drag starts
+     *
+     * @param distance
+     *            The distance in pixels
+     * @param delay
+     *            The delay in milliseconds
+     */
+    public void setThreshold(int distance, int delay) {
+        this.distance = distance;
+        this.delay = delay;
+    }
+
+    public int getDistance() {
+        return distance;
+    }
+
+    public int getDelay() {
+        return delay;
+    }
+
+    /**
+     * Returns how long a touch has to be held before its moves can start a
+     * drag, the delay of the threshold but at least {@link #TOUCH_DELAY}
+     */
+    public int getTouchDelay() {
+        return Math.max(delay, TOUCH_DELAY);
+    }
+
+    /**
+     * Starts following a new gesture
+     */
+    public void startGesture() {
+        heldBack = false;
+    }
+
+    /**
+     * Has a move of the current gesture passed the threshold. Moves which
+     * have not are remembered as held back.
+     *
+     * @param dx
+     *            The horizontal distance from the press in pixels
+     * @param dy
+     *            The vertical distance from the press in pixels
+     * @param elapsed
+     *            The time since the press in milliseconds
+     * @return true if the move should start a drag
+     */
+    public boolean isPast(int dx, int dy, double elapsed) {
+        if (isPastThreshold(dx, dy, elapsed, distance, delay)) {
+            return true;
+        }
+        heldBack = true;
+        return false;
+    }
+
+    /**
+     * Ends the current gesture
+     *
+     * @param dragStarted
+     *            Did the gesture start a drag
+     * @return true if the threshold kept the gesture from starting a drag
+     */
+    public boolean endGesture(boolean dragStarted) {
+        boolean suppressedStart = heldBack && !dragStarted;
+        if (suppressedStart) {
+            suppressed++;
+            suppressedDragStarts++;
+        }
+        heldBack = false;
+        return suppressedStart;
+    }
+
+    /**
+     * Returns how many gestures this threshold has kept from starting a drag
+     */
+    public int getSuppressedCount() {
+        return suppressed;
+    }
+
+    /**
+     * Has a move passed the threshold
+     *
+     * @param dx
+     *            The horizontal distance from the press in pixels
+     * @param dy
+     *            The vertical distance from the press in pixels
+     * @param elapsed
+     *            The time since the press in milliseconds
+     * @param distance
+     *            The distance the pointer has to move in pixels
+     * @param delay
+     *            The time the pointer has to be pressed in milliseconds
+     * @return true if the pointer has moved at least the distance and has
+     *         been pressed at least the delay
+     */
+    public static boolean isPastThreshold(int dx, int dy, double elapsed,
+            int distance, int delay) {
+        return dx * dx + dy * dy >= distance * distance && elapsed >= delay;
+    }
+
+    /**
+     * Returns how many gestures have not started a drag because of any drag
+     * start threshold on the page, which would have started one without them
+     */
+    public static int getSuppressedDragStartCount() {
+        return suppressedDragStarts;
+    }
+}
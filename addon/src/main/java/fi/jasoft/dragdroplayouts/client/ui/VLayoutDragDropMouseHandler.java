@@ -14,9 +14,11 @@
 package fi.jasoft.dragdroplayouts.client.ui;
 
 import java.util.ArrayList;
-import java.util.LinkedList;
 import java.util.List;
 
+import com.google.gwt.core.client.Duration;
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.dom.client.Document;
 import com.google.gwt.dom.client.Element;
 import com.google.gwt.dom.client.EventTarget;
 import com.google.gwt.dom.client.NativeEvent;
@@ -30,6 +32,7 @@ import com.google.gwt.event.shared.HandlerRegistration;
 import com.google.gwt.user.client.Event;
 import com.google.gwt.user.client.Event.NativePreviewEvent;
 import com.google.gwt.user.client.Event.NativePreviewHandler;
+import com.google.gwt.user.client.Timer;
 import com.google.gwt.user.client.ui.ComplexPanel;
 import com.google.gwt.user.client.ui.LabelBase;
 import com.google.gwt.user.client.ui.RootPanel;
@@ -52,6 +55,7 @@ import com.vaadin.client.ui.dd.VDragAndDropManager;
 import com.vaadin.client.ui.dd.VDragEvent;
 import com.vaadin.client.ui.dd.VTransferable;
 
+import fi.jasoft.dragdroplayouts.client.VDragFilter;
 import fi.jasoft.dragdroplayouts.client.ui.accordion.VDDAccordion;
 import fi.jasoft.dragdroplayouts.client.ui.formlayout.VDDFormLayout;
 import fi.jasoft.dragdroplayouts.client.ui.interfaces.VDragImageProvider;
@@ -69,6 +73,8 @@ public class VLayoutDragDropMouseHandler implements MouseDownHandler,
 
     public static final String ACTIVE_DRAG_SOURCE_STYLENAME = "v-dd-active-drag-source";
 
+    public static final String DRAG_OUTLINE_STYLENAME = "v-dd-drag-outline";
+
     private LayoutDragMode dragMode = LayoutDragMode.NONE;
 
     private final Widget root;
@@ -79,7 +85,33 @@ public class VLayoutDragDropMouseHandler implements MouseDownHandler,
 
     private HandlerRegistration mouseDownHandlerReg;
 
-    private final List<HandlerRegistration> handlers = new LinkedList<HandlerRegistration>();
+    // The press of the gesture which has not started a drag yet
+    private NativeEvent gestureEvent;
+
+    // Native listeners for the moves of the pressed pointer
+    private JavaScriptObject gestureListener;
+
+    private double gestureStartTime;
+
+    // Can the touch moves of the gesture start a drag and cancel scrolling
+    private boolean touchMovesArmed;
+
+    // Arms the touch moves once the touch has been held long enough
+    private final Timer touchHoldTimer = new Timer() {
+
+        @Override
+        public void run() {
+            if (gestureEvent != null && gestureListener != null) {
+                touchMovesArmed = true;
+                armTouchMoves(gestureListener);
+            }
+        }
+    };
+
+    private final VDragStartThreshold dragStartThreshold = new VDragStartThreshold();
+
+    // Dispatches the presses of the listened widget
+    private HandlerRegistration dragStartReg;
 
     private final List<DragStartListener> dragStartListeners = new ArrayList<VLayoutDragDropMouseHandler.DragStartListener>();
 
@@ -87,6 +119,8 @@ public class VLayoutDragDropMouseHandler implements MouseDownHandler,
 
     private VDragImageProvider dragImageProvider;
 
+    private DragProxyMode dragProxyMode = DragProxyMode.CLONE;
+
     private boolean startDragOnMove = true;
 
     /**
@@ -134,26 +168,80 @@ public class VLayoutDragDropMouseHandler implements MouseDownHandler,
 
     @Override
     public void onTouchStart(TouchStartEvent event) {
-        NativeEvent nativeEvent = event.getNativeEvent();
-        if (isElementNode(nativeEvent) && isChildOfRoot(nativeEvent)) {
-            if (startDragOnMove) {
-                initiateDragOnMove(event.getNativeEvent());
-            } else {
-                initiateDrag(event.getNativeEvent());
-            }
-        }
+        startGesture(event.getNativeEvent());
     }
 
     @Override
     public void onMouseDown(MouseDownEvent event) {
-        NativeEvent nativeEvent = event.getNativeEvent();
-        if (isElementNode(nativeEvent) && isChildOfRoot(nativeEvent)) {
-            if (startDragOnMove) {
-                initiateDragOnMove(event.getNativeEvent());
-            } else {
-                initiateDrag(event.getNativeEvent());
-            }
+        startGesture(event.getNativeEvent());
+    }
+
+    /**
+     * Prepares a drag start for a mouse down or touch start event, called by
+     * the drag start dispatcher for the innermost layouts first. Presses on
+     * elements the layout cannot drag, or which its drag filter rejects, are
+     * left to the outer layouts. The dispatcher stops the propagation of the
+     * presses the layout takes.
+     * 
+     * @param event
+     *            The mouse down or touch start event
+     * @return true if the layout takes care of the gesture, false if an outer
+     *         layout should be asked
+     */
+    boolean startGesture(NativeEvent event) {
+        if (!isElementNode(event) || !isChildOfRoot(event)
+                || !canStartDrag(event)) {
+            return false;
         }
+        Element targetElement = Element.as(event.getEventTarget());
+        if (isElementNotDraggable(targetElement) || isFilteredOut(
+                VDragStartDispatcher.findWidget(targetElement))) {
+            return false;
+        }
+        if (startDragOnMove) {
+            initiateDragOnMove(event);
+        } else {
+            initiateDrag(event);
+        }
+        return true;
+    }
+
+    /**
+     * Can the layout drag the pressed element at all
+     */
+    private boolean canStartDrag(NativeEvent event) {
+        if (dragMode == LayoutDragMode.NONE) {
+            return false;
+        }
+        if (!isMouseDragEvent(event) && !Util.isTouchEvent(event)) {
+            return false;
+        }
+        if (dragMode == LayoutDragMode.CAPTION) {
+            Element targetElement = Element.as(event.getEventTarget());
+            return isCaption(targetElement,
+                    VDragStartDispatcher.findWidget(targetElement));
+        }
+        return true;
+    }
+
+    /**
+     * Does the drag filter of the layout reject the pressed widget. GWT label
+     * based widgets are never rejected here, the dragged component is
+     * resolved from them when the drag starts.
+     */
+    private boolean isFilteredOut(Widget target) {
+        if (root instanceof VHasDragFilter) {
+            VDragFilter filter = ((VHasDragFilter) root).getDragFilter();
+            return filter != null && !filter.isDraggable(target)
+                    && !(target instanceof LabelBase);
+        }
+        return false;
+    }
+
+    private boolean isCaption(Element targetElement, Widget target) {
+        boolean isPanelCaption = target instanceof VPanel && targetElement
+                .getParentElement().getClassName().contains("v-panel-caption");
+        return isPanelCaption || VDragDropUtil.isCaptionOrCaptionless(target);
     }
 
     private boolean isChildOfRoot(NativeEvent event) {
@@ -184,51 +272,51 @@ public class VLayoutDragDropMouseHandler implements MouseDownHandler,
     protected void initiateDragOnMove(final NativeEvent originalEvent) {
         EventTarget eventTarget = originalEvent.getEventTarget();
 
-        boolean stopEventPropagation = false;
+        boolean preventDefault = false;
 
         Element targetElement = Element.as(eventTarget);
-        Widget target = WidgetUtil.findWidget(targetElement, null);
+        Widget target = VDragStartDispatcher.findWidget(targetElement);
         Widget targetParent = target.getParent();
 
-        // Stop event propagation and prevent default behaviour if
+        // Prevent default behaviour if
         // - target is *not* a VTabsheet.TabCaption or
         // - drag mode is caption mode and widget is caption
+        // Filtered out and non draggable targets never get here
         boolean isTabCaption = targetParent instanceof VTabsheet.TabCaption;
         boolean isCaption = VDragDropUtil.isCaptionOrCaptionless(targetParent);
 
         if (dragMode == LayoutDragMode.CLONE && isTabCaption == false) {
-
-            stopEventPropagation = true;
-
-            // overwrite stopEventPropagation flag again if
-            // - root implements VHasDragFilter but
-            // - target is not part of its drag filter and
-            // - target is not a GWT Label based widget
-            if (root instanceof VHasDragFilter) {
-                if (((VHasDragFilter) root).getDragFilter()
-                        .isDraggable(target) == false &&
-					(target instanceof LabelBase) == false) {
-                        stopEventPropagation = false;
-                }
-            }
+            preventDefault = true;
         }
 
         if (dragMode == LayoutDragMode.CAPTION && isCaption) {
-            stopEventPropagation = true;
-        }
-
-        if (isElementNotDraggable(targetElement)) {
-            stopEventPropagation = false;
+            preventDefault = true;
         }
 
-        if (stopEventPropagation) {
-            originalEvent.stopPropagation();
+        boolean touch = Util.isTouchEvent(originalEvent);
+        if (preventDefault && !touch) {
             originalEvent.preventDefault();
 
             // Manually focus as preventDefault() will also cancel focus
             targetElement.focus();
         }
 
+        // Touch presses are passive so the page can scroll until a drag
+        // starts. Touch moves are only followed passively until the touch
+        // has been held long enough to start a drag.
+        endGesture();
+        gestureEvent = originalEvent;
+        gestureStartTime = Duration.currentTimeMillis();
+        dragStartThreshold.startGesture();
+        gestureListener = addGestureListener(touch);
+        if (gestureListener != null) {
+            if (touch) {
+                touchHoldTimer.schedule(dragStartThreshold.getTouchDelay());
+            }
+            return;
+        }
+
+        // No native listeners, follow the gesture through previews
         mouseDownHandlerReg = Event
                 .addNativePreviewHandler(new NativePreviewHandler() {
 
@@ -238,19 +326,182 @@ public class VLayoutDragDropMouseHandler implements MouseDownHandler,
                         if (type == Event.ONMOUSEUP
                                 || type == Event.ONTOUCHCANCEL
                                 || type == Event.ONTOUCHEND) {
-                            mouseDownHandlerReg.removeHandler();
-                            mouseDownHandlerReg = null;
+                            endGesture();
 
-                        } else if (type == Event.ONMOUSEMOVE
-                                || type == Event.ONTOUCHMOVE) {
-                            mouseDownHandlerReg.removeHandler();
-                            mouseDownHandlerReg = null;
+                        } else if ((type == Event.ONMOUSEMOVE
+                                || type == Event.ONTOUCHMOVE)
+                                && isPastThreshold(event.getNativeEvent())) {
+                            gestureEvent = null;
+                            endGesture();
                             initiateDrag(originalEvent);
                         }
                     }
                 });
     }
 
+    /**
+     * Called for the moves of the pressed pointer until the gesture ends. The
+     * first move past the drag start threshold starts the drag. A touch which
+     * moves away before it has been held long enough scrolls the page. Touch
+     * moves are canceled once the drag has started so the page does not
+     * scroll while dragging.
+     */
+    private void onGestureMove(NativeEvent event) {
+        boolean touch = Util.isTouchEvent(event);
+        if (gestureEvent != null) {
+            if (touch && !touchMovesArmed) {
+                if (isPastTouchSlop(event)) {
+                    endGesture();
+                }
+                return;
+            }
+
+            if (touch && !isCancelable(event)) {
+                // The browser is already scrolling the page
+                endGesture();
+                return;
+            }
+
+            if (!isPastThreshold(event)) {
+                // Leave touch moves to the browser, it may scroll
+                return;
+            }
+
+            NativeEvent originalEvent = gestureEvent;
+            gestureEvent = null;
+            initiateDrag(originalEvent);
+            if (currentDraggedWidget == null || !touch) {
+                // Mouse drags are followed by the drag and drop manager
+                endGesture();
+                return;
+            }
+        }
+
+        if (touch) {
+            event.preventDefault();
+        }
+    }
+
+    /**
+     * Has the pressed pointer moved far and long enough to start a drag
+     */
+    private boolean isPastThreshold(NativeEvent move) {
+        int dx = WidgetUtil.getTouchOrMouseClientX(move)
+                - WidgetUtil.getTouchOrMouseClientX(gestureEvent);
+        int dy = WidgetUtil.getTouchOrMouseClientY(move)
+                - WidgetUtil.getTouchOrMouseClientY(gestureEvent);
+        return dragStartThreshold.isPast(dx, dy,
+                Duration.currentTimeMillis() - gestureStartTime);
+    }
+
+    /**
+     * Has a held touch moved too far to start a drag
+     */
+    private boolean isPastTouchSlop(NativeEvent move) {
+        int dx = WidgetUtil.getTouchOrMouseClientX(move)
+                - WidgetUtil.getTouchOrMouseClientX(gestureEvent);
+        int dy = WidgetUtil.getTouchOrMouseClientY(move)
+                - WidgetUtil.getTouchOrMouseClientY(gestureEvent);
+        int slop = VDragStartThreshold.TOUCH_SLOP;
+        return dx * dx + dy * dy > slop * slop;
+    }
+
+    /**
+     * Stops following the moves of the pressed pointer
+     */
+    private void endGesture() {
+        // The event is cleared before a drag is started
+        if (dragStartThreshold.endGesture(gestureEvent == null)) {
+            reportSuppressedDragStarts();
+        }
+        gestureEvent = null;
+        touchHoldTimer.cancel();
+        touchMovesArmed = false;
+        if (gestureListener != null) {
+            removeGestureListener(gestureListener);
+            gestureListener = null;
+        }
+        if (mouseDownHandlerReg != null) {
+            mouseDownHandlerReg.removeHandler();
+            mouseDownHandlerReg = null;
+        }
+    }
+
+    /**
+     * Sends the number of suppressed drag starts of the layout to the server
+     * with the next request
+     */
+    private void reportSuppressedDragStarts() {
+        ComponentConnector connector = Util.findConnectorFor(root);
+        if (connector != null) {
+            connector.getConnection().updateVariable(
+                    connector.getConnectorId(),
+                    Constants.VARIABLE_SUPPRESSED_DRAG_STARTS,
+                    dragStartThreshold.getSuppressedCount(), false);
+        }
+    }
+
+    /**
+     * Listens to the moves and the release of the pressed pointer. The
+     * listeners are passive, so the browser never waits for them before
+     * scrolling. A pointer cancel, sent when the browser starts to scroll or
+     * zoom, ends the gesture for mouse, touch and pen alike.
+     */
+    private native JavaScriptObject addGestureListener(boolean touch)
+    /*-{
+        if (!$doc.addEventListener) {
+            return null;
+        }
+        var self = this;
+        var listener = {touch: touch};
+        listener.move = $entry(function(e) {
+            self.@fi.jasoft.dragdroplayouts.client.ui.VLayoutDragDropMouseHandler::onGestureMove(Lcom/google/gwt/dom/client/NativeEvent;)(e);
+        });
+        listener.end = $entry(function(e) {
+            self.@fi.jasoft.dragdroplayouts.client.ui.VLayoutDragDropMouseHandler::endGesture()();
+        });
+        var passive = {passive: true, capture: true};
+        if (touch) {
+            $doc.addEventListener('touchmove', listener.move, passive);
+            $doc.addEventListener('touchend', listener.end, passive);
+            $doc.addEventListener('touchcancel', listener.end, passive);
+        } else {
+            $doc.addEventListener('mousemove', listener.move, passive);
+            $doc.addEventListener('mouseup', listener.end, passive);
+        }
+        $doc.addEventListener('pointercancel', listener.end, passive);
+        return listener;
+    }-*/;
+
+    /**
+     * Makes the touch moves of a gesture cancelable, once the touch has been
+     * held long enough to start a drag. The page has not scrolled while the
+     * touch was held, so the browser lets the moves cancel scrolling.
+     */
+    private static native void armTouchMoves(JavaScriptObject listener)
+    /*-{
+        $doc.removeEventListener('touchmove', listener.move, true);
+        $doc.addEventListener('touchmove', listener.move, {passive: false, capture: true});
+    }-*/;
+
+    private static native void removeGestureListener(JavaScriptObject listener)
+    /*-{
+        if (listener.touch) {
+            $doc.removeEventListener('touchmove', listener.move, true);
+            $doc.removeEventListener('touchend', listener.end, true);
+            $doc.removeEventListener('touchcancel', listener.end, true);
+        } else {
+            $doc.removeEventListener('mousemove', listener.move, true);
+            $doc.removeEventListener('mouseup', listener.end, true);
+        }
+        $doc.removeEventListener('pointercancel', listener.end, true);
+    }-*/;
+
+    private static native boolean isCancelable(NativeEvent event)
+    /*-{
+        return event.cancelable !== false;
+    }-*/;
+
     private boolean isElementNotDraggable(Element targetElement) {
         // do not try to drag tabsheet close button it breaks close on touch devices
         return targetElement.getClassName().contains("v-tabsheet-caption-close");
@@ -279,7 +530,7 @@ public class VLayoutDragDropMouseHandler implements MouseDownHandler,
         // Get target widget
         EventTarget eventTarget = event.getEventTarget();
         Element targetElement = Element.as(eventTarget);
-        Widget target = WidgetUtil.findWidget(targetElement, null);
+        Widget target = VDragStartDispatcher.findWidget(targetElement);
 
         if (isEventOnScrollBar(event)) {
             return;
@@ -292,10 +543,7 @@ public class VLayoutDragDropMouseHandler implements MouseDownHandler,
         }
 
         // Abort if drag mode is caption mode and widget is not a caption
-        boolean isPanelCaption = target instanceof VPanel && targetElement
-                .getParentElement().getClassName().contains("v-panel-caption");
-        boolean isCaption = isPanelCaption
-                || VDragDropUtil.isCaptionOrCaptionless(target);
+        boolean isCaption = isCaption(targetElement, target);
 
         if (dragMode == LayoutDragMode.CAPTION && !isCaption) {
             /*
@@ -398,13 +646,19 @@ public class VLayoutDragDropMouseHandler implements MouseDownHandler,
         VDragEvent currentDragEvent = VDragAndDropManager.get()
                 .startDrag(transferable, event, true);
 
+        // Share lookups between the layouts for the duration of the drag
+        VDragSession.start(currentDragEvent);
+
         /*
          * Create the drag image
          */
         com.google.gwt.dom.client.Element dragImageElement = dragImageProvider == null
                 ? null : dragImageProvider.getDragImageElement(w);
 
-        if (dragImageElement != null) {
+        // Reference drag images are always cloned
+        boolean referenceImage = dragImageElement != null;
+
+        if (referenceImage) {
 
             // Set stylename to proxy component as well
             dragImageElement.addClassName(ACTIVE_DRAG_SOURCE_STYLENAME);
@@ -450,7 +704,19 @@ public class VLayoutDragDropMouseHandler implements MouseDownHandler,
             dragImageElement = w.getElement();
         }
 
-        currentDragEvent.createDragImage(dragImageElement, true);
+        boolean deepClone = referenceImage
+                || dragProxyMode == DragProxyMode.CLONE;
+        if (deepClone) {
+            currentDragEvent.createDragImage(dragImageElement, true);
+        } else {
+            // Align the proxy like createDragImage() aligns the clone
+            int offsetX = dragImageElement.getAbsoluteLeft()
+                    - WidgetUtil.getTouchOrMouseClientX(event);
+            int offsetY = dragImageElement.getAbsoluteTop()
+                    - WidgetUtil.getTouchOrMouseClientY(event);
+            currentDragEvent.setDragImage(
+                    createDragProxy(dragImageElement, c), offsetX, offsetY);
+        }
         Element clone = currentDragEvent.getDragImage();
         assert(clone != null);
 
@@ -458,7 +724,7 @@ public class VLayoutDragDropMouseHandler implements MouseDownHandler,
         clone.getStyle().setWidth(dragImageElement.getOffsetWidth(), Unit.PX);
         clone.getStyle().setHeight(dragImageElement.getOffsetHeight(), Unit.PX);
 
-        if (c != null && c.delegateCaptionHandling()
+        if (c != null && c.delegateCaptionHandling() && deepClone
                 && !(root instanceof VTabsheet)
                 && !(root instanceof VAccordion)) {
             /*
@@ -515,6 +781,36 @@ public class VLayoutDragDropMouseHandler implements MouseDownHandler,
 
     }
 
+    /**
+     * Creates a drag image for an element without deep cloning it
+     * 
+     * @param element
+     *            The dragged element
+     * @param connector
+     *            The connector of the dragged component or null if not known
+     * @return An outline box or a shallow clone with the caption of the
+     *         component, depending on the drag proxy mode
+     */
+    private Element createDragProxy(Element element,
+            ComponentConnector connector) {
+        if (dragProxyMode == DragProxyMode.OUTLINE) {
+            Element outline = Document.get().createDivElement();
+            outline.setClassName(DRAG_OUTLINE_STYLENAME);
+            return outline;
+        }
+
+        Element proxy = element.cloneNode(false).cast();
+        String caption = connector == null ? null
+                : connector.getState().caption;
+        if (caption != null) {
+            Element captionElement = Document.get().createDivElement();
+            captionElement.setClassName("v-caption");
+            captionElement.setInnerText(caption);
+            proxy.appendChild(captionElement);
+        }
+        return proxy;
+    }
+
     /*
      * Whether the event was performed on a scrollbar.
      */
@@ -593,18 +889,9 @@ public class VLayoutDragDropMouseHandler implements MouseDownHandler,
      * Start listening to events
      */
     private void attach() {
-        if (handlers.isEmpty()) {
-            if (attachTarget == null) {
-                handlers.add(
-                        root.addDomHandler(this, MouseDownEvent.getType()));
-                handlers.add(
-                        root.addDomHandler(this, TouchStartEvent.getType()));
-            } else {
-                handlers.add(attachTarget.addDomHandler(this,
-                        MouseDownEvent.getType()));
-                handlers.add(attachTarget.addDomHandler(this,
-                        TouchStartEvent.getType()));
-            }
+        if (dragStartReg == null) {
+            dragStartReg = VDragStartDispatcher.listen(
+                    attachTarget == null ? root : attachTarget, this);
         }
     }
 
@@ -612,10 +899,10 @@ public class VLayoutDragDropMouseHandler implements MouseDownHandler,
      * Stop listening to events
      */
     private void detach() {
-        for (HandlerRegistration reg : handlers) {
-            reg.removeHandler();
+        if (dragStartReg != null) {
+            dragStartReg.removeHandler();
+            dragStartReg = null;
         }
-        handlers.clear();
     }
 
     public Widget getAttachTarget() {
@@ -635,6 +922,40 @@ public class VLayoutDragDropMouseHandler implements MouseDownHandler,
         this.dragImageProvider = provider;
     }
 
+    @Override
+    public void setDragProxyMode(DragProxyMode mode) {
+        this.dragProxyMode = mode;
+    }
+
+    /**
+     * Sets how far the pointer has to move and how long it has to be pressed
+     * before a drag starts. Only used when the drag starts on move.
+     * 
+     * @param distance
+     *            The distance in pixels
+     * @param delay
+     *            The delay in milliseconds
+     */
+    public void setDragStartThreshold(int distance, int delay) {
+        dragStartThreshold.setThreshold(distance, delay);
+    }
+
+    public int getDragStartDistance() {
+        return dragStartThreshold.getDistance();
+    }
+
+    public int getDragStartDelay() {
+        return dragStartThreshold.getDelay();
+    }
+
+    /**
+     * Returns how many gestures have not started a drag because of the drag
+     * start thresholds, which would have started one without them
+     */
+    public static int getSuppressedDragStartCount() {
+        return VDragStartThreshold.getSuppressedDragStartCount();
+    }
+
     public boolean isStartDragOnMove() {
         return startDragOnMove;
     }
@@ -32,6 +32,10 @@ public class DDAbsoluteLayoutConnector extends AbsoluteLayoutConnector
 
     private HTML5Support html5Support;
 
+    // Reused whenever the layout accepts drops
+    private final VDDAbsoluteLayoutDropHandler dropHandler = new VDDAbsoluteLayoutDropHandler(
+            this);
+
     @Override
     public VDDAbsoluteLayout getWidget() {
         return (VDDAbsoluteLayout) super.getWidget();
@@ -54,15 +58,9 @@ public class DDAbsoluteLayoutConnector extends AbsoluteLayoutConnector
      */
     @Override
     public void updateFromUIDL(UIDL uidl, ApplicationConnection client) {
-        VDragDropUtil.updateDropHandlerFromUIDL(uidl, this, new VDDAbsoluteLayoutDropHandler(this));
-        if (html5Support != null) {
-            html5Support.disable();
-            html5Support = null;
-        }
-        VDDAbsoluteLayoutDropHandler dropHandler = getWidget().getDropHandler();
-        if (dropHandler != null) {
-            html5Support = HTML5Support.enable(this, dropHandler);
-        }
+        VDragDropUtil.updateDropHandlerFromUIDL(uidl, this, dropHandler);
+        html5Support = HTML5Support.update(html5Support, this,
+                getWidget().getDropHandler());
     }
 
     @Override
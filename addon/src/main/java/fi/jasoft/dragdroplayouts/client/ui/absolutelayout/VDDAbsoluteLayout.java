@@ -15,17 +15,17 @@ package fi.jasoft.dragdroplayouts.client.ui.absolutelayout;
 
 import com.google.gwt.user.client.ui.Widget;
 import com.vaadin.client.ComponentConnector;
-import com.vaadin.client.MouseEventDetailsBuilder;
 import com.vaadin.client.Util;
 import com.vaadin.client.ui.VAbsoluteLayout;
 import com.vaadin.client.ui.dd.VDragEvent;
-import com.vaadin.shared.MouseEventDetails;
 
 import fi.jasoft.dragdroplayouts.DDAbsoluteLayout;
 import fi.jasoft.dragdroplayouts.client.VDragFilter;
 import fi.jasoft.dragdroplayouts.client.ui.Constants;
+import fi.jasoft.dragdroplayouts.client.ui.DragProxyMode;
 import fi.jasoft.dragdroplayouts.client.ui.LayoutDragMode;
 import fi.jasoft.dragdroplayouts.client.ui.VDragDropUtil;
+import fi.jasoft.dragdroplayouts.client.ui.VDragSession;
 import fi.jasoft.dragdroplayouts.client.ui.VLayoutDragDropMouseHandler;
 import fi.jasoft.dragdroplayouts.client.ui.VLayoutDragDropMouseHandler.DragStartListener;
 import fi.jasoft.dragdroplayouts.client.ui.interfaces.VDDHasDropHandler;
@@ -33,6 +33,7 @@ import fi.jasoft.dragdroplayouts.client.ui.interfaces.VDragImageProvider;
 import fi.jasoft.dragdroplayouts.client.ui.interfaces.VHasDragFilter;
 import fi.jasoft.dragdroplayouts.client.ui.interfaces.VHasDragImageReferenceSupport;
 import fi.jasoft.dragdroplayouts.client.ui.interfaces.VHasDragMode;
+import fi.jasoft.dragdroplayouts.client.ui.interfaces.VHasDragStartThreshold;
 import fi.jasoft.dragdroplayouts.client.ui.interfaces.VHasIframeShims;
 import fi.jasoft.dragdroplayouts.client.ui.util.IframeCoverUtility;
 
@@ -44,7 +45,8 @@ import fi.jasoft.dragdroplayouts.client.ui.util.IframeCoverUtility;
  */
 public class VDDAbsoluteLayout extends VAbsoluteLayout implements VHasDragMode,
         VDDHasDropHandler<VDDAbsoluteLayoutDropHandler>, DragStartListener,
-        VHasDragFilter, VHasIframeShims, VHasDragImageReferenceSupport {
+        VHasDragFilter, VHasIframeShims, VHasDragImageReferenceSupport,
+        VHasDragStartThreshold {
 
     public static final String CLASSNAME = "v-ddabsolutelayout";
 
@@ -161,6 +163,7 @@ public class VDDAbsoluteLayout extends VAbsoluteLayout implements VHasDragMode,
                 absoluteTop);
 
         // Get relative coordinates
+        VDragSession session = VDragSession.get(drag);
         int offsetLeft = 0;
         if (drag.getDragImage() != null) {
             String offsetLeftStr = drag.getDragImage().getStyle()
@@ -171,7 +174,7 @@ public class VDDAbsoluteLayout extends VAbsoluteLayout implements VHasDragMode,
 
         int relativeLeft = Util
                 .getTouchOrMouseClientX(drag.getCurrentGwtEvent())
-                - canvas.getAbsoluteLeft() + offsetLeft;
+                - session.getAbsoluteLeft(canvas) + offsetLeft;
 
         int offsetTop = 0;
         if (drag.getDragImage() != null) {
@@ -181,7 +184,7 @@ public class VDDAbsoluteLayout extends VAbsoluteLayout implements VHasDragMode,
         }
 
         int relativeTop = Util.getTouchOrMouseClientY(drag.getCurrentGwtEvent())
-                - canvas.getAbsoluteTop() + offsetTop;
+                - session.getAbsoluteTop(canvas) + offsetTop;
 
         drag.getDropDetails().put(Constants.DROP_DETAIL_RELATIVE_LEFT,
                 relativeLeft);
@@ -189,9 +192,7 @@ public class VDDAbsoluteLayout extends VAbsoluteLayout implements VHasDragMode,
                 relativeTop);
 
         // Get component size
-        ComponentConnector widgetConnector = (ComponentConnector) drag
-                .getTransferable()
-                .getData(Constants.TRANSFERABLE_DETAIL_COMPONENT);
+        ComponentConnector widgetConnector = session.getDraggedConnector();
         if (widgetConnector != null) {
             drag.getDropDetails().put(Constants.DROP_DETAIL_COMPONENT_WIDTH,
                     widgetConnector.getWidget().getOffsetWidth());
@@ -204,12 +205,8 @@ public class VDDAbsoluteLayout extends VAbsoluteLayout implements VHasDragMode,
                     -1);
         }
 
-        // Add mouse event details
-        MouseEventDetails details = MouseEventDetailsBuilder
-                .buildMouseEventDetails(drag.getCurrentGwtEvent(),
-                        getElement());
-        drag.getDropDetails().put(Constants.DROP_DETAIL_MOUSE_EVENT,
-                details.serialize());
+        // Add mouse event details, serialized when sent to the server
+        VDragDropUtil.updateMouseEventDetails(drag, getElement());
     }
 
     @Override
@@ -240,6 +237,16 @@ public class VDDAbsoluteLayout extends VAbsoluteLayout implements VHasDragMode,
         ddHandler.setDragImageProvider(provider);
     }
 
+    @Override
+    public void setDragProxyMode(DragProxyMode mode) {
+        ddHandler.setDragProxyMode(mode);
+    }
+
+    @Override
+    public void setDragStartThreshold(int distance, int delay) {
+        ddHandler.setDragStartThreshold(distance, delay);
+    }
+
     protected final VLayoutDragDropMouseHandler getMouseHandler() {
         return ddHandler;
     }
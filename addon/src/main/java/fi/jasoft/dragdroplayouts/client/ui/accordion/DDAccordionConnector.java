@@ -32,6 +32,10 @@ public class DDAccordionConnector extends AccordionConnector
 
     private HTML5Support html5Support;
 
+    // Reused whenever the layout accepts drops
+    private final VDDAccordionDropHandler dropHandler = new VDDAccordionDropHandler(
+            this);
+
     @Override
     public VDDAccordion getWidget() {
         return (VDDAccordion) super.getWidget();
@@ -57,15 +61,9 @@ public class DDAccordionConnector extends AccordionConnector
      * TODO Remove this when drag &amp; drop is done properly in core
      */
     public void updateFromUIDL(UIDL uidl, ApplicationConnection client) {
-        VDragDropUtil.updateDropHandlerFromUIDL(uidl, this, new VDDAccordionDropHandler(this));
-        if (html5Support != null) {
-            html5Support.disable();
-            html5Support = null;
-        }
-        VDDAccordionDropHandler dropHandler = getWidget().getDropHandler();
-        if (dropHandler != null) {
-            html5Support = HTML5Support.enable(this, dropHandler);
-        }
+        VDragDropUtil.updateDropHandlerFromUIDL(uidl, this, dropHandler);
+        html5Support = HTML5Support.update(html5Support, this,
+                getWidget().getDropHandler());
     }
 
     @Override
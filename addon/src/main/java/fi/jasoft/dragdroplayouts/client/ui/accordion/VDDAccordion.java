@@ -21,19 +21,19 @@ import com.google.gwt.user.client.Element;
 import com.google.gwt.user.client.ui.HTML;
 import com.google.gwt.user.client.ui.Widget;
 import com.vaadin.client.ComponentConnector;
-import com.vaadin.client.MouseEventDetailsBuilder;
 import com.vaadin.client.Util;
 import com.vaadin.client.WidgetUtil;
 import com.vaadin.client.ui.VAccordion;
 import com.vaadin.client.ui.dd.VDragEvent;
-import com.vaadin.shared.MouseEventDetails;
 import com.vaadin.shared.ui.dd.VerticalDropLocation;
 
 import fi.jasoft.dragdroplayouts.DDAccordion;
 import fi.jasoft.dragdroplayouts.client.VDragFilter;
 import fi.jasoft.dragdroplayouts.client.ui.Constants;
+import fi.jasoft.dragdroplayouts.client.ui.DragProxyMode;
 import fi.jasoft.dragdroplayouts.client.ui.LayoutDragMode;
 import fi.jasoft.dragdroplayouts.client.ui.VDragDropUtil;
+import fi.jasoft.dragdroplayouts.client.ui.VDragSession;
 import fi.jasoft.dragdroplayouts.client.ui.VLayoutDragDropMouseHandler;
 import fi.jasoft.dragdroplayouts.client.ui.VLayoutDragDropMouseHandler.DragStartListener;
 import fi.jasoft.dragdroplayouts.client.ui.interfaces.VDDHasDropHandler;
@@ -42,6 +42,7 @@ import fi.jasoft.dragdroplayouts.client.ui.interfaces.VDragImageProvider;
 import fi.jasoft.dragdroplayouts.client.ui.interfaces.VHasDragFilter;
 import fi.jasoft.dragdroplayouts.client.ui.interfaces.VHasDragImageReferenceSupport;
 import fi.jasoft.dragdroplayouts.client.ui.interfaces.VHasDragMode;
+import fi.jasoft.dragdroplayouts.client.ui.interfaces.VHasDragStartThreshold;
 import fi.jasoft.dragdroplayouts.client.ui.interfaces.VHasIframeShims;
 import fi.jasoft.dragdroplayouts.client.ui.util.IframeCoverUtility;
 
@@ -51,10 +52,10 @@ import fi.jasoft.dragdroplayouts.client.ui.util.IframeCoverUtility;
  * @author John Ahlroos / www.jasoft.fi
  * @since 0.4.0
  */
-public class VDDAccordion extends VAccordion
-        implements VHasDragMode, VDDHasDropHandler<VDDAccordionDropHandler>,
-        DragStartListener, VDDTabContainer, VHasDragFilter,
-        VHasDragImageReferenceSupport, VHasIframeShims {
+public class VDDAccordion extends VAccordion implements VHasDragMode,
+        VDDHasDropHandler<VDDAccordionDropHandler>, DragStartListener,
+        VDDTabContainer, VHasDragFilter, VHasDragImageReferenceSupport,
+        VHasIframeShims, VHasDragStartThreshold {
 
     public static final String CLASSNAME_OVER = "dd-over";
     public static final String CLASSNAME_SPACER = "spacer";
@@ -180,8 +181,8 @@ public class VDDAccordion extends VAccordion
             return;
         }
 
-        StackItem tab = WidgetUtil.findWidget(event.getElementOver(),
-                StackItem.class);
+        StackItem tab = VDragSession.get(event)
+                .findWidget(event.getElementOver(), StackItem.class);
 
         if (tab != null && getElement().isOrHasChild(tab.getElement())) {
             Map<String, Object> dropDetails = event.getDropDetails();
@@ -193,11 +194,7 @@ public class VDDAccordion extends VAccordion
             dropDetails.put(Constants.DROP_DETAIL_VERTICAL_DROP_LOCATION,
                     location);
 
-            MouseEventDetails details = MouseEventDetailsBuilder
-                    .buildMouseEventDetails(event.getCurrentGwtEvent(),
-                            getElement());
-            dropDetails.put(Constants.DROP_DETAIL_MOUSE_EVENT,
-                    details.serialize());
+            VDragDropUtil.updateMouseEventDetails(event, getElement());
         }
     }
 
@@ -235,7 +232,8 @@ public class VDDAccordion extends VAccordion
     protected void emphasis(Element element, VDragEvent event) {
 
         // Find the tab
-        StackItem tab = WidgetUtil.findWidget(element, StackItem.class);
+        StackItem tab = VDragSession.get(event).findWidget(element,
+                StackItem.class);
         if (tab != null && getElement().isOrHasChild(tab.getElement())
                 && currentlyEmphasised != tab) {
             VerticalDropLocation location = getDropLocation(tab, event);
@@ -401,6 +399,16 @@ public class VDDAccordion extends VAccordion
         ddMouseHandler.setDragImageProvider(provider);
     }
 
+    @Override
+    public void setDragProxyMode(DragProxyMode mode) {
+        ddMouseHandler.setDragProxyMode(mode);
+    }
+
+    @Override
+    public void setDragStartThreshold(int distance, int delay) {
+        ddMouseHandler.setDragStartThreshold(distance, delay);
+    }
+
     protected final VLayoutDragDropMouseHandler getMouseHandler() {
         return ddMouseHandler;
     }
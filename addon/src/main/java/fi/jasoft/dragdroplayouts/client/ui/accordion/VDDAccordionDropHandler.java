@@ -33,13 +33,14 @@ public class VDDAccordionDropHandler
 
     @Override
     public boolean drop(VDragEvent drag) {
+        cancelDragOver();
         getLayout().deEmphasis();
         getLayout().updateDragDetails(drag);
         return getLayout().postDropHook(drag) && super.drop(drag);
     };
 
     @Override
-    public void dragOver(VDragEvent drag) {
+    protected void dragOverFrame(VDragEvent drag) {
 
         getLayout().deEmphasis();
 
@@ -64,6 +65,7 @@ public class VDDAccordionDropHandler
 
     @Override
     public void dragLeave(VDragEvent drag) {
+        cancelDragOver();
         getLayout().deEmphasis();
         getLayout().updateDragDetails(drag);
         getLayout().postLeaveHook(drag);
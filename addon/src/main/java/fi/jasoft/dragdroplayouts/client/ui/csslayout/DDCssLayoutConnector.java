@@ -31,6 +31,10 @@ public class DDCssLayoutConnector extends CssLayoutConnector
 
     private HTML5Support html5Support;
 
+    // Reused whenever the layout accepts drops
+    private final VDDCssLayoutDropHandler dropHandler = new VDDCssLayoutDropHandler(
+            this);
+
     @Override
     public VDDCssLayout getWidget() {
         return (VDDCssLayout) super.getWidget();
@@ -48,15 +52,9 @@ public class DDCssLayoutConnector extends CssLayoutConnector
     }
 
     public void updateFromUIDL(UIDL uidl, ApplicationConnection client) {
-        VDragDropUtil.updateDropHandlerFromUIDL(uidl, this, new VDDCssLayoutDropHandler(this));
-        if (html5Support != null) {
-            html5Support.disable();
-            html5Support = null;
-        }
-        VDDCssLayoutDropHandler dropHandler = getWidget().getDropHandler();
-        if (dropHandler != null) {
-            html5Support = HTML5Support.enable(this, dropHandler);
-        }
+        VDragDropUtil.updateDropHandlerFromUIDL(uidl, this, dropHandler);
+        html5Support = HTML5Support.update(html5Support, this,
+                getWidget().getDropHandler());
     }
 
     @Override
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2015 John Ahlroos
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package fi.jasoft.dragdroplayouts.client.ui.csslayout;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.gwt.dom.client.Element;
+import com.google.gwt.dom.client.Node;
+
+/**
+ * The children of a layout with wrapping content, like inline-block or
+ * flex-wrap children, bucketed into visual rows.
+ * <p>
+ * The children are measured once and a new row is started whenever a child
+ * is below the current row or to the left of the previous child. The nearest
+ * insertion point of a position is then found with a binary search over the
+ * rows followed by a binary search over the children of the row. Positions
+ * are relative to the top left corner of the content of the layout.
+ *
+ * @author John Ahlroos / www.jasoft.fi
+ * @since 1.3.0
+ */
+final class RowGeometry {
+
+    private final List<Element> children = new ArrayList<Element>();
+
+    // Horizontal centers of the children
+    private final int[] centers;
+
+    // Index of the first child of each row, followed by the child count
+    private final int[] rowStarts;
+
+    private final int[] rowTops;
+
+    private final int[] rowBottoms;
+
+    /**
+     * Measures the children of a layout
+     *
+     * @param root
+     *            The layout element
+     * @param exclude
+     *            A child which should not be measured, or null
+     */
+    RowGeometry(Element root, Element exclude) {
+        int originLeft = root.getAbsoluteLeft() - root.getScrollLeft();
+        int originTop = root.getAbsoluteTop() - root.getScrollTop();
+
+        List<int[]> bounds = new ArrayList<int[]>();
+        for (int i = 0; i < root.getChildCount(); i++) {
+            Node node = root.getChild(i);
+            if (node == exclude || !Element.is(node)) {
+                continue;
+            }
+            Element child = Element.as(node);
+            int width = child.getOffsetWidth();
+            int height = child.getOffsetHeight();
+            if (width == 0 && height == 0) {
+                // Not rendered
+                continue;
+            }
+            int left = child.getAbsoluteLeft() - originLeft;
+            int top = child.getAbsoluteTop() - originTop;
+            children.add(child);
+            bounds.add(new int[] { left, top, left + width, top + height });
+        }
+
+        int count = children.size();
+        centers = new int[count];
+        int[] starts = new int[count + 1];
+        int[] tops = new int[count];
+        int[] bottoms = new int[count];
+        int rows = 0;
+        for (int i = 0; i < count; i++) {
+            int[] b = bounds.get(i);
+            centers[i] = (b[0] + b[2]) / 2;
+            if (rows == 0 || b[1] >= bottoms[rows - 1]
+                    || b[0] < bounds.get(i - 1)[0]) {
+                starts[rows] = i;
+                tops[rows] = b[1];
+                bottoms[rows] = b[3];
+                rows++;
+            } else {
+                tops[rows - 1] = Math.min(tops[rows - 1], b[1]);
+                bottoms[rows - 1] = Math.max(bottoms[rows - 1], b[3]);
+            }
+        }
+        starts[rows] = count;
+
+        rowStarts = new int[rows + 1];
+        System.arraycopy(starts, 0, rowStarts, 0, rows + 1);
+        rowTops = new int[rows];
+        System.arraycopy(tops, 0, rowTops, 0, rows);
+        rowBottoms = new int[rows];
+        System.arraycopy(bottoms, 0, rowBottoms, 0, rows);
+    }
+
+    /**
+     * Returns the number of measured children
+     */
+    int size() {
+        return children.size();
+    }
+
+    /**
+     * Returns a measured child
+     *
+     * @param index
+     *            The index of the child, between 0 and {@link #size()}
+     *            exclusive
+     */
+    Element getChild(int index) {
+        return children.get(index);
+    }
+
+    /**
+     * Returns the insertion point closest to a position
+     *
+     * @param x
+     *            The horizontal position
+     * @param y
+     *            The vertical position
+     * @return The index of the child to insert before, or {@link #size()} to
+     *         insert after the last child
+     */
+    int findInsertionIndex(int x, int y) {
+        int rows = rowTops.length;
+        if (rows == 0 || y >= rowBottoms[rows - 1]) {
+            return children.size();
+        }
+
+        // The last row starting above the position
+        int low = 0;
+        int high = rows - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (rowTops[mid] <= y) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        int row = low;
+        if (y >= rowBottoms[row] && row + 1 < rows
+                && rowTops[row + 1] - y < y - rowBottoms[row]) {
+            // In the gap between two rows, closer to the next one
+            row++;
+        }
+
+        // The first child of the row whose center is right of the position
+        low = rowStarts[row];
+        high = rowStarts[row + 1];
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (centers[mid] > x) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+}
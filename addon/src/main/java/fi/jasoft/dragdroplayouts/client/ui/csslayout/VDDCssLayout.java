@@ -13,24 +13,29 @@
  */
 package fi.jasoft.dragdroplayouts.client.ui.csslayout;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import com.google.gwt.dom.client.Element;
+import com.google.gwt.dom.client.Node;
 import com.google.gwt.dom.client.Style.Unit;
 import com.google.gwt.user.client.DOM;
+import com.google.gwt.user.client.Window;
 import com.google.gwt.user.client.ui.Widget;
 import com.vaadin.client.ComponentConnector;
-import com.vaadin.client.MouseEventDetailsBuilder;
 import com.vaadin.client.Util;
 import com.vaadin.client.ui.VCssLayout;
 import com.vaadin.client.ui.dd.VDragEvent;
-import com.vaadin.shared.MouseEventDetails;
 import com.vaadin.shared.ui.dd.HorizontalDropLocation;
 import com.vaadin.shared.ui.dd.VerticalDropLocation;
 
 import fi.jasoft.dragdroplayouts.DDCssLayout;
 import fi.jasoft.dragdroplayouts.client.VDragFilter;
 import fi.jasoft.dragdroplayouts.client.ui.Constants;
+import fi.jasoft.dragdroplayouts.client.ui.DragProxyMode;
 import fi.jasoft.dragdroplayouts.client.ui.LayoutDragMode;
 import fi.jasoft.dragdroplayouts.client.ui.VDragDropUtil;
+import fi.jasoft.dragdroplayouts.client.ui.VDragSession;
 import fi.jasoft.dragdroplayouts.client.ui.VLayoutDragDropMouseHandler;
 import fi.jasoft.dragdroplayouts.client.ui.VLayoutDragDropMouseHandler.DragStartListener;
 import fi.jasoft.dragdroplayouts.client.ui.interfaces.VDDHasDropHandler;
@@ -38,6 +43,7 @@ import fi.jasoft.dragdroplayouts.client.ui.interfaces.VDragImageProvider;
 import fi.jasoft.dragdroplayouts.client.ui.interfaces.VHasDragFilter;
 import fi.jasoft.dragdroplayouts.client.ui.interfaces.VHasDragImageReferenceSupport;
 import fi.jasoft.dragdroplayouts.client.ui.interfaces.VHasDragMode;
+import fi.jasoft.dragdroplayouts.client.ui.interfaces.VHasDragStartThreshold;
 import fi.jasoft.dragdroplayouts.client.ui.interfaces.VHasIframeShims;
 import fi.jasoft.dragdroplayouts.client.ui.util.IframeCoverUtility;
 
@@ -50,7 +56,8 @@ import fi.jasoft.dragdroplayouts.client.ui.util.IframeCoverUtility;
  */
 public class VDDCssLayout extends VCssLayout implements VHasDragMode,
         VDDHasDropHandler<VDDCssLayoutDropHandler>, DragStartListener,
-        VHasDragFilter, VHasIframeShims, VHasDragImageReferenceSupport {
+        VHasDragFilter, VHasIframeShims, VHasDragImageReferenceSupport,
+        VHasDragStartThreshold {
 
     public static final String DRAG_SHADOW_STYLE_NAME = "v-ddcsslayout-drag-shadow";
 
@@ -71,6 +78,12 @@ public class VDDCssLayout extends VCssLayout implements VHasDragMode,
 
     private boolean iframeCovers = false;
 
+    // Index of each child element, built lazily without the placeholder
+    private Map<Element, Integer> childIndexes;
+
+    // Children bucketed into rows, measured lazily while dragging
+    private RowGeometry rowGeometry;
+
     /**
      * Default constructor
      */
@@ -122,6 +135,29 @@ public class VDDCssLayout extends VCssLayout implements VHasDragMode,
         ddHandler.updateDragMode(LayoutDragMode.NONE);
         iframeCoverUtility.setIframeCoversEnabled(false, getElement(),
                 LayoutDragMode.NONE);
+        childIndexes = null;
+        rowGeometry = null;
+    }
+
+    @Override
+    public void add(Widget w) {
+        childIndexes = null;
+        rowGeometry = null;
+        super.add(w);
+    }
+
+    @Override
+    public void insert(Widget w, int beforeIndex) {
+        childIndexes = null;
+        rowGeometry = null;
+        super.insert(w, beforeIndex);
+    }
+
+    @Override
+    public boolean remove(Widget w) {
+        childIndexes = null;
+        rowGeometry = null;
+        return super.remove(w);
     }
 
     /**
@@ -160,48 +196,122 @@ public class VDDCssLayout extends VCssLayout implements VHasDragMode,
 
     private Element placeHolderElement;
 
+    // Size of the placeholder of drags not started by a layout
+    private int placeHolderWidth = -1;
+
+    private int placeHolderHeight = -1;
+
     public void attachDragImageToLayout(VDragEvent drag) {
         if (placeHolderElement == null) {
             placeHolderElement = DOM.createDiv();
             placeHolderElement.setInnerHTML("&nbsp;");
+            placeHolderElement.setAttribute(VDragSession.TRANSIENT_ATTRIBUTE,
+                    "");
+            initPlaceHolderStyleProperties(drag);
+        }
+        rowGeometry = null;
+    }
+
+    /**
+     * Sets the class names and size of the placeholder, once per drag since
+     * the dragged component does not change
+     */
+    private void initPlaceHolderStyleProperties(VDragEvent drag) {
+        VDragSession session = VDragSession.get(drag);
+        ComponentConnector draggedConnector = session.getDraggedConnector();
+        if (draggedConnector == null) {
+            placeHolderElement.setClassName(DRAG_SHADOW_STYLE_NAME);
+            setPlaceHolderSize(0, 0);
+            return;
+        }
+
+        StringBuilder className = new StringBuilder(DRAG_SHADOW_STYLE_NAME);
+        for (String styleName : draggedConnector.getWidget().getElement()
+                .getClassName().split(" ")) {
+            if (!styleName.isEmpty() && !styleName.equals(
+                    VLayoutDragDropMouseHandler.ACTIVE_DRAG_SOURCE_STYLENAME)) {
+                className.append(' ').append(styleName);
+            }
         }
+        placeHolderElement.setClassName(className.toString());
+        setPlaceHolderSize(session.getDraggedWidth(),
+                session.getDraggedHeight());
     }
 
     private void updatePlaceHolderStyleProperties(VDragEvent drag) {
+        if (VDragSession.get(drag).getDraggedConnector() != null) {
+            // Sized after the dragged component when attached
+            return;
+        }
+
+        // Sized after the hovered component
         int width = 0;
         int height = 0;
-        String className = "";
-
-        placeHolderElement.setClassName(DRAG_SHADOW_STYLE_NAME);
-
-        ComponentConnector draggedConnector = (ComponentConnector) drag
-                .getTransferable()
-                .getData(Constants.TRANSFERABLE_DETAIL_COMPONENT);
-        if (draggedConnector != null) {
-            height = Util.getRequiredHeight(draggedConnector.getWidget());
-            width = Util.getRequiredWidth(draggedConnector.getWidget());
-            className = draggedConnector.getWidget().getElement()
-                    .getClassName();
-            className = className.replaceAll(
-                    VLayoutDragDropMouseHandler.ACTIVE_DRAG_SOURCE_STYLENAME,
-                    "");
-            placeHolderElement.addClassName(className);
-        } else if (drag.getElementOver() != getElement()) {
+        if (drag.getElementOver() != getElement()) {
             width = 3;
             height = drag.getElementOver().getOffsetHeight();
         }
+        if (width != placeHolderWidth || height != placeHolderHeight) {
+            setPlaceHolderSize(width, height);
+        }
+    }
 
+    private void setPlaceHolderSize(int width, int height) {
+        placeHolderWidth = width;
+        placeHolderHeight = height;
         placeHolderElement.getStyle().setWidth(width, Unit.PX);
         placeHolderElement.getStyle().setHeight(height, Unit.PX);
     }
 
+    /**
+     * Moves the placeholder before a node, or last if the node is null. The
+     * DOM is not touched if the placeholder already is there.
+     */
+    private void movePlaceHolder(VDragEvent drag, Element parent,
+            Node before) {
+        if (before == placeHolderElement
+                || (placeHolderElement.getParentElement() == parent
+                        && placeHolderElement.getNextSibling() == before)) {
+            return;
+        }
+        parent.insertBefore(placeHolderElement, before);
+        placeHolderMoved(drag);
+    }
+
+    private void removePlaceHolder(VDragEvent drag) {
+        if (placeHolderElement.hasParentElement()) {
+            placeHolderElement.removeFromParent();
+            placeHolderMoved(drag);
+        }
+    }
+
+    /**
+     * The placeholder shifts the elements after it, including the children
+     * of nested layouts
+     */
+    private void placeHolderMoved(VDragEvent drag) {
+        rowGeometry = null;
+        VDragSession.get(drag).invalidatePositions();
+    }
+
+    /**
+     * Returns a sibling of an element, skipping the placeholder
+     */
+    private Element getSibling(Element element, boolean previous) {
+        Node sibling = element;
+        do {
+            sibling = previous ? sibling.getPreviousSibling()
+                    : sibling.getNextSibling();
+        } while (sibling == placeHolderElement);
+        return sibling == null ? null : sibling.<Element> cast();
+    }
+
     public void detachDragImageFromLayout(VDragEvent drag) {
         if (placeHolderElement != null) {
-            if (placeHolderElement.hasParentElement()) {
-                placeHolderElement.removeFromParent();
-            }
+            removePlaceHolder(drag);
             placeHolderElement = null;
         }
+        rowGeometry = null;
     }
 
     /**
@@ -219,24 +329,35 @@ public class VDDCssLayout extends VCssLayout implements VHasDragMode,
             return;
         }
 
-        Widget widget = (Widget) Util.findWidget(over, null);
+        Widget widget = VDragSession.get(event).findWidget(over, null);
         if (widget == null) {
             // Null check
             return;
         }
 
-        int offset = 0;
-        int index = -1;
-        for (int i = 0; i < getElement().getChildCount(); i++) {
-            Element child = getElement().getChild(i).cast();
-            if (child.isOrHasChild(placeHolderElement)) {
-                offset--;
-            } else if (child.isOrHasChild(widget.getElement())) {
-                index = i + offset;
-                break;
-            }
+        if (widget == this && getRowGeometry().size() > 0) {
+            /*
+             * Between the children, drop next to the nearest child
+             */
+            RowGeometry rows = getRowGeometry();
+            int insertion = getInsertionIndex(event);
+            boolean after = insertion == rows.size();
+            Element child = rows.getChild(after ? insertion - 1 : insertion);
+            event.getDropDetails().put(Constants.DROP_DETAIL_TO,
+                    getChildIndex(child));
+            event.getDropDetails().put(
+                    Constants.DROP_DETAIL_HORIZONTAL_DROP_LOCATION,
+                    after ? HorizontalDropLocation.RIGHT
+                            : HorizontalDropLocation.LEFT);
+            event.getDropDetails().put(
+                    Constants.DROP_DETAIL_VERTICAL_DROP_LOCATION,
+                    VerticalDropLocation.MIDDLE);
+            VDragDropUtil.updateMouseEventDetails(event, getElement());
+            return;
         }
-        event.getDropDetails().put(Constants.DROP_DETAIL_TO, index);
+
+        event.getDropDetails().put(Constants.DROP_DETAIL_TO,
+                getChildIndex(widget.getElement()));
 
         /*
          * The horizontal position within the cell
@@ -251,12 +372,74 @@ public class VDDCssLayout extends VCssLayout implements VHasDragMode,
         event.getDropDetails().put(Constants.DROP_DETAIL_VERTICAL_DROP_LOCATION,
                 getVerticalDropLocation(widget, event));
 
-        // Add mouse event details
-        MouseEventDetails details = MouseEventDetailsBuilder
-                .buildMouseEventDetails(event.getCurrentGwtEvent(),
-                        getElement());
-        event.getDropDetails().put(Constants.DROP_DETAIL_MOUSE_EVENT,
-                details.serialize());
+        // Add mouse event details, serialized when sent to the server
+        VDragDropUtil.updateMouseEventDetails(event, getElement());
+    }
+
+    /**
+     * Returns the index of the child element containing an element, not
+     * counting the placeholder, or -1 if the element is not inside a child.
+     * 
+     * @param element
+     *            The element
+     * @return The index of the child
+     */
+    private int getChildIndex(Element element) {
+        Element root = getElement();
+        while (element != null && element.getParentElement() != root) {
+            element = element.getParentElement();
+        }
+        if (element == null || element == placeHolderElement) {
+            return -1;
+        }
+
+        Integer index = getChildIndexes().get(element);
+        if (index == null) {
+            // Added to the DOM outside of the widget hierarchy
+            childIndexes = null;
+            index = getChildIndexes().get(element);
+        }
+        return index == null ? -1 : index;
+    }
+
+    private RowGeometry getRowGeometry() {
+        if (rowGeometry == null) {
+            rowGeometry = new RowGeometry(getElement(), placeHolderElement);
+        }
+        return rowGeometry;
+    }
+
+    /**
+     * Returns the insertion point in the row geometry nearest to the pointer
+     */
+    private int getInsertionIndex(VDragEvent drag) {
+        Element root = getElement();
+        int left = VDragSession.get(drag).getAbsoluteLeft(root)
+                - Window.getScrollLeft() - root.getScrollLeft();
+        int top = VDragSession.get(drag).getAbsoluteTop(root)
+                - Window.getScrollTop() - root.getScrollTop();
+        return getRowGeometry().findInsertionIndex(
+                Util.getTouchOrMouseClientX(drag.getCurrentGwtEvent()) - left,
+                Util.getTouchOrMouseClientY(drag.getCurrentGwtEvent()) - top);
+    }
+
+    private Map<Element, Integer> getChildIndexes() {
+        if (childIndexes == null) {
+            childIndexes = new HashMap<Element, Integer>();
+            Element root = getElement();
+            int index = 0;
+            for (int i = 0; i < root.getChildCount(); i++) {
+                Node child = root.getChild(i);
+                if (child == placeHolderElement) {
+                    continue;
+                }
+                if (Element.is(child)) {
+                    childIndexes.put(Element.as(child), index);
+                }
+                index++;
+            }
+        }
+        return childIndexes;
     }
 
     public void updateDrag(VDragEvent drag) {
@@ -271,28 +454,21 @@ public class VDDCssLayout extends VCssLayout implements VHasDragMode,
             return;
         }
 
-        if (drag.getElementOver().isOrHasChild(placeHolderElement)) {
+        if (placeHolderElement.isOrHasChild(drag.getElementOver())) {
             return;
         }
 
-        if (placeHolderElement.hasParentElement()) {
-            /*
-             * Remove the placeholder from the DOM so we can reposition
-             */
-            placeHolderElement.removeFromParent();
-        }
-
-        Widget w = Util.findWidget(drag.getElementOver(), null);
+        VDragSession session = VDragSession.get(drag);
+        Widget w = session.findWidget(drag.getElementOver(), null);
 
-        ComponentConnector draggedConnector = (ComponentConnector) drag
-                .getTransferable()
-                .getData(Constants.TRANSFERABLE_DETAIL_COMPONENT);
+        ComponentConnector draggedConnector = session.getDraggedConnector();
 
         if (draggedConnector != null && w == draggedConnector.getWidget()) {
             /*
              * Dragging drag image over the placeholder should not have any
              * effect (except placeholder should be removed)
              */
+            removePlaceHolder(drag);
             return;
         }
 
@@ -300,43 +476,44 @@ public class VDDCssLayout extends VCssLayout implements VHasDragMode,
 
             HorizontalDropLocation hl = getHorizontalDropLocation(w, drag);
             VerticalDropLocation vl = getVerticalDropLocation(w, drag);
+            Element element = w.getElement();
+            boolean after = hl != HorizontalDropLocation.LEFT
+                    && vl != VerticalDropLocation.TOP
+                    && (hl == HorizontalDropLocation.RIGHT
+                            || vl == VerticalDropLocation.BOTTOM);
+
+            Element sibling = getSibling(element, !after);
+            if (draggedConnector != null && sibling != null
+                    && draggedConnector.getWidget().getElement()
+                            .isOrHasChild(sibling)) {
+                // Next to the dragged component, dropping changes nothing
+                removePlaceHolder(drag);
+            } else if (after) {
+                movePlaceHolder(drag, element.getParentElement(),
+                        element.getNextSibling());
+            } else {
+                movePlaceHolder(drag, element.getParentElement(), element);
+            }
 
-            if (hl == HorizontalDropLocation.LEFT
-                    || vl == VerticalDropLocation.TOP) {
-                Element prev = w.getElement().getPreviousSibling().cast();
-                if (draggedConnector == null || prev == null
-                        || !draggedConnector.getWidget().getElement()
-                                .isOrHasChild(prev)) {
-
-                    w.getElement().getParentElement()
-                            .insertBefore(placeHolderElement, w.getElement());
-
-                }
-            } else if (hl == HorizontalDropLocation.RIGHT
-                    || vl == VerticalDropLocation.BOTTOM) {
-                Element next = w.getElement().getNextSibling().cast();
-                if (draggedConnector == null || next == null
-                        || !draggedConnector.getWidget().getElement()
-                                .isOrHasChild(next)) {
-                    w.getElement().getParentElement()
-                            .insertAfter(placeHolderElement, w.getElement());
-                }
-
+        } else if (w == this && getRowGeometry().size() > 0) {
+            /*
+             * Between the children, next to the nearest child
+             */
+            RowGeometry rows = getRowGeometry();
+            int insertion = getInsertionIndex(drag);
+            if (insertion < rows.size()) {
+                movePlaceHolder(drag, getElement(),
+                        rows.getChild(insertion));
             } else {
-                Element prev = w.getElement().getPreviousSibling().cast();
-                if (draggedConnector == null || prev == null
-                        || !draggedConnector.getWidget().getElement()
-                                .isOrHasChild(prev)) {
-                    w.getElement().getParentElement()
-                            .insertBefore(placeHolderElement, w.getElement());
-                }
+                movePlaceHolder(drag, getElement(),
+                        rows.getChild(insertion - 1).getNextSibling());
             }
 
         } else {
             /*
              * First child or hoovering outside of current components
              */
-            getElement().appendChild(placeHolderElement);
+            movePlaceHolder(drag, getElement(), null);
         }
 
         updatePlaceHolderStyleProperties(drag);
@@ -436,6 +613,16 @@ public class VDDCssLayout extends VCssLayout implements VHasDragMode,
         ddHandler.setDragImageProvider(provider);
     }
 
+    @Override
+    public void setDragProxyMode(DragProxyMode mode) {
+        ddHandler.setDragProxyMode(mode);
+    }
+
+    @Override
+    public void setDragStartThreshold(int distance, int delay) {
+        ddHandler.setDragStartThreshold(distance, delay);
+    }
+
     protected final VLayoutDragDropMouseHandler getMouseHandler() {
         return ddHandler;
     }
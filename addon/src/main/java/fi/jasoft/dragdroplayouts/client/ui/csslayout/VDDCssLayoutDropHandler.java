@@ -28,6 +28,7 @@ public class VDDCssLayoutDropHandler
 
     @Override
     public boolean drop(VDragEvent drag) {
+        cancelDragOver();
         getLayout().updateDragDetails(drag);
         getLayout().detachDragImageFromLayout(drag);
         return getLayout().postDropHook(drag) && super.drop(drag);
@@ -43,13 +44,14 @@ public class VDDCssLayoutDropHandler
 
     @Override
     public void dragLeave(VDragEvent drag) {
+        cancelDragOver();
         super.dragLeave(drag);
         getLayout().detachDragImageFromLayout(drag);
         getLayout().postLeaveHook(drag);
     }
 
     @Override
-    public void dragOver(VDragEvent drag) {
+    protected void dragOverFrame(VDragEvent drag) {
         getLayout().updateDragDetails(drag);
         getLayout().postOverHook(drag);
 
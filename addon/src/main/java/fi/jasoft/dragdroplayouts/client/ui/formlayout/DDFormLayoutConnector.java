@@ -31,6 +31,10 @@ public class DDFormLayoutConnector extends FormLayoutConnector
 
     private HTML5Support html5Support;
 
+    // Reused whenever the layout accepts drops
+    private final VDDFormLayoutDropHandler dropHandler = new VDDFormLayoutDropHandler(
+            this);
+
     @Override
     public VDDFormLayout getWidget() {
         return (VDDFormLayout) super.getWidget();
@@ -48,15 +52,9 @@ public class DDFormLayoutConnector extends FormLayoutConnector
     }
 
     public void updateFromUIDL(UIDL uidl, ApplicationConnection client) {
-        VDragDropUtil.updateDropHandlerFromUIDL(uidl, this, new VDDFormLayoutDropHandler(this));
-        if (html5Support != null) {
-            html5Support.disable();
-            html5Support = null;
-        }
-        VDDFormLayoutDropHandler dropHandler = getWidget().getDropHandler();
-        if (dropHandler != null) {
-            html5Support = HTML5Support.enable(this, dropHandler);
-        }
+        VDragDropUtil.updateDropHandlerFromUIDL(uidl, this, dropHandler);
+        html5Support = HTML5Support.update(html5Support, this,
+                getWidget().getDropHandler());
     }
 
     @Override
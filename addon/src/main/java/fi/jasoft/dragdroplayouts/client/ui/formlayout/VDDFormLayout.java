@@ -14,21 +14,19 @@
 package fi.jasoft.dragdroplayouts.client.ui.formlayout;
 
 import com.google.gwt.dom.client.Element;
-import com.google.gwt.user.client.ui.UIObject;
 import com.google.gwt.user.client.ui.Widget;
 import com.vaadin.client.ApplicationConnection;
 import com.vaadin.client.ComponentConnector;
-import com.vaadin.client.MouseEventDetailsBuilder;
 import com.vaadin.client.Util;
 import com.vaadin.client.ui.VFormLayout;
 import com.vaadin.client.ui.dd.VDragEvent;
-import com.vaadin.shared.MouseEventDetails;
 import com.vaadin.shared.annotations.DelegateToWidget;
 import com.vaadin.shared.ui.dd.VerticalDropLocation;
 
 import fi.jasoft.dragdroplayouts.DDFormLayout;
 import fi.jasoft.dragdroplayouts.client.VDragFilter;
 import fi.jasoft.dragdroplayouts.client.ui.Constants;
+import fi.jasoft.dragdroplayouts.client.ui.DragProxyMode;
 import fi.jasoft.dragdroplayouts.client.ui.LayoutDragMode;
 import fi.jasoft.dragdroplayouts.client.ui.VDragDropUtil;
 import fi.jasoft.dragdroplayouts.client.ui.VLayoutDragDropMouseHandler;
@@ -38,7 +36,9 @@ import fi.jasoft.dragdroplayouts.client.ui.interfaces.VDragImageProvider;
 import fi.jasoft.dragdroplayouts.client.ui.interfaces.VHasDragFilter;
 import fi.jasoft.dragdroplayouts.client.ui.interfaces.VHasDragImageReferenceSupport;
 import fi.jasoft.dragdroplayouts.client.ui.interfaces.VHasDragMode;
+import fi.jasoft.dragdroplayouts.client.ui.interfaces.VHasDragStartThreshold;
 import fi.jasoft.dragdroplayouts.client.ui.interfaces.VHasIframeShims;
+import fi.jasoft.dragdroplayouts.client.ui.util.EmphasisStyles;
 import fi.jasoft.dragdroplayouts.client.ui.util.IframeCoverUtility;
 
 /**
@@ -49,7 +49,8 @@ import fi.jasoft.dragdroplayouts.client.ui.util.IframeCoverUtility;
  */
 public class VDDFormLayout extends VFormLayout implements VHasDragMode,
         VDDHasDropHandler<VDDFormLayoutDropHandler>, DragStartListener,
-        VHasDragFilter, VHasIframeShims, VHasDragImageReferenceSupport {
+        VHasDragFilter, VHasIframeShims, VHasDragImageReferenceSupport,
+        VHasDragStartThreshold {
 
     private Element currentlyEmphasised;
 
@@ -63,6 +64,12 @@ public class VDDFormLayout extends VFormLayout implements VHasDragMode,
 
     public static final String OVER_SPACED = OVER + "-spaced";
 
+    // Over styles of the drop locations, indexed by ordinal
+    private static final String[] OVER_LOCATIONS = EmphasisStyles
+            .getLocationStyles(OVER, VerticalDropLocation.values());
+
+    private final EmphasisStyles emphasisStyles = new EmphasisStyles();
+
     private VDDFormLayoutDropHandler dropHandler;
 
     private VDragFilter dragFilter;
@@ -105,25 +112,15 @@ public class VDDFormLayout extends VFormLayout implements VHasDragMode,
      * Removes any applies drag and drop style applied by emphasis()
      */
     protected void deEmphasis() {
-        if (currentlyEmphasised != null) {
-            // Universal over style
-            UIObject.setStyleName(currentlyEmphasised, OVER, false);
-            UIObject.setStyleName(currentlyEmphasised, OVER_SPACED, false);
-
-            // Vertical styles
-            UIObject.setStyleName(currentlyEmphasised,
-                    OVER + "-"
-                            + VerticalDropLocation.TOP.toString().toLowerCase(),
-                    false);
-            UIObject.setStyleName(currentlyEmphasised, OVER + "-"
-                    + VerticalDropLocation.MIDDLE.toString().toLowerCase(),
-                    false);
-            UIObject.setStyleName(currentlyEmphasised, OVER + "-"
-                    + VerticalDropLocation.BOTTOM.toString().toLowerCase(),
-                    false);
-
-            currentlyEmphasised = null;
-        }
+        emphasisStyles.clear();
+        currentlyEmphasised = null;
+    }
+
+    /**
+     * Returns the emphasis styles currently applied while dragging
+     */
+    EmphasisStyles getEmphasisStyles() {
+        return emphasisStyles;
     }
 
     /**
@@ -198,12 +195,8 @@ public class VDDFormLayout extends VFormLayout implements VHasDragMode,
         String className = widget.getClass().getName();
         event.getDropDetails().put(Constants.DROP_DETAIL_OVER_CLASS, className);
 
-        // Add mouse event details
-        MouseEventDetails details = MouseEventDetailsBuilder
-                .buildMouseEventDetails(event.getCurrentGwtEvent(),
-                        getElement());
-        event.getDropDetails().put(Constants.DROP_DETAIL_MOUSE_EVENT,
-                details.serialize());
+        // Add mouse event details, serialized when sent to the server
+        VDragDropUtil.updateMouseEventDetails(event, getElement());
     }
 
     /**
@@ -218,11 +211,10 @@ public class VDDFormLayout extends VFormLayout implements VHasDragMode,
      */
     protected void emphasis(Widget widget, VDragEvent event) {
 
-        // Remove emphasis from previous hovers
-        deEmphasis();
-
         // Validate
         if (widget == null || !getElement().isOrHasChild(widget.getElement())) {
+            // Remove emphasis from previous hovers
+            deEmphasis();
             return;
         }
 
@@ -234,13 +226,13 @@ public class VDDFormLayout extends VFormLayout implements VHasDragMode,
 
         currentlyEmphasised = rowElement;
 
+        // Only changes the class names if the emphasis changed
         if (rowElement != this.getElement()) {
             VerticalDropLocation vl = getVerticalDropLocation(rowElement,
                     event);
-            UIObject.setStyleName(rowElement,
-                    OVER + "-" + vl.toString().toLowerCase(), true);
+            emphasisStyles.apply(rowElement, OVER_LOCATIONS[vl.ordinal()]);
         } else {
-            UIObject.setStyleName(rowElement, OVER, true);
+            emphasisStyles.apply(rowElement, OVER);
         }
     }
 
@@ -360,6 +352,16 @@ public class VDDFormLayout extends VFormLayout implements VHasDragMode,
         ddMouseHandler.setDragImageProvider(provider);
     }
 
+    @Override
+    public void setDragProxyMode(DragProxyMode mode) {
+        ddMouseHandler.setDragProxyMode(mode);
+    }
+
+    @Override
+    public void setDragStartThreshold(int distance, int delay) {
+        ddMouseHandler.setDragStartThreshold(distance, delay);
+    }
+
     protected final VLayoutDragDropMouseHandler getMouseHandler() {
         return ddMouseHandler;
     }
@@ -14,6 +14,7 @@
 package fi.jasoft.dragdroplayouts.client.ui.formlayout;
 
 import com.google.gwt.dom.client.Element;
+import com.google.gwt.dom.client.NativeEvent;
 import com.google.gwt.user.client.ui.Widget;
 import com.vaadin.client.ComponentConnector;
 import com.vaadin.client.ui.dd.VAcceptCallback;
@@ -24,6 +25,13 @@ import fi.jasoft.dragdroplayouts.client.ui.VDDAbstractDropHandler;
 public class VDDFormLayoutDropHandler
         extends VDDAbstractDropHandler<VDDFormLayout> {
 
+    // The row widget found for the latest event
+    private NativeEvent rowEvent;
+
+    private Element rowElement;
+
+    private Widget rowWidget;
+
     public VDDFormLayoutDropHandler(ComponentConnector connector) {
         super(connector);
     }
@@ -36,6 +44,8 @@ public class VDDFormLayoutDropHandler
     @Override
     public boolean drop(VDragEvent drag) {
 
+        cancelDragOver();
+
         // Un-emphasis any selections
         getLayout().emphasis(null, null);
 
@@ -45,7 +55,24 @@ public class VDDFormLayoutDropHandler
         return getLayout().postDropHook(drag) && super.drop(drag);
     };
 
+    /**
+     * Returns the widget of the row the drag is over. The row is only searched
+     * once per event, so updating the drop details, validating the drop and
+     * emphasizing the row all share the same result.
+     */
     private Widget getTableRowWidgetFromDragEvent(VDragEvent event) {
+        NativeEvent nativeEvent = event.getCurrentGwtEvent();
+        Element e = event.getElementOver();
+        if (nativeEvent == null || nativeEvent != rowEvent
+                || e != rowElement) {
+            rowWidget = findTableRowWidget(event);
+            rowEvent = nativeEvent;
+            rowElement = e;
+        }
+        return rowWidget;
+    }
+
+    private Widget findTableRowWidget(VDragEvent event) {
 
         /**
          * Find the widget of the row
@@ -101,10 +128,10 @@ public class VDDFormLayoutDropHandler
     }
 
     @Override
-    public void dragOver(VDragEvent drag) {
+    protected void dragOverFrame(VDragEvent drag) {
 
-        // Remove any emphasis
-        getLayout().emphasis(null, null);
+        // Keep the emphasis while the location is still accepted
+        getLayout().getEmphasisStyles().markStale();
 
         // Update the drop details so we can validate the drop
         Widget c = getTableRowWidgetFromDragEvent(drag);
@@ -127,6 +154,9 @@ public class VDDFormLayoutDropHandler
                 }
             }
         }, drag);
+
+        // Remove the emphasis if the location was not accepted
+        getLayout().getEmphasisStyles().removeStale();
     };
 
     @Override
@@ -147,6 +177,7 @@ public class VDDFormLayoutDropHandler
 
     @Override
     public void dragLeave(VDragEvent drag) {
+        cancelDragOver();
         getLayout().emphasis(null, drag);
         getLayout().postLeaveHook(drag);
     }
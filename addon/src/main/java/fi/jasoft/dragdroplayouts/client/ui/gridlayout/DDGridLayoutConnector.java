@@ -31,6 +31,10 @@ public class DDGridLayoutConnector extends GridLayoutConnector
 
     private HTML5Support html5Support;
 
+    // Reused whenever the layout accepts drops
+    private final VDDGridLayoutDropHandler dropHandler = new VDDGridLayoutDropHandler(
+            this);
+
     @Override
     public VDDGridLayout getWidget() {
         return (VDDGridLayout) super.getWidget();
@@ -49,15 +53,9 @@ public class DDGridLayoutConnector extends GridLayoutConnector
 
     @Override
     public void updateFromUIDL(UIDL uidl, ApplicationConnection client) {
-        VDragDropUtil.updateDropHandlerFromUIDL(uidl, this, new VDDGridLayoutDropHandler(this));
-        if (html5Support != null) {
-            html5Support.disable();
-            html5Support = null;
-        }
-        VDDGridLayoutDropHandler dropHandler = getWidget().getDropHandler();
-        if (dropHandler != null) {
-            html5Support = HTML5Support.enable(this, dropHandler);
-        }
+        VDragDropUtil.updateDropHandlerFromUIDL(uidl, this, dropHandler);
+        html5Support = HTML5Support.update(html5Support, this,
+                getWidget().getDropHandler());
     }
 
     @Override
@@ -13,29 +13,30 @@
  */
 package fi.jasoft.dragdroplayouts.client.ui.gridlayout;
 
+import java.util.Arrays;
 import java.util.Map;
 
 import com.google.gwt.dom.client.Style;
 import com.google.gwt.dom.client.Style.Position;
 import com.google.gwt.dom.client.Style.Unit;
+import com.google.gwt.user.client.Window;
 import com.google.gwt.user.client.ui.HTML;
-import com.google.gwt.user.client.ui.UIObject;
 import com.google.gwt.user.client.ui.Widget;
 import com.vaadin.client.ApplicationConnection;
 import com.vaadin.client.ComponentConnector;
-import com.vaadin.client.MouseEventDetailsBuilder;
 import com.vaadin.client.Util;
 import com.vaadin.client.ui.VGridLayout;
 import com.vaadin.client.ui.dd.VDragEvent;
-import com.vaadin.shared.MouseEventDetails;
 import com.vaadin.shared.ui.dd.HorizontalDropLocation;
 import com.vaadin.shared.ui.dd.VerticalDropLocation;
 
 import fi.jasoft.dragdroplayouts.DDGridLayout;
 import fi.jasoft.dragdroplayouts.client.VDragFilter;
 import fi.jasoft.dragdroplayouts.client.ui.Constants;
+import fi.jasoft.dragdroplayouts.client.ui.DragProxyMode;
 import fi.jasoft.dragdroplayouts.client.ui.LayoutDragMode;
 import fi.jasoft.dragdroplayouts.client.ui.VDragDropUtil;
+import fi.jasoft.dragdroplayouts.client.ui.VDragSession;
 import fi.jasoft.dragdroplayouts.client.ui.VLayoutDragDropMouseHandler;
 import fi.jasoft.dragdroplayouts.client.ui.VLayoutDragDropMouseHandler.DragStartListener;
 import fi.jasoft.dragdroplayouts.client.ui.interfaces.VDDHasDropHandler;
@@ -43,7 +44,9 @@ import fi.jasoft.dragdroplayouts.client.ui.interfaces.VDragImageProvider;
 import fi.jasoft.dragdroplayouts.client.ui.interfaces.VHasDragFilter;
 import fi.jasoft.dragdroplayouts.client.ui.interfaces.VHasDragImageReferenceSupport;
 import fi.jasoft.dragdroplayouts.client.ui.interfaces.VHasDragMode;
+import fi.jasoft.dragdroplayouts.client.ui.interfaces.VHasDragStartThreshold;
 import fi.jasoft.dragdroplayouts.client.ui.interfaces.VHasIframeShims;
+import fi.jasoft.dragdroplayouts.client.ui.util.EmphasisStyles;
 import fi.jasoft.dragdroplayouts.client.ui.util.IframeCoverUtility;
 
 /**
@@ -54,11 +57,30 @@ import fi.jasoft.dragdroplayouts.client.ui.util.IframeCoverUtility;
  */
 public class VDDGridLayout extends VGridLayout implements VHasDragMode,
         VDDHasDropHandler<VDDGridLayoutDropHandler>, DragStartListener,
-        VHasDragFilter, VHasIframeShims, VHasDragImageReferenceSupport {
+        VHasDragFilter, VHasIframeShims, VHasDragImageReferenceSupport,
+        VHasDragStartThreshold {
 
     public static final String CLASSNAME = "v-ddgridlayout";
     public static final String OVER = CLASSNAME + "-over";
 
+    // Over styles of the drop locations, indexed by ordinal
+    private static final String[] OVER_HORIZONTAL = EmphasisStyles
+            .getLocationStyles(OVER, HorizontalDropLocation.values());
+
+    private static final String[] OVER_VERTICAL = EmphasisStyles
+            .getLocationStyles(OVER, VerticalDropLocation.values());
+
+    private final EmphasisStyles emphasisStyles = new EmphasisStyles();
+
+    // The cell the drag shadow was last positioned over
+    private int shadowX = -1;
+
+    private int shadowY = -1;
+
+    private int shadowWidth = -1;
+
+    private int shadowHeight = -1;
+
     private VDDGridLayoutDropHandler dropHandler;
 
     final HTML dragShadow = new HTML("");
@@ -81,6 +103,28 @@ public class VDDGridLayout extends VGridLayout implements VHasDragMode,
 
     private boolean iframeCovers = false;
 
+    // Cell geometry captured during a drag, relative to the layout
+    private int[] columnStarts;
+
+    private int[] columnSizes;
+
+    private int[] rowStarts;
+
+    private int[] rowSizes;
+
+    // Position of the layout in the viewport when the geometry was captured
+    private int originLeft;
+
+    private int originTop;
+
+    // Session and positions version the cell geometry was measured in
+    private VDragSession geometrySession;
+
+    private int geometryVersion;
+
+    // Returned by getCellDetails() for every drag event
+    private final CellDetails cellDetails = new CellDetails();
+
     public VDDGridLayout() {
         super();
     }
@@ -100,6 +144,7 @@ public class VDDGridLayout extends VGridLayout implements VHasDragMode,
         ddMouseHandler.updateDragMode(LayoutDragMode.NONE);
         iframeCoverUtility.setIframeCoversEnabled(false, getElement(),
                 LayoutDragMode.NONE);
+        invalidateCellGeometry();
     }
 
     /**
@@ -159,12 +204,8 @@ public class VDDGridLayout extends VGridLayout implements VHasDragMode,
                         VDDGridLayout.this.getClass().getName());
             }
 
-            // Add mouse event details
-            MouseEventDetails details = MouseEventDetailsBuilder
-                    .buildMouseEventDetails(event.getCurrentGwtEvent(),
-                            getElement());
-            event.getDropDetails().put(Constants.DROP_DETAIL_MOUSE_EVENT,
-                    details.serialize());
+            // Add mouse event details, serialized when sent to the server
+            VDragDropUtil.updateMouseEventDetails(event, getElement());
         }
     }
 
@@ -183,7 +224,7 @@ public class VDDGridLayout extends VGridLayout implements VHasDragMode,
         // Get the horizontal location
         HorizontalDropLocation hdetail;
         int x = Util.getTouchOrMouseClientX(event.getCurrentGwtEvent())
-                - getAbsoluteLeft() - cell.x;
+                - originLeft - cell.x;
 
         assert(x >= 0 && x <= cell.width);
 
@@ -212,7 +253,7 @@ public class VDDGridLayout extends VGridLayout implements VHasDragMode,
         // Get the vertical location
         VerticalDropLocation vdetail;
         int y = Util.getTouchOrMouseClientY(event.getCurrentGwtEvent())
-                - getAbsoluteTop() - cell.y;
+                - originTop - cell.y;
 
         assert(y >= 0 && y <= cell.height);
 
@@ -236,75 +277,53 @@ public class VDDGridLayout extends VGridLayout implements VHasDragMode,
      */
     protected void emphasis(CellDetails cell, VDragEvent event) {
 
-        Style shadowStyle = dragShadow.getElement().getStyle();
-        shadowStyle.setPosition(Position.ABSOLUTE);
-        shadowStyle.setWidth(cell.width, Unit.PX);
-        shadowStyle.setHeight(cell.height, Unit.PX);
-        shadowStyle.setLeft(cell.x, Unit.PX);
-        shadowStyle.setTop(cell.y, Unit.PX);
-
-        // Remove any existing empasis
-        deEmphasis();
+        // Only move the shadow when the cell changes
+        if (cell.x != shadowX || cell.y != shadowY || cell.width != shadowWidth
+                || cell.height != shadowHeight) {
+            Style shadowStyle = dragShadow.getElement().getStyle();
+            shadowStyle.setPosition(Position.ABSOLUTE);
+            shadowStyle.setWidth(cell.width, Unit.PX);
+            shadowStyle.setHeight(cell.height, Unit.PX);
+            shadowStyle.setLeft(cell.x, Unit.PX);
+            shadowStyle.setTop(cell.y, Unit.PX);
+            shadowX = cell.x;
+            shadowY = cell.y;
+            shadowWidth = cell.width;
+            shadowHeight = cell.height;
+        }
 
         // Ensure we are not dragging ourself into ourself
-        ComponentConnector draggedConnector = (ComponentConnector) event
-                .getTransferable()
-                .getData(Constants.TRANSFERABLE_DETAIL_COMPONENT);
+        ComponentConnector draggedConnector = VDragSession.get(event)
+                .getDraggedConnector();
 
         if (draggedConnector != null
                 && draggedConnector.getWidget() == VDDGridLayout.this) {
+            // Remove any existing empasis
+            deEmphasis();
             return;
         }
 
         HorizontalDropLocation hl = getHorizontalDropLocation(cell, event);
         VerticalDropLocation vl = getVerticalDropLocation(cell, event);
 
-        // Apply over style
-        UIObject.setStyleName(dragShadow.getElement(), OVER, true);
-
-        // Add vertical location dependent style
-        UIObject.setStyleName(dragShadow.getElement(),
-                OVER + "-" + vl.toString().toLowerCase(), true);
-
-        // Add horizontal location dependent style
-        UIObject.setStyleName(dragShadow.getElement(),
-                OVER + "-" + hl.toString().toLowerCase(), true);
-
+        // Apply over style and the location dependent styles, only changes
+        // the class names if the location changed
+        emphasisStyles.apply(dragShadow.getElement(), OVER,
+                OVER_VERTICAL[vl.ordinal()], OVER_HORIZONTAL[hl.ordinal()]);
     }
 
     /**
      * Removes any emphasis previously set by emphasis
      */
     protected void deEmphasis() {
+        emphasisStyles.clear();
+    }
 
-        UIObject.setStyleName(dragShadow.getElement(), OVER, false);
-
-        // Horizontal styles
-        UIObject.setStyleName(dragShadow.getElement(),
-                OVER + "-"
-                        + HorizontalDropLocation.LEFT.toString().toLowerCase(),
-                false);
-        UIObject.setStyleName(dragShadow.getElement(), OVER + "-"
-                + HorizontalDropLocation.CENTER.toString().toLowerCase(),
-                false);
-        UIObject.setStyleName(dragShadow.getElement(),
-                OVER + "-"
-                        + HorizontalDropLocation.RIGHT.toString().toLowerCase(),
-                false);
-
-        // Vertical styles
-        UIObject.setStyleName(dragShadow.getElement(),
-                OVER + "-" + VerticalDropLocation.TOP.toString().toLowerCase(),
-                false);
-        UIObject.setStyleName(dragShadow.getElement(),
-                OVER + "-"
-                        + VerticalDropLocation.MIDDLE.toString().toLowerCase(),
-                false);
-        UIObject.setStyleName(dragShadow.getElement(),
-                OVER + "-"
-                        + VerticalDropLocation.BOTTOM.toString().toLowerCase(),
-                false);
-
+    /**
+     * Returns the emphasis styles currently applied while dragging
+     */
+    EmphasisStyles getEmphasisStyles() {
+        return emphasisStyles;
     }
 
     public LayoutDragMode getDragMode() {
@@ -370,14 +389,47 @@ public class VDDGridLayout extends VGridLayout implements VHasDragMode,
         public int height = -1;
     }
 
+    /**
+     * Returns details of the cell under the pointer. The column and row
+     * offsets are measured once per drag, so finding the cell does not read
+     * the layout. The same instance is returned for every event.
+     * 
+     * @param event
+     *            The drag event
+     * @return The details of the cell under the pointer or null if the pointer
+     *         is not over a cell
+     */
     CellDetails getCellDetails(VDragEvent event) {
+        VDragSession session = VDragSession.get(event);
+        int version = session.getPositionsVersion();
+        if (session != geometrySession || version != geometryVersion) {
+            // Scrolled, resized or changed since the cells were measured
+            columnStarts = null;
+            geometrySession = session;
+            geometryVersion = version;
+        }
+        if (columnStarts == null) {
+            measureCellGeometry();
+        }
+
         int x = Util.getTouchOrMouseClientX(event.getCurrentGwtEvent())
-                - getAbsoluteLeft();
+                - originLeft;
         int y = Util.getTouchOrMouseClientY(event.getCurrentGwtEvent())
-                - getAbsoluteTop();
+                - originTop;
         return getCellDetailsByCoordinates(x, y);
     }
 
+    /**
+     * Discards the cell geometry captured during the drag. Called when the
+     * drag enters or leaves the layout and when it is dropped. The geometry
+     * is also measured again when the positions of the {@link VDragSession}
+     * change.
+     */
+    protected void invalidateCellGeometry() {
+        columnStarts = null;
+        geometrySession = null;
+    }
+
     /**
      * Returns details of the cell under the given position
      * 
@@ -388,42 +440,68 @@ public class VDDGridLayout extends VGridLayout implements VHasDragMode,
      * @return The details of the cell under the coordinate
      */
     private CellDetails getCellDetailsByCoordinates(int x, int y) {
+        int column = findCell(columnStarts, columnSizes, x);
+        int row = findCell(rowStarts, rowSizes, y);
 
-        CellDetails cd = new CellDetails();
-        int[] columnWidths = getColumnWidths();
-        int[] rowHeights = getRowHeights();
-
-        // Get column and x coordinate
-        int temp = 0;
-        for (int col = 0; col < columnWidths.length; col++) {
-            if (x >= temp && x <= temp + columnWidths[col]) {
-                cd.column = col;
-                cd.x = temp;
-                cd.width = columnWidths[col];
-                break;
-            }
-            temp += columnWidths[col] + getHorizontalSpacing();
+        // Sanity check
+        if (column == -1 || row == -1) {
+            return null;
         }
 
-        // get row
-        temp = 0;
-        for (int row = 0; row < rowHeights.length; row++) {
-            if (y >= temp && y <= temp + rowHeights[row]) {
-                cd.row = row;
-                cd.y = temp;
-                cd.height = rowHeights[row];
-                break;
+        CellDetails cd = cellDetails;
+        cd.column = column;
+        cd.x = columnStarts[column];
+        cd.width = columnSizes[column];
+        cd.row = row;
+        cd.y = rowStarts[row];
+        cd.height = rowSizes[row];
+        return cd;
+    }
+
+    /**
+     * Returns the index of the first cell whose end is at or after the
+     * position if the position is within it, -1 otherwise. Both ends of the
+     * cells are inclusive like they have always been.
+     */
+    private static int findCell(int[] starts, int[] sizes, int position) {
+        int low = 0;
+        int high = starts.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (starts[mid] + sizes[mid] < position) {
+                low = mid + 1;
+            } else {
+                high = mid;
             }
-            temp += rowHeights[row] + getVerticalSpacing();
         }
-
-        // Sanity check
-        if (cd.row == -1 || cd.column == -1 || cd.width == -1
-                || cd.height == -1) {
-            return null;
+        if (low < starts.length && starts[low] <= position) {
+            return low;
         }
+        return -1;
+    }
 
-        return cd;
+    private void measureCellGeometry() {
+        originLeft = getAbsoluteLeft() - Window.getScrollLeft();
+        originTop = getAbsoluteTop() - Window.getScrollTop();
+
+        int[] columnWidths = getColumnWidths();
+        int[] rowHeights = getRowHeights();
+        columnSizes = columnWidths == null ? new int[0]
+                : Arrays.copyOf(columnWidths, columnWidths.length);
+        rowSizes = rowHeights == null ? new int[0]
+                : Arrays.copyOf(rowHeights, rowHeights.length);
+        columnStarts = getStarts(columnSizes, getHorizontalSpacing());
+        rowStarts = getStarts(rowSizes, getVerticalSpacing());
+    }
+
+    private static int[] getStarts(int[] sizes, int spacing) {
+        int[] starts = new int[sizes.length];
+        int start = 0;
+        for (int i = 0; i < sizes.length; i++) {
+            starts[i] = start;
+            start += sizes[i] + spacing;
+        }
+        return starts;
     }
 
     /*
@@ -484,6 +562,16 @@ public class VDDGridLayout extends VGridLayout implements VHasDragMode,
         ddMouseHandler.setDragImageProvider(provider);
     }
 
+    @Override
+    public void setDragProxyMode(DragProxyMode mode) {
+        ddMouseHandler.setDragProxyMode(mode);
+    }
+
+    @Override
+    public void setDragStartThreshold(int distance, int delay) {
+        ddMouseHandler.setDragStartThreshold(distance, delay);
+    }
+
     protected final VLayoutDragDropMouseHandler getMouseHandler() {
         return ddMouseHandler;
     }
@@ -30,6 +30,7 @@ public class VDDGridLayoutDropHandler
     @Override
     public void dragEnter(VDragEvent drag) {
         super.dragEnter(drag);
+        getLayout().invalidateCellGeometry();
         getLayout().updateDragDetails(drag);
         getLayout().postEnterHook(drag);
     }
@@ -37,8 +38,11 @@ public class VDDGridLayoutDropHandler
     @Override
     public boolean drop(VDragEvent drag) {
 
+        cancelDragOver();
+
         // Update the detail of the drop
         getLayout().updateDragDetails(drag);
+        getLayout().invalidateCellGeometry();
 
         // Remove emphasis
         getLayout().deEmphasis();
@@ -47,10 +51,10 @@ public class VDDGridLayoutDropHandler
     };
 
     @Override
-    public void dragOver(VDragEvent drag) {
+    protected void dragOverFrame(VDragEvent drag) {
 
-        // Remove emphasis from previous selection
-        getLayout().deEmphasis();
+        // Keep the emphasis while the location is still accepted
+        getLayout().getEmphasisStyles().markStale();
 
         // Update the drop details so we can then validate them
         getLayout().updateDragDetails(drag);
@@ -66,10 +70,15 @@ public class VDDGridLayoutDropHandler
                 }
             }
         }, drag);
+
+        // Remove the emphasis if the location was not accepted
+        getLayout().getEmphasisStyles().removeStale();
     }
 
     @Override
     public void dragLeave(VDragEvent drag) {
+        cancelDragOver();
+        getLayout().invalidateCellGeometry();
         getLayout().deEmphasis();
         getLayout().postLeaveHook(drag);
         super.dragLeave(drag);
@@ -31,6 +31,10 @@ public class DDHorizontalLayoutConnector extends HorizontalLayoutConnector
 
     private HTML5Support html5Support;
 
+    // Reused whenever the layout accepts drops
+    private final VDDHorizontalLayoutDropHandler dropHandler = new VDDHorizontalLayoutDropHandler(
+            this);
+
     @Override
     public VDDHorizontalLayout getWidget() {
         return (VDDHorizontalLayout) super.getWidget();
@@ -48,15 +52,9 @@ public class DDHorizontalLayoutConnector extends HorizontalLayoutConnector
     }
 
     public void updateFromUIDL(UIDL uidl, ApplicationConnection client) {
-        VDragDropUtil.updateDropHandlerFromUIDL(uidl, this, new VDDHorizontalLayoutDropHandler(this));
-        if (html5Support != null) {
-            html5Support.disable();
-            html5Support = null;
-        }
-        VDDHorizontalLayoutDropHandler dropHandler = getWidget().getDropHandler();
-        if (dropHandler != null) {
-            html5Support = HTML5Support.enable(this, dropHandler);
-        }
+        VDragDropUtil.updateDropHandlerFromUIDL(uidl, this, dropHandler);
+        html5Support = HTML5Support.update(html5Support, this,
+                getWidget().getDropHandler());
     }
 
     @Override
@@ -13,21 +13,19 @@
  */
 package fi.jasoft.dragdroplayouts.client.ui.horizontallayout;
 
-import com.google.gwt.user.client.ui.UIObject;
 import com.google.gwt.user.client.ui.Widget;
 import com.google.gwt.user.client.ui.WidgetCollection;
 import com.vaadin.client.ComponentConnector;
-import com.vaadin.client.MouseEventDetailsBuilder;
 import com.vaadin.client.Util;
 import com.vaadin.client.ui.VHorizontalLayout;
 import com.vaadin.client.ui.dd.VDragEvent;
 import com.vaadin.client.ui.orderedlayout.Slot;
-import com.vaadin.shared.MouseEventDetails;
 import com.vaadin.shared.ui.dd.HorizontalDropLocation;
 
 import fi.jasoft.dragdroplayouts.DDHorizontalLayout;
 import fi.jasoft.dragdroplayouts.client.VDragFilter;
 import fi.jasoft.dragdroplayouts.client.ui.Constants;
+import fi.jasoft.dragdroplayouts.client.ui.DragProxyMode;
 import fi.jasoft.dragdroplayouts.client.ui.LayoutDragMode;
 import fi.jasoft.dragdroplayouts.client.ui.VDragDropUtil;
 import fi.jasoft.dragdroplayouts.client.ui.VLayoutDragDropMouseHandler;
@@ -37,7 +35,9 @@ import fi.jasoft.dragdroplayouts.client.ui.interfaces.VDragImageProvider;
 import fi.jasoft.dragdroplayouts.client.ui.interfaces.VHasDragFilter;
 import fi.jasoft.dragdroplayouts.client.ui.interfaces.VHasDragImageReferenceSupport;
 import fi.jasoft.dragdroplayouts.client.ui.interfaces.VHasDragMode;
+import fi.jasoft.dragdroplayouts.client.ui.interfaces.VHasDragStartThreshold;
 import fi.jasoft.dragdroplayouts.client.ui.interfaces.VHasIframeShims;
+import fi.jasoft.dragdroplayouts.client.ui.util.EmphasisStyles;
 import fi.jasoft.dragdroplayouts.client.ui.util.IframeCoverUtility;
 
 /**
@@ -46,14 +46,20 @@ import fi.jasoft.dragdroplayouts.client.ui.util.IframeCoverUtility;
  * @author John Ahlroos / www.jasoft.fi
  * @since 0.4.0
  */
-public class VDDHorizontalLayout extends VHorizontalLayout
-        implements VHasDragMode,
-        VDDHasDropHandler<VDDHorizontalLayoutDropHandler>, DragStartListener,
-        VHasDragFilter, VHasDragImageReferenceSupport, VHasIframeShims {
+public class VDDHorizontalLayout extends VHorizontalLayout implements
+        VHasDragMode, VDDHasDropHandler<VDDHorizontalLayoutDropHandler>,
+        DragStartListener, VHasDragFilter, VHasDragImageReferenceSupport,
+        VHasIframeShims, VHasDragStartThreshold {
 
     public static final String OVER = "v-ddorderedlayout-over";
     public static final String OVER_SPACED = OVER + "-spaced";
 
+    // Over styles of the drop locations, indexed by ordinal
+    private static final String[] OVER_LOCATIONS = EmphasisStyles
+            .getLocationStyles(OVER, HorizontalDropLocation.values());
+
+    private final EmphasisStyles emphasisStyles = new EmphasisStyles();
+
     private Widget currentlyEmphasised;
 
     private VDDHorizontalLayoutDropHandler dropHandler;
@@ -97,26 +103,15 @@ public class VDDHorizontalLayout extends VHorizontalLayout
      * Removes any applies drag and drop style applied by emphasis()
      */
     protected void deEmphasis() {
-        if (currentlyEmphasised != null) {
-            // Universal over style
-            UIObject.setStyleName(currentlyEmphasised.getElement(), OVER,
-                    false);
-            UIObject.setStyleName(currentlyEmphasised.getElement(), OVER_SPACED,
-                    false);
-
-            // Horizontal styles
-            UIObject.setStyleName(currentlyEmphasised.getElement(), OVER + "-"
-                    + HorizontalDropLocation.LEFT.toString().toLowerCase(),
-                    false);
-            UIObject.setStyleName(currentlyEmphasised.getElement(), OVER + "-"
-                    + HorizontalDropLocation.CENTER.toString().toLowerCase(),
-                    false);
-            UIObject.setStyleName(currentlyEmphasised.getElement(), OVER + "-"
-                    + HorizontalDropLocation.RIGHT.toString().toLowerCase(),
-                    false);
-
-            currentlyEmphasised = null;
-        }
+        emphasisStyles.clear();
+        currentlyEmphasised = null;
+    }
+
+    /**
+     * Returns the emphasis styles currently applied while dragging
+     */
+    EmphasisStyles getEmphasisStyles() {
+        return emphasisStyles;
     }
 
     /**
@@ -215,12 +210,8 @@ public class VDDHorizontalLayout extends VHorizontalLayout
 
         event.getDropDetails().put(Constants.DROP_DETAIL_TO, index);
 
-        // Add mouse event details
-        MouseEventDetails details = MouseEventDetailsBuilder
-                .buildMouseEventDetails(event.getCurrentGwtEvent(),
-                        getElement());
-        event.getDropDetails().put(Constants.DROP_DETAIL_MOUSE_EVENT,
-                details.serialize());
+        // Add mouse event details, serialized when sent to the server
+        VDragDropUtil.updateMouseEventDetails(event, getElement());
     }
 
     /**
@@ -235,12 +226,11 @@ public class VDDHorizontalLayout extends VHorizontalLayout
      */
     protected void emphasis(Widget container, VDragEvent event) {
 
-        // Remove emphasis from previous hovers
-        deEmphasis();
-
         // validate container
         if (container == null
                 || !getElement().isOrHasChild(container.getElement())) {
+            // Remove emphasis from previous hovers
+            deEmphasis();
             return;
         }
 
@@ -256,9 +246,9 @@ public class VDDHorizontalLayout extends VHorizontalLayout
             location = HorizontalDropLocation.CENTER;
         }
 
-        UIObject.setStyleName(currentlyEmphasised.getElement(), OVER, true);
-        UIObject.setStyleName(currentlyEmphasised.getElement(),
-                OVER + "-" + location.toString().toLowerCase(), true);
+        // Only changes the class names if the emphasis changed
+        emphasisStyles.apply(currentlyEmphasised.getElement(), OVER,
+                OVER_LOCATIONS[location.ordinal()]);
     }
 
     /**
@@ -330,6 +320,16 @@ public class VDDHorizontalLayout extends VHorizontalLayout
         ddMouseHandler.setDragImageProvider(provider);
     }
 
+    @Override
+    public void setDragProxyMode(DragProxyMode mode) {
+        ddMouseHandler.setDragProxyMode(mode);
+    }
+
+    @Override
+    public void setDragStartThreshold(int distance, int delay) {
+        ddMouseHandler.setDragStartThreshold(distance, delay);
+    }
+
     protected final VLayoutDragDropMouseHandler getMouseHandler() {
         return ddMouseHandler;
     }
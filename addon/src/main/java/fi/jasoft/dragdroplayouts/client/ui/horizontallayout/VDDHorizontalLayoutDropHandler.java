@@ -41,12 +41,15 @@ public class VDDHorizontalLayoutDropHandler
     @Override
     public boolean drop(VDragEvent drag) {
 
+        cancelDragOver();
+
         // Un-emphasis any selections
         getLayout().emphasis(null, null);
 
         // Update the details
-        Widget slot = getSlot(drag.getElementOver(), drag.getCurrentGwtEvent());
+        Widget slot = getSlot(drag);
         getLayout().updateDragDetails(slot, drag);
+        invalidateSlotGeometry();
 
         return getLayout().postDropHook(drag) && super.drop(drag);
     }
@@ -78,12 +81,12 @@ public class VDDHorizontalLayoutDropHandler
     }
 
     @Override
-    public void dragOver(VDragEvent drag) {
+    protected void dragOverFrame(VDragEvent drag) {
 
-        // Remove any emphasis
-        getLayout().emphasis(null, null);
+        // Keep the emphasis while the location is still accepted
+        getLayout().getEmphasisStyles().markStale();
 
-        Slot slot = getSlot(drag.getElementOver(), drag.getCurrentGwtEvent());
+        Slot slot = getSlot(drag);
 
         if (slot != null) {
             getLayout().updateDragDetails(slot, drag);
@@ -96,8 +99,7 @@ public class VDDHorizontalLayoutDropHandler
         // Validate the drop
         validate(new VAcceptCallback() {
             public void accepted(VDragEvent event) {
-                Slot slot = getSlot(event.getElementOver(),
-                        event.getCurrentGwtEvent());
+                Slot slot = getSlot(event);
                 if (slot != null) {
                     getLayout().emphasis(slot, event);
                 } else {
@@ -105,12 +107,15 @@ public class VDDHorizontalLayoutDropHandler
                 }
             }
         }, drag);
+
+        // Remove the emphasis if the location was not accepted
+        getLayout().getEmphasisStyles().removeStale();
     }
 
     @Override
     public void dragEnter(VDragEvent drag) {
         super.dragEnter(drag);
-        Slot slot = getSlot(drag.getElementOver(), drag.getCurrentGwtEvent());
+        Slot slot = getSlot(drag);
         if (slot != null) {
             getLayout().updateDragDetails(slot, drag);
         } else {
@@ -122,6 +127,8 @@ public class VDDHorizontalLayoutDropHandler
 
     @Override
     public void dragLeave(VDragEvent drag) {
+        cancelDragOver();
+        invalidateSlotGeometry();
         getLayout().deEmphasis();
         getLayout().postLeaveHook(drag);
     }
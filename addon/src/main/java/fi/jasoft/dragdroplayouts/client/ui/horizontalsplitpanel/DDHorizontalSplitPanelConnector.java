@@ -31,6 +31,10 @@ public class DDHorizontalSplitPanelConnector extends
 
     private HTML5Support html5Support;
 
+    // Reused whenever the layout accepts drops
+    private final VDDHorizontalSplitPanelDropHandler dropHandler = new VDDHorizontalSplitPanelDropHandler(
+            this);
+
     @Override
     protected void init() {
         super.init();
@@ -48,15 +52,9 @@ public class DDHorizontalSplitPanelConnector extends
     }
 
     public void updateFromUIDL(UIDL uidl, ApplicationConnection client) {
-        VDragDropUtil.updateDropHandlerFromUIDL(uidl, this, new VDDHorizontalSplitPanelDropHandler(this));
-        if (html5Support != null) {
-            html5Support.disable();
-            html5Support = null;
-        }
-        VDDHorizontalSplitPanelDropHandler dropHandler = getWidget().getDropHandler();
-        if (dropHandler != null) {
-            html5Support = HTML5Support.enable(this, dropHandler);
-        }
+        VDragDropUtil.updateDropHandlerFromUIDL(uidl, this, dropHandler);
+        html5Support = HTML5Support.update(html5Support, this,
+                getWidget().getDropHandler());
     }
 
     @Override
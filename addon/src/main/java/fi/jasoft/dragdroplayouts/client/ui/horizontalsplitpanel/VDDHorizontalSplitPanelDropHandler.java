@@ -17,8 +17,8 @@ import com.vaadin.client.ComponentConnector;
 import com.vaadin.client.ui.dd.VAcceptCallback;
 import com.vaadin.client.ui.dd.VDragEvent;
 
-import fi.jasoft.dragdroplayouts.client.ui.Constants;
 import fi.jasoft.dragdroplayouts.client.ui.VDDAbstractDropHandler;
+import fi.jasoft.dragdroplayouts.client.ui.VDragSession;
 
 public class VDDHorizontalSplitPanelDropHandler
         extends VDDAbstractDropHandler<VDDHorizontalSplitPanel> {
@@ -35,6 +35,8 @@ public class VDDHorizontalSplitPanelDropHandler
     @Override
     public boolean drop(VDragEvent drag) {
 
+        cancelDragOver();
+
         // Un-emphasis any selections
         getLayout().deEmphasis();
 
@@ -44,7 +46,7 @@ public class VDDHorizontalSplitPanelDropHandler
     };
 
     @Override
-    public void dragOver(VDragEvent drag) {
+    protected void dragOverFrame(VDragEvent drag) {
 
         getLayout().deEmphasis();
 
@@ -52,9 +54,8 @@ public class VDDHorizontalSplitPanelDropHandler
 
         getLayout().postOverHook(drag);
 
-        ComponentConnector widgetConnector = (ComponentConnector) drag
-                .getTransferable()
-                .getData(Constants.TRANSFERABLE_DETAIL_COMPONENT);
+        ComponentConnector widgetConnector = VDragSession.get(drag)
+                .getDraggedConnector();
 
         if (widgetConnector != null
                 && getLayout().equals(widgetConnector.getWidget())) {
@@ -78,6 +79,7 @@ public class VDDHorizontalSplitPanelDropHandler
 
     @Override
     public void dragLeave(VDragEvent drag) {
+        cancelDragOver();
         getLayout().deEmphasis();
         getLayout().updateDragDetails(drag);
         getLayout().postLeaveHook(drag);
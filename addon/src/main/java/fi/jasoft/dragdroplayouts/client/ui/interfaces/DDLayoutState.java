@@ -21,6 +21,7 @@ import java.util.Map;
 import com.vaadin.shared.Connector;
 import com.vaadin.shared.communication.SharedState;
 
+import fi.jasoft.dragdroplayouts.client.ui.DragProxyMode;
 import fi.jasoft.dragdroplayouts.client.ui.LayoutDragMode;
 
 public class DDLayoutState extends SharedState {
@@ -28,12 +29,27 @@ public class DDLayoutState extends SharedState {
     // The current drag mode, default is dragging is not supported
     public LayoutDragMode dragMode = LayoutDragMode.NONE;
 
+    // Pixels the pointer has to move before a drag starts
+    public int dragStartDistance = 0;
+
+    // Milliseconds the pointer has to be pressed before a drag starts
+    public int dragStartDelay = 0;
+
+    // Does the layout have a drop handler and accept drops
+    public boolean acceptDrops = false;
+
     // Are the iframes shimmed
     public boolean iframeShims = true;
 
     // Which connectors are draggable
     public List<Connector> draggable = new ArrayList<Connector>();
 
+    // Client side evaluated drag filter, replaces draggable when set
+    public DragFilterRule dragFilterRule;
+
+    // What the drag image is built from
+    public DragProxyMode dragProxyMode = DragProxyMode.CLONE;
+
     // Reference drag images
     public Map<Connector, Connector> referenceImageComponents = new HashMap<Connector, Connector>();
 }
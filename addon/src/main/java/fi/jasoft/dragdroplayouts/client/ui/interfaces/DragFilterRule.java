@@ -0,0 +1,68 @@
+/*
+ * Copyright 2015 John Ahlroos
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package fi.jasoft.dragdroplayouts.client.ui.interfaces;
+
+import java.io.Serializable;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * A drag filter rule which can be evaluated on the client side without
+ * sending the draggable components to the client.
+ *
+ * @author John Ahlroos / www.jasoft.fi
+ * @since 1.3.0
+ */
+@SuppressWarnings("serial")
+public class DragFilterRule implements Serializable {
+
+    /**
+     * What the rule matches components by
+     */
+    public enum Type {
+
+        /**
+         * Matches components which have any of the style names in
+         * {@link DragFilterRule#values}
+         */
+        STYLE_NAME,
+
+        /**
+         * Matches components whose index in the layout is between
+         * {@link DragFilterRule#fromIndex} (inclusive) and
+         * {@link DragFilterRule#toIndex} (exclusive)
+         */
+        INDEX_RANGE,
+
+        /**
+         * Matches components whose connector id is in
+         * {@link DragFilterRule#values}
+         */
+        CONNECTOR_ID
+    }
+
+    // What the rule matches by
+    public Type type;
+
+    // Are the matching components draggable (allow) or not (deny)
+    public boolean allow = true;
+
+    // Style names or connector ids depending on the type
+    public Set<String> values = new HashSet<String>();
+
+    // Index range, used by INDEX_RANGE
+    public int fromIndex = 0;
+
+    public int toIndex = Integer.MAX_VALUE;
+}
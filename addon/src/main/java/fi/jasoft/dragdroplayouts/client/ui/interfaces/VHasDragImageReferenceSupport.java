@@ -1,7 +1,11 @@
 package fi.jasoft.dragdroplayouts.client.ui.interfaces;
 
+import fi.jasoft.dragdroplayouts.client.ui.DragProxyMode;
+
 public interface VHasDragImageReferenceSupport {
 
     void setDragImageProvider(VDragImageProvider provider);
 
+    void setDragProxyMode(DragProxyMode mode);
+
 }
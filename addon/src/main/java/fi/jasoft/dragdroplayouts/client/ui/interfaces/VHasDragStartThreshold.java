@@ -0,0 +1,34 @@
+/*
+ * Copyright 2015 John Ahlroos
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package fi.jasoft.dragdroplayouts.client.ui.interfaces;
+
+/**
+ * Widgets which start drags only after the pointer has moved far and long
+ * enough
+ * 
+ * @author John Ahlroos / www.jasoft.fi
+ * @since 1.3.0
+ */
+public interface VHasDragStartThreshold {
+
+    /**
+     * Sets the drag start threshold
+     * 
+     * @param distance
+     *            The distance in pixels the pointer has to move
+     * @param delay
+     *            The time in milliseconds the pointer has to be pressed
+     */
+    void setDragStartThreshold(int distance, int delay);
+}
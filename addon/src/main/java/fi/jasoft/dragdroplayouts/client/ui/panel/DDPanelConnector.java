@@ -29,6 +29,10 @@ public class DDPanelConnector extends PanelConnector implements VHasDragFilter {
 
     private HTML5Support html5Support;
 
+    // Reused whenever the layout accepts drops
+    private final VDDPanelDropHandler dropHandler = new VDDPanelDropHandler(
+            this);
+
     @Override
     public void init() {
         super.init();
@@ -48,15 +52,9 @@ public class DDPanelConnector extends PanelConnector implements VHasDragFilter {
     @Override
     public void updateFromUIDL(UIDL uidl, ApplicationConnection client) {
         super.updateFromUIDL(uidl, client);
-        VDragDropUtil.updateDropHandlerFromUIDL(uidl, this, new VDDPanelDropHandler(this));
-        if (html5Support != null) {
-            html5Support.disable();
-            html5Support = null;
-        }
-        VDDPanelDropHandler dropHandler = getWidget().getDropHandler();
-        if (dropHandler != null) {
-            html5Support = HTML5Support.enable(this, dropHandler);
-        }
+        VDragDropUtil.updateDropHandlerFromUIDL(uidl, this, dropHandler);
+        html5Support = HTML5Support.update(html5Support, this,
+                getWidget().getDropHandler());
     }
 
     @Override
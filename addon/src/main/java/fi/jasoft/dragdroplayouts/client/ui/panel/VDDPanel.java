@@ -16,17 +16,16 @@ package fi.jasoft.dragdroplayouts.client.ui.panel;
 import com.google.gwt.dom.client.Element;
 import com.google.gwt.user.client.ui.Widget;
 import com.vaadin.client.ComponentConnector;
-import com.vaadin.client.MouseEventDetailsBuilder;
 import com.vaadin.client.Util;
-import com.vaadin.client.WidgetUtil;
 import com.vaadin.client.ui.VPanel;
 import com.vaadin.client.ui.dd.VDragEvent;
-import com.vaadin.shared.MouseEventDetails;
 
 import fi.jasoft.dragdroplayouts.client.VDragFilter;
 import fi.jasoft.dragdroplayouts.client.ui.Constants;
+import fi.jasoft.dragdroplayouts.client.ui.DragProxyMode;
 import fi.jasoft.dragdroplayouts.client.ui.LayoutDragMode;
 import fi.jasoft.dragdroplayouts.client.ui.VDragDropUtil;
+import fi.jasoft.dragdroplayouts.client.ui.VDragSession;
 import fi.jasoft.dragdroplayouts.client.ui.VLayoutDragDropMouseHandler;
 import fi.jasoft.dragdroplayouts.client.ui.VLayoutDragDropMouseHandler.DragStartListener;
 import fi.jasoft.dragdroplayouts.client.ui.interfaces.VDDHasDropHandler;
@@ -34,12 +33,14 @@ import fi.jasoft.dragdroplayouts.client.ui.interfaces.VDragImageProvider;
 import fi.jasoft.dragdroplayouts.client.ui.interfaces.VHasDragFilter;
 import fi.jasoft.dragdroplayouts.client.ui.interfaces.VHasDragImageReferenceSupport;
 import fi.jasoft.dragdroplayouts.client.ui.interfaces.VHasDragMode;
+import fi.jasoft.dragdroplayouts.client.ui.interfaces.VHasDragStartThreshold;
 import fi.jasoft.dragdroplayouts.client.ui.interfaces.VHasIframeShims;
 import fi.jasoft.dragdroplayouts.client.ui.util.IframeCoverUtility;
 
 public class VDDPanel extends VPanel implements VHasDragMode,
         VDDHasDropHandler<VDDPanelDropHandler>, DragStartListener,
-        VHasDragFilter, VHasDragImageReferenceSupport, VHasIframeShims {
+        VHasDragFilter, VHasDragImageReferenceSupport, VHasIframeShims,
+        VHasDragStartThreshold {
 
     private final IframeCoverUtility iframeCoverUtility = new IframeCoverUtility();
 
@@ -91,6 +92,16 @@ public class VDDPanel extends VPanel implements VHasDragMode,
         ddMouseHandler.setDragImageProvider(provider);
     }
 
+    @Override
+    public void setDragProxyMode(DragProxyMode mode) {
+        ddMouseHandler.setDragProxyMode(mode);
+    }
+
+    @Override
+    public void setDragStartThreshold(int distance, int delay) {
+        ddMouseHandler.setDragStartThreshold(distance, delay);
+    }
+
     @Override
     public VDragFilter getDragFilter() {
         return dragFilter;
@@ -167,7 +178,7 @@ public class VDDPanel extends VPanel implements VHasDragMode,
     protected void updateDragDetails(VDragEvent event) {
         Element over = event.getElementOver();
 
-        Widget content = WidgetUtil.findWidget(over, null);
+        Widget content = VDragSession.get(event).findWidget(over, null);
 
         if (content != null && content != this) {
             event.getDropDetails().put(Constants.DROP_DETAIL_OVER_CLASS,
@@ -177,12 +188,8 @@ public class VDDPanel extends VPanel implements VHasDragMode,
                     this.getClass().getName());
         }
 
-        // Add mouse event details
-        MouseEventDetails details = MouseEventDetailsBuilder
-                .buildMouseEventDetails(event.getCurrentGwtEvent(),
-                        getElement());
-        event.getDropDetails().put(Constants.DROP_DETAIL_MOUSE_EVENT,
-                details.serialize());
+        // Add mouse event details, serialized when sent to the server
+        VDragDropUtil.updateMouseEventDetails(event, getElement());
     }
 
     /**
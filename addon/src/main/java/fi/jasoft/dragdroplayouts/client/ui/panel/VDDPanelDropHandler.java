@@ -33,6 +33,7 @@ public class VDDPanelDropHandler extends VDDAbstractDropHandler<VDDPanel> {
 
     @Override
     public boolean drop(VDragEvent drag) {
+        cancelDragOver();
         VConsole.log("Drop!");
 
         // Un-emphasis any selections
@@ -45,7 +46,7 @@ public class VDDPanelDropHandler extends VDDAbstractDropHandler<VDDPanel> {
     }
 
     @Override
-    public void dragOver(VDragEvent drag) {
+    protected void dragOverFrame(VDragEvent drag) {
 
         VConsole.log("Drag over");
 
@@ -73,6 +74,7 @@ public class VDDPanelDropHandler extends VDDAbstractDropHandler<VDDPanel> {
 
     @Override
     public void dragLeave(VDragEvent drag) {
+        cancelDragOver();
         getLayout().deEmphasis();
         getLayout().postLeaveHook(drag);
     }
@@ -18,20 +18,20 @@ import com.google.gwt.user.client.DOM;
 import com.google.gwt.user.client.ui.ComplexPanel;
 import com.google.gwt.user.client.ui.Widget;
 import com.vaadin.client.ComponentConnector;
-import com.vaadin.client.MouseEventDetailsBuilder;
 import com.vaadin.client.Util;
 import com.vaadin.client.VCaption;
 import com.vaadin.client.ui.VTabsheet;
 import com.vaadin.client.ui.VTabsheetPanel;
 import com.vaadin.client.ui.dd.VDragEvent;
-import com.vaadin.shared.MouseEventDetails;
 import com.vaadin.shared.ui.dd.HorizontalDropLocation;
 
 import fi.jasoft.dragdroplayouts.DDTabSheet;
 import fi.jasoft.dragdroplayouts.client.VDragFilter;
 import fi.jasoft.dragdroplayouts.client.ui.Constants;
+import fi.jasoft.dragdroplayouts.client.ui.DragProxyMode;
 import fi.jasoft.dragdroplayouts.client.ui.LayoutDragMode;
 import fi.jasoft.dragdroplayouts.client.ui.VDragDropUtil;
+import fi.jasoft.dragdroplayouts.client.ui.VDragSession;
 import fi.jasoft.dragdroplayouts.client.ui.VLayoutDragDropMouseHandler;
 import fi.jasoft.dragdroplayouts.client.ui.VLayoutDragDropMouseHandler.DragStartListener;
 import fi.jasoft.dragdroplayouts.client.ui.interfaces.VDDHasDropHandler;
@@ -40,6 +40,7 @@ import fi.jasoft.dragdroplayouts.client.ui.interfaces.VDragImageProvider;
 import fi.jasoft.dragdroplayouts.client.ui.interfaces.VHasDragFilter;
 import fi.jasoft.dragdroplayouts.client.ui.interfaces.VHasDragImageReferenceSupport;
 import fi.jasoft.dragdroplayouts.client.ui.interfaces.VHasDragMode;
+import fi.jasoft.dragdroplayouts.client.ui.interfaces.VHasDragStartThreshold;
 import fi.jasoft.dragdroplayouts.client.ui.interfaces.VHasIframeShims;
 import fi.jasoft.dragdroplayouts.client.ui.util.IframeCoverUtility;
 
@@ -49,10 +50,10 @@ import fi.jasoft.dragdroplayouts.client.ui.util.IframeCoverUtility;
  * @author John Ahlroos / www.jasoft.fi
  * @since 0.4.0
  */
-public class VDDTabSheet extends VTabsheet
-        implements VHasDragMode, VDDHasDropHandler<VDDTabsheetDropHandler>,
-        DragStartListener, VDDTabContainer, VHasDragFilter,
-        VHasDragImageReferenceSupport, VHasIframeShims {
+public class VDDTabSheet extends VTabsheet implements VHasDragMode,
+        VDDHasDropHandler<VDDTabsheetDropHandler>, DragStartListener,
+        VDDTabContainer, VHasDragFilter, VHasDragImageReferenceSupport,
+        VHasIframeShims, VHasDragStartThreshold {
 
     public static final String CLASSNAME_NEW_TAB = "new-tab";
     public static final String CLASSNAME_NEW_TAB_LEFT = "new-tab-left";
@@ -190,7 +191,7 @@ public class VDDTabSheet extends VTabsheet
             return;
 
         if (tabBar.getElement().isOrHasChild(element)) {
-            Widget w = Util.findWidget(element, null);
+            Widget w = VDragSession.get(event).findWidget(element, null);
 
             if (w == tabBar) {
                 // Ove3r the spacer
@@ -221,12 +222,8 @@ public class VDDTabSheet extends VTabsheet
                         location);
             }
 
-            // Add mouse event details
-            MouseEventDetails details = MouseEventDetailsBuilder
-                    .buildMouseEventDetails(event.getCurrentGwtEvent(),
-                            getElement());
-            event.getDropDetails().put(Constants.DROP_DETAIL_MOUSE_EVENT,
-                    details.serialize());
+            // Add mouse event details, serialized when sent to the server
+            VDragDropUtil.updateMouseEventDetails(event, getElement());
         }
     }
 
@@ -240,7 +237,7 @@ public class VDDTabSheet extends VTabsheet
         boolean internalDrag = event.getTransferable().getDragSource() == this;
 
         if (tabBar.getElement().isOrHasChild(element)) {
-            Widget w = Util.findWidget(element, null);
+            Widget w = VDragSession.get(event).findWidget(element, null);
 
             if (w == tabBar && !internalDrag) {
                 // Over spacer
@@ -374,6 +371,16 @@ public class VDDTabSheet extends VTabsheet
         ddMouseHandler.setDragImageProvider(provider);
     }
 
+    @Override
+    public void setDragProxyMode(DragProxyMode mode) {
+        ddMouseHandler.setDragProxyMode(mode);
+    }
+
+    @Override
+    public void setDragStartThreshold(int distance, int delay) {
+        ddMouseHandler.setDragStartThreshold(distance, delay);
+    }
+
     protected final VLayoutDragDropMouseHandler getMouseHandler() {
         return ddMouseHandler;
     }
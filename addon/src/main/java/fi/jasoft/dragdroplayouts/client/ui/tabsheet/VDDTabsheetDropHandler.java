@@ -34,6 +34,7 @@ public class VDDTabsheetDropHandler
     @Override
     public boolean drop(VDragEvent drag) {
 
+        cancelDragOver();
         getLayout().deEmphasis();
 
         // Update the details
@@ -42,7 +43,7 @@ public class VDDTabsheetDropHandler
     };
 
     @Override
-    public void dragOver(VDragEvent drag) {
+    protected void dragOverFrame(VDragEvent drag) {
 
         getLayout().deEmphasis();
 
@@ -67,6 +68,7 @@ public class VDDTabsheetDropHandler
 
     @Override
     public void dragLeave(VDragEvent drag) {
+        cancelDragOver();
         getLayout().deEmphasis();
         getLayout().updateDragDetails(drag);
         getLayout().postLeaveHook(drag);
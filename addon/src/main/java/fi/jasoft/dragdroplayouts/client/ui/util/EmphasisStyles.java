@@ -0,0 +1,149 @@
+/*
+ * Copyright 2015 John Ahlroos
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package fi.jasoft.dragdroplayouts.client.ui.util;
+
+import java.util.Arrays;
+
+import com.google.gwt.dom.client.Element;
+import com.google.gwt.user.client.ui.UIObject;
+
+/**
+ * Keeps track of the emphasis style names applied to an element while
+ * dragging. The class names of the element are only changed when the
+ * emphasized element or its styles change, hovering the same location does
+ * not touch the DOM.
+ *
+ * @author John Ahlroos / www.jasoft.fi
+ * @since 1.3.0
+ */
+public class EmphasisStyles {
+
+    private static final String[] NONE = new String[0];
+
+    private Element element;
+
+    private String[] applied = NONE;
+
+    private boolean stale = false;
+
+    /**
+     * Returns the style names of drop locations, indexed by the ordinal of the
+     * location. For example "v-ddorderedlayout-over-top" for the prefix
+     * "v-ddorderedlayout-over" and {@code VerticalDropLocation.TOP}.
+     *
+     * @param prefix
+     *            The prefix of the style names
+     * @param locations
+     *            The drop locations
+     * @return The style names
+     */
+    public static String[] getLocationStyles(String prefix,
+            Enum<?>[] locations) {
+        String[] styles = new String[locations.length];
+        for (Enum<?> location : locations) {
+            styles[location.ordinal()] = prefix + "-"
+                    + location.toString().toLowerCase();
+        }
+        return styles;
+    }
+
+    /**
+     * Emphasizes an element with the given style names. Style names applied
+     * earlier but not given are removed.
+     *
+     * @param element
+     *            The element to emphasize
+     * @param styleNames
+     *            The style names the element should have
+     */
+    public void apply(Element element, String... styleNames) {
+        stale = false;
+        if (element == this.element && Arrays.equals(applied, styleNames)) {
+            return;
+        }
+
+        if (element != this.element) {
+            setStyleNames(this.element, applied, false);
+            setStyleNames(element, styleNames, true);
+        } else {
+            for (String styleName : applied) {
+                if (!contains(styleNames, styleName)) {
+                    UIObject.setStyleName(element, styleName, false);
+                }
+            }
+            for (String styleName : styleNames) {
+                if (!contains(applied, styleName)) {
+                    UIObject.setStyleName(element, styleName, true);
+                }
+            }
+        }
+
+        this.element = element;
+        applied = styleNames;
+    }
+
+    /**
+     * Removes the emphasis
+     */
+    public void clear() {
+        stale = false;
+        setStyleNames(element, applied, false);
+        element = null;
+        applied = NONE;
+    }
+
+    /**
+     * Marks the current emphasis to be removed by {@link #removeStale()}
+     * unless it is applied again before that. Used when the emphasis should
+     * only be kept if the drop location is still accepted.
+     */
+    public void markStale() {
+        stale = element != null;
+    }
+
+    /**
+     * Removes the emphasis if it has not been applied since
+     * {@link #markStale()} was called
+     */
+    public void removeStale() {
+        if (stale) {
+            clear();
+        }
+    }
+
+    /**
+     * Returns the emphasized element or null if nothing is emphasized
+     */
+    public Element getElement() {
+        return element;
+    }
+
+    private static void setStyleNames(Element element, String[] styleNames,
+            boolean add) {
+        if (element != null) {
+            for (String styleName : styleNames) {
+                UIObject.setStyleName(element, styleName, add);
+            }
+        }
+    }
+
+    private static boolean contains(String[] styleNames, String styleName) {
+        for (String s : styleNames) {
+            if (s.equals(styleName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -37,6 +37,7 @@ import com.vaadin.client.ui.dd.VDropHandler;
 import com.vaadin.client.ui.dd.VTransferable;
 
 import fi.jasoft.dragdroplayouts.client.ui.VDDAbstractDropHandler;
+import fi.jasoft.dragdroplayouts.client.ui.VDragSession;
 import fi.jasoft.dragdroplayouts.client.ui.interfaces.VDDHasDropHandler;
 
 /**
@@ -48,6 +49,8 @@ public class HTML5Support {
 
     private final List<HandlerRegistration> handlers = new ArrayList<HandlerRegistration>();
 
+    private VDDAbstractDropHandler<? extends Widget> dropHandler;
+
     public static class HTML5DragHandler
             implements DragEnterHandler, DragOverHandler, DropHandler {
 
@@ -69,7 +72,7 @@ public class HTML5Support {
 
                     VDragAndDropManager.get().setCurrentDropHandler(null);
                     VDragAndDropManager.get().interruptDrag();
-                    vaadinDragEvent = null;
+                    endDrag();
                 }
             }
 
@@ -105,7 +108,7 @@ public class HTML5Support {
                 vaadinDragEvent.getTransferable().setData("html5Data", data);
 
                 VDragAndDropManager.get().endDrag();
-                vaadinDragEvent = null;
+                endDrag();
             }
         }
 
@@ -132,6 +135,10 @@ public class HTML5Support {
                 VTransferable transferable = new VTransferable();
                 transferable.setDragSource(connector);
 
+                if (vaadinDragEvent != null) {
+                    // Entered again without a drop or a cancel
+                    VDragSession.end(vaadinDragEvent);
+                }
                 vaadinDragEvent = VDragAndDropManager.get()
                         .startDrag(transferable, event.getNativeEvent(), false);
 
@@ -149,13 +156,22 @@ public class HTML5Support {
                 vaadinDragEvent.setCurrentGwtEvent(nativeEvent);
                 VDragAndDropManager.get().setCurrentDropHandler(null);
                 VDragAndDropManager.get().interruptDrag();
-                vaadinDragEvent = null;
+                endDrag();
 
                 nativeEvent.preventDefault();
                 nativeEvent.stopPropagation();
             }
         }
 
+        /**
+         * Forgets the drag and ends its session. HTML5 drags do not end with
+         * a mouse up which would otherwise end it.
+         */
+        private void endDrag() {
+            VDragSession.end(vaadinDragEvent);
+            vaadinDragEvent = null;
+        }
+
         private boolean validate(NativeEvent event) {
             if (!Element.is(event.getEventTarget())) {
                 return false;
@@ -203,10 +219,36 @@ public class HTML5Support {
         support.handlers
                 .add(w.addDomHandler(dragHandler, DragOverEvent.getType()));
         support.handlers.add(w.addDomHandler(dragHandler, DropEvent.getType()));
+        support.dropHandler = handler;
 
         return support;
     }
 
+    /**
+     * Keeps HTML5 drops enabled for the current drop handler of a connector.
+     * The DOM handlers are only replaced when the drop handler has changed.
+     * 
+     * @param support
+     *            The currently enabled support or null if none
+     * @param connector
+     *            The connector to enable the drops for
+     * @param handler
+     *            The current drop handler of the connector or null if the
+     *            connector does not accept drops
+     * @return The support to use from now on or null if drops are disabled
+     */
+    public static final HTML5Support update(HTML5Support support,
+            ComponentConnector connector,
+            VDDAbstractDropHandler<? extends Widget> handler) {
+        if (support != null) {
+            if (support.dropHandler == handler) {
+                return support;
+            }
+            support.disable();
+        }
+        return enable(connector, handler);
+    }
+
     private HTML5Support() {
         // Factory
     }
@@ -13,23 +13,45 @@
  */
 package fi.jasoft.dragdroplayouts.client.ui.util;
 
+import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
 
 import com.google.gwt.core.client.Scheduler;
+import com.google.gwt.core.client.Scheduler.ScheduledCommand;
 import com.google.gwt.dom.client.NodeList;
 import com.google.gwt.dom.client.Style;
 import com.google.gwt.dom.client.Style.Position;
 import com.google.gwt.dom.client.Style.Unit;
 import com.google.gwt.user.client.DOM;
 import com.google.gwt.user.client.Element;
+import com.google.gwt.user.client.ui.Widget;
+import com.vaadin.client.ComponentConnector;
+import com.vaadin.client.Util;
+import com.vaadin.client.WidgetUtil;
 
+import fi.jasoft.dragdroplayouts.client.VDragFilter;
 import fi.jasoft.dragdroplayouts.client.ui.LayoutDragMode;
+import fi.jasoft.dragdroplayouts.client.ui.VDragSession;
+import fi.jasoft.dragdroplayouts.client.ui.interfaces.VHasDragFilter;
 
 /**
  * Utility class for handling Iframe components
+ * <p>
+ * Iframes swallow the mouse events while the pointer is over them. The
+ * iframes of the draggable components of layouts with shims enabled are
+ * covered for as long as the shims are enabled, so the components can be
+ * picked up. The rest of the iframes of these layouts are only covered while
+ * a drag is in progress: they are looked up when a layout starts a drag and
+ * uncovered again when the drag ends. An iframe inside nested layouts is
+ * covered once and stays covered until every layout covering it has released
+ * it.
+ * <p>
+ * Browsers supporting pointer-events let the events through the iframe
+ * without changing the DOM. Other browsers get a cover element on top of
+ * the iframe, the iframe itself is never moved since that would reload it.
  * 
  * @author John Ahlroos / www.jasoft.fi
  * @since 0.6.0
@@ -38,118 +60,159 @@ public class IframeCoverUtility {
 
     public static final String SHIM_STYLENAME = "v-dragdrop-iframe-cover";
 
-    private static Map<Element, Element> iframeCoverMap = new HashMap<Element, Element>();
-
     public static final String SHIM_ATTRIBUTE = "shims";
 
+    // The layouts with iframe covers enabled
+    private static final Set<IframeCoverUtility> enabledUtilities = new LinkedHashSet<IframeCoverUtility>();
+
+    // The covered iframes of all layouts
+    private static final Map<Element, Cover> iframeCoverMap = new HashMap<Element, Cover>();
+
+    // Is a drag in progress
+    private static boolean covering = false;
+
+    private static Boolean pointerEventsSupported;
+
+    /**
+     * The cover of an iframe and how many layouts use it
+     */
+    private static class Cover {
+
+        // Cover element or null if pointer-events are used
+        private Element element;
+
+        // Pointer-events of the iframe before it was covered
+        private String pointerEvents;
+
+        private int references;
+    }
+
     /**
-     * Adds an iframe cover over an Embedded component
+     * Adds an iframe cover over an Embedded component, or adds a reference to
+     * an existing cover
      * 
      * @param iframe
      *            The iframe element
-     * @return The element which covers the iframe
      */
-    private static Element addIframeCover(Element iframe) {
-        if (iframeCoverMap.containsKey(iframe)) {
-            return iframeCoverMap.get(iframe);
+    private static void addIframeCover(Element iframe) {
+        Cover cover = iframeCoverMap.get(iframe);
+        if (cover != null) {
+            cover.references++;
+            return;
         }
 
-        // Get dimensions
-        String iframeWidth = iframe.getAttribute("width");
-        String iframeHeight = iframe.getAttribute("height");
+        cover = new Cover();
+        cover.references = 1;
+        if (isPointerEventsSupported()) {
+            cover.pointerEvents = iframe.getStyle().getProperty(
+                    "pointerEvents");
+            iframe.getStyle().setProperty("pointerEvents", "none");
 
-        Style iframeStyle = iframe.getStyle();
+        } else {
+            // Style the cover
+            Element element = DOM.createDiv();
+            element.setClassName(SHIM_STYLENAME);
+            element.setAttribute(VDragSession.TRANSIENT_ATTRIBUTE, "");
+            Style coverStyle = element.getStyle();
+            coverStyle.setPosition(Position.ABSOLUTE);
+            coverStyle.setLeft(iframe.getOffsetLeft(), Unit.PX);
+            coverStyle.setTop(iframe.getOffsetTop(), Unit.PX);
+            coverStyle.setWidth(iframe.getOffsetWidth(), Unit.PX);
+            coverStyle.setHeight(iframe.getOffsetHeight(), Unit.PX);
 
-        if (!iframeWidth.equals("") && !iframeHeight.equals("")) {
-            iframeStyle.setPosition(Position.ABSOLUTE);
-            iframeStyle.setTop(0, Unit.PX);
-            iframeStyle.setLeft(0, Unit.PX);
+            // Same offset parent as the iframe
+            iframe.getParentElement().insertAfter(element, iframe);
+            cover.element = element;
         }
 
-        // Create the cover element
-        Element coverContainer = DOM.createDiv();
-        DOM.setStyleAttribute(coverContainer, "width", iframeWidth);
-        DOM.setStyleAttribute(coverContainer, "height", iframeHeight);
-
-        coverContainer.setClassName("v-dragdrop-iframe-container");
-        coverContainer.getStyle().setPosition(Position.RELATIVE);
-        iframe.getParentElement().appendChild(coverContainer);
-
-        // Move iframe to cover container
-        iframe.getParentElement().replaceChild(coverContainer, iframe);
-        coverContainer.appendChild(iframe);
-
-        // Style the cover
-        Element cover = DOM.createDiv();
-        cover.setClassName(SHIM_STYLENAME);
-        Style coverStyle = cover.getStyle();
-        coverStyle.setPosition(Position.ABSOLUTE);
-        coverStyle.setWidth(100, Unit.PCT);
-        coverStyle.setHeight(100, Unit.PCT);
-        coverStyle.setTop(0, Unit.PX);
-        coverStyle.setLeft(0, Unit.PX);
-
-        coverContainer.appendChild(cover);
-
-        iframeCoverMap.put(iframe, coverContainer);
-
-        return coverContainer;
+        iframeCoverMap.put(iframe, cover);
     }
 
     /**
-     * Removes a iframe cover
+     * Removes a reference to an iframe cover. The cover is removed when no
+     * references remain.
      * 
      * @param iframe
      *            The iframe element which has been covered
      */
     private static void removeIframeCover(Element iframe) {
-        Element coverContainer = iframeCoverMap.get(iframe);
-        if (coverContainer != null) {
-            Element parent = coverContainer.getParentElement().cast();
-            parent.replaceChild(iframe, coverContainer);
-            iframe.getStyle().clearPosition();
-            iframeCoverMap.remove(iframe);
+        Cover cover = iframeCoverMap.get(iframe);
+        if (cover == null || --cover.references > 0) {
+            return;
         }
+
+        if (cover.element != null) {
+            cover.element.removeFromParent();
+        } else if (cover.pointerEvents == null
+                || cover.pointerEvents.isEmpty()) {
+            iframe.getStyle().clearProperty("pointerEvents");
+        } else {
+            iframe.getStyle().setProperty("pointerEvents",
+                    cover.pointerEvents);
+        }
+        iframeCoverMap.remove(iframe);
     }
 
     /**
-     * Adds iframe covers for all child iframe elements
-     * 
-     * @param rootElement
-     *            The parent element
-     * @return A set of elements with the iframe covers
+     * Covers the iframes of all layouts with iframe covers enabled. Called
+     * when a layout starts a drag. Other drags, like HTML5 drags, are not
+     * covered since nothing reliably tells when they end.
      */
-    private static Set<Element> addIframeCovers(Element rootElement) {
-        Set<Element> coveredIframes = new HashSet<Element>();
-        NodeList<com.google.gwt.dom.client.Element> iframes = rootElement
-                .getElementsByTagName("iframe");
-        for (int i = 0; i < iframes.getLength(); i++) {
-            Element iframe = (Element) iframes.getItem(i);
-            addIframeCover(iframe);
-            coveredIframes.add(iframe);
+    public static void coverIframes() {
+        if (!covering) {
+            covering = true;
+            for (IframeCoverUtility utility : enabledUtilities) {
+                utility.cover();
+            }
         }
-        return coveredIframes;
     }
 
     /**
-     * Removes iframe covers from a set of iframes
-     * 
-     * @param iframes
-     *            The iframes to remove the covers from
+     * Removes all iframe covers. Called when a drag started by a layout
+     * ends.
      */
-    private static void removeIframeCovers(Set<Element> iframes) {
-        if (iframes != null) {
-            for (Element iframe : iframes) {
-                removeIframeCover(iframe);
+    public static void uncoverIframes() {
+        if (covering) {
+            covering = false;
+            for (IframeCoverUtility utility : new ArrayList<IframeCoverUtility>(
+                    enabledUtilities)) {
+                utility.release();
             }
         }
     }
 
-    // The covered ifream covers
-    private Set<Element> coveredIframes = new HashSet<Element>();
+    private static boolean isPointerEventsSupported() {
+        if (pointerEventsSupported == null) {
+            pointerEventsSupported = isPointerEventsSupportedNative();
+        }
+        return pointerEventsSupported;
+    }
+
+    private static native boolean isPointerEventsSupportedNative()
+    /*-{
+        var element = $doc.createElement('x');
+        element.style.cssText = 'pointer-events:auto';
+        return element.style.pointerEvents === 'auto';
+    }-*/;
+
+    // The root element of the layout
+    private Element root;
+
+    // The drag mode of the layout
+    private LayoutDragMode mode;
+
+    // The iframes this layout covers while dragging
+    private Set<Element> coveredIframes;
+
+    // The iframes of draggable components, covered while the covers are
+    // enabled
+    private Set<Element> heldIframes;
+
+    private boolean holdScheduled = false;
 
     /**
-     * Enable IFrame covers for a element
+     * Enable IFrame covers for a element. The iframes of draggable components
+     * are covered right away, the rest only while dragging.
      * 
      * @param enabled
      *            Enable/Disable Iframe covers
@@ -158,20 +221,133 @@ public class IframeCoverUtility {
      */
     public void setIframeCoversEnabled(final boolean enabled,
             final Element root, final LayoutDragMode mode) {
-        Scheduler.get().scheduleDeferred(new Scheduler.ScheduledCommand() {
+        if (enabled && mode != LayoutDragMode.NONE) {
+            if (this.root != root) {
+                release();
+                releaseHeld();
+                this.root = root;
+            }
+            this.mode = mode;
+            enabledUtilities.add(this);
+            if (covering) {
+                // Enabled in the middle of a drag
+                cover();
+            }
+            scheduleHold();
+        } else {
+            enabledUtilities.remove(this);
+            release();
+            releaseHeld();
+            this.root = null;
+            this.mode = null;
+        }
+    }
+
+    public boolean isIframeCoversEnabled() {
+        return root != null;
+    }
+
+    /**
+     * Adds iframe covers for all child iframe elements
+     */
+    private void cover() {
+        if (coveredIframes != null) {
+            return;
+        }
+        coveredIframes = new LinkedHashSet<Element>();
+        NodeList<com.google.gwt.dom.client.Element> iframes = root
+                .getElementsByTagName("iframe");
+        for (int i = 0; i < iframes.getLength(); i++) {
+            Element iframe = (Element) iframes.getItem(i);
+            addIframeCover(iframe);
+            coveredIframes.add(iframe);
+        }
+    }
+
+    /**
+     * Covers the iframes of the draggable components once the children and
+     * the drag filter of the layout have been updated
+     */
+    private void scheduleHold() {
+        if (holdScheduled) {
+            return;
+        }
+        holdScheduled = true;
+        Scheduler.get().scheduleDeferred(new ScheduledCommand() {
+
             @Override
             public void execute() {
-                if (enabled && mode != LayoutDragMode.NONE) {
-                    coveredIframes = addIframeCovers(root);
-                } else if (coveredIframes != null) {
-                    removeIframeCovers(coveredIframes);
-                    coveredIframes = null;
-                }
+                holdScheduled = false;
+                hold();
             }
         });
     }
 
-    public boolean isIframeCoversEnabled() {
-        return coveredIframes != null;
+    /**
+     * Covers the iframes of the draggable components of the layout, so a
+     * press on them reaches the layout
+     */
+    private void hold() {
+        releaseHeld();
+        if (root == null || mode == LayoutDragMode.CAPTION) {
+            // Captions are never iframes
+            return;
+        }
+        Widget layout = WidgetUtil.findWidget(root, null);
+        heldIframes = new LinkedHashSet<Element>();
+        NodeList<com.google.gwt.dom.client.Element> iframes = root
+                .getElementsByTagName("iframe");
+        for (int i = 0; i < iframes.getLength(); i++) {
+            Element iframe = (Element) iframes.getItem(i);
+            if (isInDraggableComponent(iframe, layout)) {
+                addIframeCover(iframe);
+                heldIframes.add(iframe);
+            }
+        }
+    }
+
+    /**
+     * Is the iframe inside a child component of the layout which can be
+     * dragged
+     */
+    private static boolean isInDraggableComponent(Element iframe,
+            Widget layout) {
+        ComponentConnector layoutConnector = Util.findConnectorFor(layout);
+        Widget widget = WidgetUtil.findWidget(iframe, null);
+        while (widget != null && widget != layout) {
+            ComponentConnector component = Util.findConnectorFor(widget);
+            if (component != null
+                    && component.getParent() == layoutConnector) {
+                VDragFilter filter = layout instanceof VHasDragFilter
+                        ? ((VHasDragFilter) layout).getDragFilter() : null;
+                return filter == null || filter.isDraggable(widget);
+            }
+            widget = widget.getParent();
+        }
+        return false;
+    }
+
+    /**
+     * Releases the covers of the iframes of draggable components
+     */
+    private void releaseHeld() {
+        if (heldIframes != null) {
+            for (Element iframe : heldIframes) {
+                removeIframeCover(iframe);
+            }
+            heldIframes = null;
+        }
+    }
+
+    /**
+     * Releases the covers of the iframes covered by this layout
+     */
+    private void release() {
+        if (coveredIframes != null) {
+            for (Element iframe : coveredIframes) {
+                removeIframeCover(iframe);
+            }
+            coveredIframes = null;
+        }
     }
 }
@@ -31,6 +31,10 @@ public class DDVerticalLayoutConnector extends VerticalLayoutConnector
 
     private HTML5Support html5Support;
 
+    // Reused whenever the layout accepts drops
+    private final VDDVerticalLayoutDropHandler dropHandler = new VDDVerticalLayoutDropHandler(
+            this);
+
     @Override
     public VDDVerticalLayout getWidget() {
         return (VDDVerticalLayout) super.getWidget();
@@ -48,15 +52,9 @@ public class DDVerticalLayoutConnector extends VerticalLayoutConnector
     }
 
     public void updateFromUIDL(UIDL uidl, ApplicationConnection client) {
-        VDragDropUtil.updateDropHandlerFromUIDL(uidl, this, new VDDVerticalLayoutDropHandler(this));
-        if (html5Support != null) {
-            html5Support.disable();
-            html5Support = null;
-        }
-        VDDVerticalLayoutDropHandler dropHandler = getWidget().getDropHandler();
-        if (dropHandler != null) {
-            html5Support = HTML5Support.enable(this, dropHandler);
-        }
+        VDragDropUtil.updateDropHandlerFromUIDL(uidl, this, dropHandler);
+        html5Support = HTML5Support.update(html5Support, this,
+                getWidget().getDropHandler());
     }
 
     @Override
@@ -13,21 +13,19 @@
  */
 package fi.jasoft.dragdroplayouts.client.ui.verticallayout;
 
-import com.google.gwt.user.client.ui.UIObject;
 import com.google.gwt.user.client.ui.Widget;
 import com.google.gwt.user.client.ui.WidgetCollection;
 import com.vaadin.client.ComponentConnector;
-import com.vaadin.client.MouseEventDetailsBuilder;
 import com.vaadin.client.Util;
 import com.vaadin.client.ui.VVerticalLayout;
 import com.vaadin.client.ui.dd.VDragEvent;
 import com.vaadin.client.ui.orderedlayout.Slot;
-import com.vaadin.shared.MouseEventDetails;
 import com.vaadin.shared.ui.dd.VerticalDropLocation;
 
 import fi.jasoft.dragdroplayouts.DDVerticalLayout;
 import fi.jasoft.dragdroplayouts.client.VDragFilter;
 import fi.jasoft.dragdroplayouts.client.ui.Constants;
+import fi.jasoft.dragdroplayouts.client.ui.DragProxyMode;
 import fi.jasoft.dragdroplayouts.client.ui.LayoutDragMode;
 import fi.jasoft.dragdroplayouts.client.ui.VDragDropUtil;
 import fi.jasoft.dragdroplayouts.client.ui.VLayoutDragDropMouseHandler;
@@ -37,7 +35,9 @@ import fi.jasoft.dragdroplayouts.client.ui.interfaces.VDragImageProvider;
 import fi.jasoft.dragdroplayouts.client.ui.interfaces.VHasDragFilter;
 import fi.jasoft.dragdroplayouts.client.ui.interfaces.VHasDragImageReferenceSupport;
 import fi.jasoft.dragdroplayouts.client.ui.interfaces.VHasDragMode;
+import fi.jasoft.dragdroplayouts.client.ui.interfaces.VHasDragStartThreshold;
 import fi.jasoft.dragdroplayouts.client.ui.interfaces.VHasIframeShims;
+import fi.jasoft.dragdroplayouts.client.ui.util.EmphasisStyles;
 import fi.jasoft.dragdroplayouts.client.ui.util.IframeCoverUtility;
 
 /**
@@ -48,7 +48,8 @@ import fi.jasoft.dragdroplayouts.client.ui.util.IframeCoverUtility;
  */
 public class VDDVerticalLayout extends VVerticalLayout implements VHasDragMode,
         VDDHasDropHandler<VDDVerticalLayoutDropHandler>, DragStartListener,
-        VHasDragFilter, VHasIframeShims, VHasDragImageReferenceSupport {
+        VHasDragFilter, VHasIframeShims, VHasDragImageReferenceSupport,
+        VHasDragStartThreshold {
 
     private Widget currentlyEmphasised;
 
@@ -56,6 +57,12 @@ public class VDDVerticalLayout extends VVerticalLayout implements VHasDragMode,
 
     public static final String OVER_SPACED = OVER + "-spaced";
 
+    // Over styles of the drop locations, indexed by ordinal
+    private static final String[] OVER_LOCATIONS = EmphasisStyles
+            .getLocationStyles(OVER, VerticalDropLocation.values());
+
+    private final EmphasisStyles emphasisStyles = new EmphasisStyles();
+
     private VDDVerticalLayoutDropHandler dropHandler;
 
     private VDragFilter dragFilter;
@@ -97,27 +104,15 @@ public class VDDVerticalLayout extends VVerticalLayout implements VHasDragMode,
      * Removes any applies drag and drop style applied by emphasis()
      */
     protected void deEmphasis() {
-        if (currentlyEmphasised != null) {
-            // Universal over style
-            UIObject.setStyleName(currentlyEmphasised.getElement(), OVER,
-                    false);
-            UIObject.setStyleName(currentlyEmphasised.getElement(), OVER_SPACED,
-                    false);
-
-            // Vertical styles
-            UIObject.setStyleName(currentlyEmphasised.getElement(),
-                    OVER + "-"
-                            + VerticalDropLocation.TOP.toString().toLowerCase(),
-                    false);
-            UIObject.setStyleName(currentlyEmphasised.getElement(), OVER + "-"
-                    + VerticalDropLocation.MIDDLE.toString().toLowerCase(),
-                    false);
-            UIObject.setStyleName(currentlyEmphasised.getElement(), OVER + "-"
-                    + VerticalDropLocation.BOTTOM.toString().toLowerCase(),
-                    false);
-
-            currentlyEmphasised = null;
-        }
+        emphasisStyles.clear();
+        currentlyEmphasised = null;
+    }
+
+    /**
+     * Returns the emphasis styles currently applied while dragging
+     */
+    EmphasisStyles getEmphasisStyles() {
+        return emphasisStyles;
     }
 
     /**
@@ -171,12 +166,8 @@ public class VDDVerticalLayout extends VVerticalLayout implements VHasDragMode,
 
         event.getDropDetails().put(Constants.DROP_DETAIL_TO, index);
 
-        // Add mouse event details
-        MouseEventDetails details = MouseEventDetailsBuilder
-                .buildMouseEventDetails(event.getCurrentGwtEvent(),
-                        getElement());
-        event.getDropDetails().put(Constants.DROP_DETAIL_MOUSE_EVENT,
-                details.serialize());
+        // Add mouse event details, serialized when sent to the server
+        VDragDropUtil.updateMouseEventDetails(event, getElement());
     }
 
     /**
@@ -191,12 +182,11 @@ public class VDDVerticalLayout extends VVerticalLayout implements VHasDragMode,
      */
     protected void emphasis(Widget container, VDragEvent event) {
 
-        // Remove emphasis from previous hovers
-        deEmphasis();
-
         // validate container
         if (container == null
                 || !getElement().isOrHasChild(container.getElement())) {
+            // Remove emphasis from previous hovers
+            deEmphasis();
             return;
         }
 
@@ -212,9 +202,9 @@ public class VDDVerticalLayout extends VVerticalLayout implements VHasDragMode,
             location = VerticalDropLocation.MIDDLE;
         }
 
-        UIObject.setStyleName(currentlyEmphasised.getElement(), OVER, true);
-        UIObject.setStyleName(currentlyEmphasised.getElement(),
-                OVER + "-" + location.toString().toLowerCase(), true);
+        // Only changes the class names if the emphasis changed
+        emphasisStyles.apply(currentlyEmphasised.getElement(), OVER,
+                OVER_LOCATIONS[location.ordinal()]);
     }
 
     /**
@@ -329,6 +319,16 @@ public class VDDVerticalLayout extends VVerticalLayout implements VHasDragMode,
         ddMouseHandler.setDragImageProvider(provider);
     }
 
+    @Override
+    public void setDragProxyMode(DragProxyMode mode) {
+        ddMouseHandler.setDragProxyMode(mode);
+    }
+
+    @Override
+    public void setDragStartThreshold(int distance, int delay) {
+        ddMouseHandler.setDragStartThreshold(distance, delay);
+    }
+
     protected final VLayoutDragDropMouseHandler getMouseHandler() {
         return ddMouseHandler;
     }
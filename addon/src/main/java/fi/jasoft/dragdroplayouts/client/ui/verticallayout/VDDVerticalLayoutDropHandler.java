@@ -41,12 +41,15 @@ public class VDDVerticalLayoutDropHandler
     @Override
     public boolean drop(VDragEvent drag) {
 
+        cancelDragOver();
+
         // Un-emphasis any selections
         getLayout().emphasis(null, null);
 
         // Update the details
-        Widget slot = getSlot(drag.getElementOver(), drag.getCurrentGwtEvent());
+        Widget slot = getSlot(drag);
         getLayout().updateDragDetails(slot, drag);
+        invalidateSlotGeometry();
 
         return getLayout().postDropHook(drag) && super.drop(drag);
     };
@@ -77,13 +80,13 @@ public class VDDVerticalLayoutDropHandler
     }
 
     @Override
-    public void dragOver(VDragEvent drag) {
+    protected void dragOverFrame(VDragEvent drag) {
 
-        // Remove any emphasis
-        getLayout().emphasis(null, null);
+        // Keep the emphasis while the location is still accepted
+        getLayout().getEmphasisStyles().markStale();
 
         // Update the dropdetails so we can validate the drop
-        Slot slot = getSlot(drag.getElementOver(), drag.getCurrentGwtEvent());
+        Slot slot = getSlot(drag);
 
         if (slot != null) {
             getLayout().updateDragDetails(slot, drag);
@@ -96,8 +99,7 @@ public class VDDVerticalLayoutDropHandler
         // Validate the drop
         validate(new VAcceptCallback() {
             public void accepted(VDragEvent event) {
-                Slot slot = getSlot(event.getElementOver(),
-                        event.getCurrentGwtEvent());
+                Slot slot = getSlot(event);
                 if (slot != null) {
                     getLayout().emphasis(slot, event);
                 } else {
@@ -105,12 +107,15 @@ public class VDDVerticalLayoutDropHandler
                 }
             }
         }, drag);
+
+        // Remove the emphasis if the location was not accepted
+        getLayout().getEmphasisStyles().removeStale();
     }
 
     @Override
     public void dragEnter(VDragEvent drag) {
         super.dragEnter(drag);
-        Slot slot = getSlot(drag.getElementOver(), drag.getCurrentGwtEvent());
+        Slot slot = getSlot(drag);
         if (slot != null) {
             getLayout().updateDragDetails(slot, drag);
         } else {
@@ -121,6 +126,8 @@ public class VDDVerticalLayoutDropHandler
 
     @Override
     public void dragLeave(VDragEvent drag) {
+        cancelDragOver();
+        invalidateSlotGeometry();
         getLayout().emphasis(null, drag);
 
         getLayout().postLeaveHook(drag);
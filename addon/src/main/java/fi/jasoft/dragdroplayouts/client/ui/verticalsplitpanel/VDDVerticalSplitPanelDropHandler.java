@@ -17,8 +17,8 @@ import com.vaadin.client.ComponentConnector;
 import com.vaadin.client.ui.dd.VAcceptCallback;
 import com.vaadin.client.ui.dd.VDragEvent;
 
-import fi.jasoft.dragdroplayouts.client.ui.Constants;
 import fi.jasoft.dragdroplayouts.client.ui.VDDAbstractDropHandler;
+import fi.jasoft.dragdroplayouts.client.ui.VDragSession;
 
 public class VDDVerticalSplitPanelDropHandler
         extends VDDAbstractDropHandler<VDDVerticalSplitPanel> {
@@ -36,6 +36,8 @@ public class VDDVerticalSplitPanelDropHandler
     @Override
     public boolean drop(VDragEvent drag) {
 
+        cancelDragOver();
+
         // Un-emphasis any selections
         getLayout().deEmphasis();
 
@@ -45,7 +47,7 @@ public class VDDVerticalSplitPanelDropHandler
     };
 
     @Override
-    public void dragOver(VDragEvent drag) {
+    protected void dragOverFrame(VDragEvent drag) {
 
         getLayout().deEmphasis();
 
@@ -53,9 +55,8 @@ public class VDDVerticalSplitPanelDropHandler
 
         getLayout().postOverHook(drag);
 
-        ComponentConnector widgetConnector = (ComponentConnector) drag
-                .getTransferable()
-                .getData(Constants.TRANSFERABLE_DETAIL_COMPONENT);
+        ComponentConnector widgetConnector = VDragSession.get(drag)
+                .getDraggedConnector();
 
         if (widgetConnector != null
                 && getLayout().equals(widgetConnector.getWidget())) {
@@ -80,6 +81,7 @@ public class VDDVerticalSplitPanelDropHandler
 
     @Override
     public void dragLeave(VDragEvent drag) {
+        cancelDragOver();
         getLayout().deEmphasis();
         getLayout().postLeaveHook(drag);
     }
@@ -15,23 +15,42 @@ package fi.jasoft.dragdroplayouts.details;
 
 import java.util.Map;
 
-import com.vaadin.event.dd.TargetDetailsImpl;
-import com.vaadin.shared.MouseEventDetails;
-
 import fi.jasoft.dragdroplayouts.DDAbsoluteLayout;
 import fi.jasoft.dragdroplayouts.client.ui.Constants;
 
-public class AbsoluteLayoutTargetDetails extends TargetDetailsImpl {
+public class AbsoluteLayoutTargetDetails extends AbstractLayoutTargetDetails {
+
+    private final int absoluteLeft;
+
+    private final int absoluteTop;
+
+    private final int relativeLeft;
+
+    private final int relativeTop;
+
+    private final int componentHeight;
+
+    private final int componentWidth;
 
     /**
      * Constructor
      * 
      * @param rawDropData
      *            Drop data
+     * @throws IllegalArgumentException
+     *             if a coordinate or the component size is missing
      */
     public AbsoluteLayoutTargetDetails(DDAbsoluteLayout layout,
             Map<String, Object> rawDropData) {
         super(rawDropData, layout);
+        absoluteLeft = getRequiredIntData(Constants.DROP_DETAIL_ABSOLUTE_LEFT);
+        absoluteTop = getRequiredIntData(Constants.DROP_DETAIL_ABSOLUTE_TOP);
+        relativeLeft = getRequiredIntData(Constants.DROP_DETAIL_RELATIVE_LEFT);
+        relativeTop = getRequiredIntData(Constants.DROP_DETAIL_RELATIVE_TOP);
+        componentHeight = getRequiredIntData(
+                Constants.DROP_DETAIL_COMPONENT_HEIGHT);
+        componentWidth = getRequiredIntData(
+                Constants.DROP_DETAIL_COMPONENT_WIDTH);
     }
 
     /**
@@ -41,8 +60,7 @@ public class AbsoluteLayoutTargetDetails extends TargetDetailsImpl {
      * @return The amount of pixels from the left edge
      */
     public int getAbsoluteLeft() {
-        return Integer.valueOf(
-                getData(Constants.DROP_DETAIL_ABSOLUTE_LEFT).toString());
+        return absoluteLeft;
     }
 
     /**
@@ -51,8 +69,7 @@ public class AbsoluteLayoutTargetDetails extends TargetDetailsImpl {
      * @return The amount of pixels from the top edge
      */
     public int getAbsoluteTop() {
-        return Integer.valueOf(
-                getData(Constants.DROP_DETAIL_ABSOLUTE_TOP).toString());
+        return absoluteTop;
     }
 
     /**
@@ -62,8 +79,7 @@ public class AbsoluteLayoutTargetDetails extends TargetDetailsImpl {
      * @return The amount of pixels from the left edge
      */
     public int getRelativeLeft() {
-        return Integer.valueOf(
-                getData(Constants.DROP_DETAIL_RELATIVE_LEFT).toString());
+        return relativeLeft;
     }
 
     /**
@@ -73,8 +89,7 @@ public class AbsoluteLayoutTargetDetails extends TargetDetailsImpl {
      * @return The amount of pixels from the top edge
      */
     public int getRelativeTop() {
-        return Integer.valueOf(
-                getData(Constants.DROP_DETAIL_RELATIVE_TOP).toString());
+        return relativeTop;
     }
 
     /**
@@ -83,8 +98,7 @@ public class AbsoluteLayoutTargetDetails extends TargetDetailsImpl {
      * @return The width in pixels
      */
     public int getComponentHeight() {
-        return Integer.valueOf(
-                getData(Constants.DROP_DETAIL_COMPONENT_HEIGHT).toString());
+        return componentHeight;
     }
 
     /**
@@ -93,18 +107,6 @@ public class AbsoluteLayoutTargetDetails extends TargetDetailsImpl {
      * @return The height in pixels
      */
     public int getComponentWidth() {
-        return Integer.valueOf(
-                getData(Constants.DROP_DETAIL_COMPONENT_WIDTH).toString());
-    }
-
-    /**
-     * Some details about the mouse event
-     * 
-     * @return details about the actual event that caused the event details.
-     *         Practically mouse move or mouse up.
-     */
-    public MouseEventDetails getMouseEvent() {
-        return MouseEventDetails.deSerialize(
-                (String) getData(Constants.DROP_DETAIL_MOUSE_EVENT));
+        return componentWidth;
     }
 }
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2015 John Ahlroos
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package fi.jasoft.dragdroplayouts.details;
+
+import java.util.Map;
+
+import com.vaadin.event.dd.DropTarget;
+import com.vaadin.event.dd.TargetDetailsImpl;
+import com.vaadin.shared.MouseEventDetails;
+
+import fi.jasoft.dragdroplayouts.DDUtil;
+import fi.jasoft.dragdroplayouts.client.ui.Constants;
+
+/**
+ * Base class for the target details of the drag and drop layouts.
+ * <p>
+ * The mouse event is deserialized the first time it is requested and then
+ * reused, so drop handlers and accept criteria can call the getters as many
+ * times as they need.
+ *
+ * @author John Ahlroos / www.jasoft.fi
+ * @since 1.3.0
+ */
+@SuppressWarnings("serial")
+public abstract class AbstractLayoutTargetDetails extends TargetDetailsImpl {
+
+    private MouseEventDetails mouseEvent;
+
+    /**
+     * Constructor
+     *
+     * @param rawDropData
+     *            Drop data
+     * @param dropTarget
+     *            The layout the drop was made on
+     */
+    protected AbstractLayoutTargetDetails(Map<String, Object> rawDropData,
+            DropTarget dropTarget) {
+        super(rawDropData, dropTarget);
+    }
+
+    /**
+     * Some details about the mouse event
+     *
+     * @return details about the actual event that caused the event details.
+     *         Practically mouse move or mouse up.
+     */
+    public MouseEventDetails getMouseEvent() {
+        if (mouseEvent == null) {
+            Object data = getData(Constants.DROP_DETAIL_MOUSE_EVENT);
+            if (data != null) {
+                mouseEvent = MouseEventDetails.deSerialize(data.toString());
+            }
+        }
+        return mouseEvent;
+    }
+
+    /**
+     * Returns an integer detail sent by the client
+     *
+     * @param key
+     *            The key of the detail
+     * @param defaultValue
+     *            The value to return if the client did not send the detail
+     * @return The value of the detail
+     */
+    protected int getIntData(String key, int defaultValue) {
+        return DDUtil.toInt(getData(key), defaultValue);
+    }
+
+    /**
+     * Returns an integer detail the client always sends
+     *
+     * @param key
+     *            The key of the detail
+     * @return The value of the detail
+     * @throws IllegalArgumentException
+     *             if the client did not send the detail
+     */
+    protected int getRequiredIntData(String key) {
+        Object data = getData(key);
+        if (data == null) {
+            throw new IllegalArgumentException(
+                    "Drop detail " + key + " is missing");
+        }
+        return DDUtil.toInt(data, 0);
+    }
+}
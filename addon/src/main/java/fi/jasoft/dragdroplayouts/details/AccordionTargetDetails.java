@@ -16,14 +16,13 @@ package fi.jasoft.dragdroplayouts.details;
 import java.util.Iterator;
 import java.util.Map;
 
-import com.vaadin.event.dd.TargetDetailsImpl;
-import com.vaadin.shared.MouseEventDetails;
 import com.vaadin.shared.ui.dd.VerticalDropLocation;
 import com.vaadin.ui.Component;
 
 import fi.jasoft.dragdroplayouts.DDAccordion;
+import fi.jasoft.dragdroplayouts.client.ui.Constants;
 
-public class AccordionTargetDetails extends TargetDetailsImpl {
+public class AccordionTargetDetails extends AbstractLayoutTargetDetails {
 
     private Component over;
 
@@ -35,9 +34,8 @@ public class AccordionTargetDetails extends TargetDetailsImpl {
 
         // Get over which component (if any) the drop was made and the
         // index of it
-        Object to = rawDropData.get("to");
-        if (to != null) {
-            index = Integer.valueOf(to.toString());
+        if (getData(Constants.DROP_DETAIL_TO) != null) {
+            index = getIntData(Constants.DROP_DETAIL_TO, -1);
 
             if (index < accordion.getComponentCount()) {
                 Iterator<Component> iter = accordion.getComponentIterator();
@@ -76,16 +74,6 @@ public class AccordionTargetDetails extends TargetDetailsImpl {
         return index;
     }
 
-    /**
-     * Some details about the mouse event
-     * 
-     * @return details about the actual event that caused the event details.
-     *         Practically mouse move or mouse up.
-     */
-    public MouseEventDetails getMouseEvent() {
-        return MouseEventDetails.deSerialize((String) getData("mouseEvent"));
-    }
-
     /**
      * Get the horizontal position of the dropped component within the
      * underlying cell.
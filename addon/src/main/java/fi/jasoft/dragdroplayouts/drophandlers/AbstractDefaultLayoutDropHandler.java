@@ -13,6 +13,10 @@
  */
 package fi.jasoft.dragdroplayouts.drophandlers;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
 import com.vaadin.event.dd.DragAndDropEvent;
 import com.vaadin.event.dd.DropHandler;
 import com.vaadin.event.dd.DropTarget;
@@ -28,7 +32,9 @@ import com.vaadin.ui.Label;
 
 import fi.jasoft.dragdroplayouts.DDAbsoluteLayout;
 import fi.jasoft.dragdroplayouts.client.ui.Constants;
+import fi.jasoft.dragdroplayouts.details.AbstractLayoutTargetDetails;
 import fi.jasoft.dragdroplayouts.events.LayoutBoundTransferable;
+import fi.jasoft.dragdroplayouts.interfaces.DropInterceptor;
 
 /**
  * Abstract class for layout drop handlers
@@ -39,6 +45,14 @@ import fi.jasoft.dragdroplayouts.events.LayoutBoundTransferable;
 @SuppressWarnings("serial")
 public abstract class AbstractDefaultLayoutDropHandler implements DropHandler {
 
+    // Interceptors of all default drop handlers loaded by the same class
+    // loader, shared by all applications of the server which do not bundle
+    // their own copy of the add-on
+    private static final List<DropInterceptor> globalInterceptors = new CopyOnWriteArrayList<DropInterceptor>();
+
+    // Interceptors of this drop handler
+    private final List<DropInterceptor> interceptors = new CopyOnWriteArrayList<DropInterceptor>();
+
     protected abstract void handleComponentReordering(DragAndDropEvent event);
 
     protected abstract void handleDropFromLayout(DragAndDropEvent event);
@@ -66,8 +80,13 @@ public abstract class AbstractDefaultLayoutDropHandler implements DropHandler {
                 .getTransferable();
         TargetDetails details = event.getTargetDetails();
         MouseEventDetails mouseDown = transferable.getMouseDownEvent();
-        MouseEventDetails mouseUp = MouseEventDetails.deSerialize(
-                (String) details.getData(Constants.DROP_DETAIL_MOUSE_EVENT));
+        MouseEventDetails mouseUp;
+        if (details instanceof AbstractLayoutTargetDetails) {
+            mouseUp = ((AbstractLayoutTargetDetails) details).getMouseEvent();
+        } else {
+            mouseUp = MouseEventDetails.deSerialize((String) details
+                    .getData(Constants.DROP_DETAIL_MOUSE_EVENT));
+        }
         int movex = mouseUp.getClientX() - mouseDown.getClientX();
         int movey = mouseUp.getClientY() - mouseDown.getClientY();
         Component comp = transferable.getComponent();
@@ -97,27 +116,187 @@ public abstract class AbstractDefaultLayoutDropHandler implements DropHandler {
     }
 
     public void drop(DragAndDropEvent event) {
+        DropInfo.Kind kind = getDropKind(event);
+        if (kind == null) {
+            return;
+        }
+
+        List<DropInterceptor> interceptors = getDropInterceptors();
+        if (interceptors.isEmpty()) {
+            applyDrop(event, kind);
+            return;
+        }
+
+        DropInfo drop = new DropInfo(event, kind, getTargetLayoutType());
+        long start = System.nanoTime();
+        for (DropInterceptor interceptor : interceptors) {
+            if (!interceptor.beforeDrop(drop)) {
+                drop.setRejected(true);
+                break;
+            }
+        }
+        long validated = System.nanoTime();
+        drop.setValidateNanos(validated - start);
+
+        try {
+            if (!drop.isRejected()) {
+                try {
+                    applyDrop(event, kind);
+                } catch (RuntimeException e) {
+                    drop.setFailure(e);
+                    throw e;
+                } catch (Error e) {
+                    drop.setFailure(e);
+                    throw e;
+                } finally {
+                    drop.setApplyNanos(System.nanoTime() - validated);
+                }
+            }
+        } finally {
+            // Failed drops are reported as well
+            notifyAfterDrop(interceptors, drop);
+        }
+    }
+
+    /**
+     * Notifies the interceptors after a drop, in the reverse order they were
+     * asked before it. An exception thrown by an interceptor does not keep
+     * the rest from being notified. If the drop failed the exceptions are
+     * added to the failure, otherwise the first one is thrown once all
+     * interceptors have been notified.
+     */
+    private static void notifyAfterDrop(List<DropInterceptor> interceptors,
+            DropInfo drop) {
+        RuntimeException error = null;
+        long start = System.nanoTime();
+        for (int i = interceptors.size() - 1; i >= 0; i--) {
+            try {
+                interceptors.get(i).afterDrop(drop);
+            } catch (RuntimeException e) {
+                if (drop.getFailure() != null) {
+                    drop.getFailure().addSuppressed(e);
+                } else if (error == null) {
+                    error = e;
+                } else {
+                    error.addSuppressed(e);
+                }
+            }
+            drop.setCommitNanos(System.nanoTime() - start);
+        }
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    /**
+     * Resolves what kind of drop the event is
+     * 
+     * @param event
+     *            The drag and drop event
+     * @return The kind of the drop or null if the drop should be ignored
+     */
+    protected DropInfo.Kind getDropKind(DragAndDropEvent event) {
         // Get information about the drop
         TargetDetails details = event.getTargetDetails();
         DropTarget layout = details.getTarget();
         Component source = event.getTransferable().getSourceComponent();
 
         if (event.getTransferable().getData("html5Data") != null) {
-            handleHTML5Drop(event);
+            return DropInfo.Kind.HTML5;
         } else if (layout == source) {
-            handleComponentReordering(event);
+            return DropInfo.Kind.REORDER;
         } else if (event.getTransferable() instanceof LayoutBoundTransferable) {
             LayoutBoundTransferable transferable = (LayoutBoundTransferable) event
                     .getTransferable();
             Component comp = transferable.getComponent();
             if (comp == layout) {
                 if (comp.getParent() instanceof DDAbsoluteLayout) {
-                    handleDropFromAbsoluteParentLayout(event);
+                    return DropInfo.Kind.FROM_ABSOLUTE_PARENT;
                 }
             } else {
-                handleDropFromLayout(event);
+                return DropInfo.Kind.FROM_LAYOUT;
             }
         }
+        return null;
+    }
+
+    private void applyDrop(DragAndDropEvent event, DropInfo.Kind kind) {
+        switch (kind) {
+        case HTML5:
+            handleHTML5Drop(event);
+            break;
+        case REORDER:
+            handleComponentReordering(event);
+            break;
+        case FROM_LAYOUT:
+            handleDropFromLayout(event);
+            break;
+        case FROM_ABSOLUTE_PARENT:
+            handleDropFromAbsoluteParentLayout(event);
+            break;
+        }
+    }
+
+    /**
+     * Adds an interceptor for the drops of this drop handler
+     * 
+     * @param interceptor
+     *            The interceptor to add
+     */
+    public void addDropInterceptor(DropInterceptor interceptor) {
+        interceptors.add(interceptor);
+    }
+
+    /**
+     * Removes an interceptor added with
+     * {@link #addDropInterceptor(DropInterceptor)}
+     * 
+     * @param interceptor
+     *            The interceptor to remove
+     */
+    public void removeDropInterceptor(DropInterceptor interceptor) {
+        interceptors.remove(interceptor);
+    }
+
+    /**
+     * Adds an interceptor for the drops of all default drop handlers. Global
+     * interceptors are asked before the interceptors of the drop handler and
+     * notified after them once the drop has been handled.
+     * <p>
+     * The global interceptors are static, they are shared by everything
+     * loaded by the class loader of the add-on. If the add-on is installed
+     * as a shared library of the server, the interceptor will see the drops
+     * of all applications deployed on it. Remove the interceptor with
+     * {@link #removeGlobalDropInterceptor(DropInterceptor)} when the
+     * application is undeployed.
+     * 
+     * @param interceptor
+     *            The interceptor to add
+     */
+    public static void addGlobalDropInterceptor(DropInterceptor interceptor) {
+        globalInterceptors.add(interceptor);
+    }
+
+    /**
+     * Removes an interceptor added with
+     * {@link #addGlobalDropInterceptor(DropInterceptor)}
+     * 
+     * @param interceptor
+     *            The interceptor to remove
+     */
+    public static void removeGlobalDropInterceptor(
+            DropInterceptor interceptor) {
+        globalInterceptors.remove(interceptor);
+    }
+
+    private List<DropInterceptor> getDropInterceptors() {
+        if (interceptors.isEmpty()) {
+            return globalInterceptors;
+        }
+        List<DropInterceptor> all = new ArrayList<DropInterceptor>(
+                globalInterceptors);
+        all.addAll(interceptors);
+        return all;
     }
 
     /*
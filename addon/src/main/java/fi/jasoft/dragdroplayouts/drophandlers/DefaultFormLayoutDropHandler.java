@@ -84,8 +84,7 @@ public class DefaultFormLayoutDropHandler
             return;
         }
 
-        // Detach
-        layout.removeComponent(comp);
+        // Index after the component has been taken out of its old position
         if (idx > 0 && idx > oldIdx) {
             idx--;
         }
@@ -98,12 +97,11 @@ public class DefaultFormLayoutDropHandler
             idx++;
         }
 
-        // Add component
-        if (idx >= 0) {
-            layout.addComponent(comp, idx);
-        } else {
-            layout.addComponent(comp);
+        // Move component without detaching it
+        if (idx < 0) {
+            idx = layout.getComponentCount() - 1;
         }
+        layout.moveComponent(comp, idx);
 
         // Add component alignment if given
         if (dropAlignment != null) {
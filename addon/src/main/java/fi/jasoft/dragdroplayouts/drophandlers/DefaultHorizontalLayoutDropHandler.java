@@ -22,6 +22,7 @@ import com.vaadin.ui.ComponentContainer;
 import com.vaadin.ui.HorizontalLayout;
 import com.vaadin.ui.SingleComponentContainer;
 
+import fi.jasoft.dragdroplayouts.DDHorizontalLayout;
 import fi.jasoft.dragdroplayouts.DDHorizontalLayout.HorizontalLayoutTargetDetails;
 import fi.jasoft.dragdroplayouts.events.LayoutBoundTransferable;
 
@@ -78,10 +79,7 @@ public class DefaultHorizontalLayoutDropHandler
             return;
         }
 
-        // Detach
-        layout.removeComponent(comp);
-
-        // Account for detachment if new index is bigger then old index
+        // Account for the move if new index is bigger then old index
         if (idx > oldIndex) {
             idx--;
         }
@@ -94,11 +92,16 @@ public class DefaultHorizontalLayoutDropHandler
             idx++;
         }
 
-        // Add component
-        if (idx >= 0) {
-            layout.addComponent(comp, idx);
+        if (idx < 0) {
+            idx = 0;
+        }
+
+        // Move component
+        if (layout instanceof DDHorizontalLayout) {
+            ((DDHorizontalLayout) layout).moveComponent(comp, idx);
         } else {
-            layout.addComponent(comp, 0);
+            layout.removeComponent(comp);
+            layout.addComponent(comp, idx);
         }
 
         // Add component alignment if given
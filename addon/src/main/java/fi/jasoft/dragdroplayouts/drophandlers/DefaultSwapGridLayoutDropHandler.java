@@ -14,6 +14,11 @@ import com.vaadin.ui.GridLayout;
 import java.util.ArrayList;
 
 /**
+ * Swaps components wrapped in {@link SwapDragAndDropWrapper}s in a grid
+ * layout. This is not one of the default layout drop handlers, its drops are
+ * not passed to
+ * {@link fi.jasoft.dragdroplayouts.interfaces.DropInterceptor}s.
+ *
  * @author  Dorian Messina.
  */
 public class DefaultSwapGridLayoutDropHandler implements DropHandler {
@@ -22,6 +22,7 @@ import com.vaadin.ui.ComponentContainer;
 import com.vaadin.ui.SingleComponentContainer;
 import com.vaadin.ui.VerticalLayout;
 
+import fi.jasoft.dragdroplayouts.DDVerticalLayout;
 import fi.jasoft.dragdroplayouts.DDVerticalLayout.VerticalLayoutTargetDetails;
 import fi.jasoft.dragdroplayouts.events.LayoutBoundTransferable;
 
@@ -78,10 +79,7 @@ public class DefaultVerticalLayoutDropHandler
             return;
         }
 
-        // Detach
-        layout.removeComponent(comp);
-
-        // Account for detachment if new index is bigger then old index
+        // Account for the move if new index is bigger then old index
         if (idx > oldIndex) {
             idx--;
         }
@@ -94,11 +92,16 @@ public class DefaultVerticalLayoutDropHandler
             idx++;
         }
 
-        // Add component
-        if (idx >= 0) {
-            layout.addComponent(comp, idx);
+        if (idx < 0) {
+            idx = layout.getComponentCount() - 1;
+        }
+
+        // Move component
+        if (layout instanceof DDVerticalLayout) {
+            ((DDVerticalLayout) layout).moveComponent(comp, idx);
         } else {
-            layout.addComponent(comp);
+            layout.removeComponent(comp);
+            layout.addComponent(comp, idx);
         }
 
         // Add component alignment if given
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2015 John Ahlroos
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package fi.jasoft.dragdroplayouts.drophandlers;
+
+import java.io.Serializable;
+
+import com.vaadin.event.dd.DragAndDropEvent;
+import com.vaadin.ui.HasComponents;
+
+import fi.jasoft.dragdroplayouts.interfaces.DropInterceptor;
+
+/**
+ * Describes a drop handled by one of the default drop handlers. Passed to
+ * {@link DropInterceptor}s before and after the drop is applied.
+ * 
+ * @author John Ahlroos / www.jasoft.fi
+ * @since 1.3.0
+ */
+@SuppressWarnings("serial")
+public class DropInfo implements Serializable {
+
+    /**
+     * The kinds of drops the default drop handlers handle
+     */
+    public enum Kind {
+
+        /**
+         * Data dropped from outside the browser window
+         */
+        HTML5,
+
+        /**
+         * A component moved within the layout
+         */
+        REORDER,
+
+        /**
+         * A component moved from another layout
+         */
+        FROM_LAYOUT,
+
+        /**
+         * A component dropped on itself inside an absolute layout, moving it
+         * within the absolute layout
+         */
+        FROM_ABSOLUTE_PARENT
+    }
+
+    private final DragAndDropEvent event;
+
+    private final Kind kind;
+
+    private final Class<? extends HasComponents> layoutType;
+
+    private boolean rejected = false;
+
+    private long validateNanos;
+
+    private long applyNanos;
+
+    private long commitNanos;
+
+    private Throwable failure;
+
+    /**
+     * Constructor
+     * 
+     * @param event
+     *            The drag and drop event of the drop
+     * @param kind
+     *            The kind of the drop
+     * @param layoutType
+     *            The layout type the drop handler handles drops for
+     */
+    public DropInfo(DragAndDropEvent event, Kind kind,
+            Class<? extends HasComponents> layoutType) {
+        this.event = event;
+        this.kind = kind;
+        this.layoutType = layoutType;
+    }
+
+    /**
+     * @return the drag and drop event of the drop
+     */
+    public DragAndDropEvent getEvent() {
+        return event;
+    }
+
+    /**
+     * @return the kind of the drop
+     */
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * @return the layout type the drop handler handles drops for
+     */
+    public Class<? extends HasComponents> getLayoutType() {
+        return layoutType;
+    }
+
+    /**
+     * Was the drop rejected by an interceptor, in which case it was never
+     * applied
+     * 
+     * @return true if the drop was rejected
+     */
+    public boolean isRejected() {
+        return rejected;
+    }
+
+    void setRejected(boolean rejected) {
+        this.rejected = rejected;
+    }
+
+    /**
+     * The time spent validating the drop in the interceptors
+     * 
+     * @return the time in nanoseconds
+     */
+    public long getValidateNanos() {
+        return validateNanos;
+    }
+
+    void setValidateNanos(long validateNanos) {
+        this.validateNanos = validateNanos;
+    }
+
+    /**
+     * The time spent applying the drop to the layout. Zero if the drop was
+     * rejected.
+     * 
+     * @return the time in nanoseconds
+     */
+    public long getApplyNanos() {
+        return applyNanos;
+    }
+
+    void setApplyNanos(long applyNanos) {
+        this.applyNanos = applyNanos;
+    }
+
+    /**
+     * The time spent so far notifying the interceptors after the drop has
+     * been handled. The interceptors are notified in the reverse order they
+     * were asked before the drop, so an interceptor sees the time spent in
+     * the interceptors notified before it. Global interceptors are notified
+     * last and see the time of the interceptors of the drop handler.
+     * 
+     * @return the time in nanoseconds
+     */
+    public long getCommitNanos() {
+        return commitNanos;
+    }
+
+    void setCommitNanos(long commitNanos) {
+        this.commitNanos = commitNanos;
+    }
+
+    /**
+     * The exception thrown while applying the drop. The exception is passed
+     * on to the caller of the drop handler after the interceptors have been
+     * notified, with any exceptions thrown by the interceptors after the drop
+     * added to it as suppressed exceptions.
+     * 
+     * @return the exception or null if the drop did not fail
+     */
+    public Throwable getFailure() {
+        return failure;
+    }
+
+    void setFailure(Throwable failure) {
+        this.failure = failure;
+    }
+}
@@ -19,6 +19,7 @@ import com.vaadin.event.TransferableImpl;
 import com.vaadin.shared.MouseEventDetails;
 import com.vaadin.ui.Component;
 
+import fi.jasoft.dragdroplayouts.DDUtil;
 import fi.jasoft.dragdroplayouts.client.ui.Constants;
 
 /**
@@ -30,6 +31,8 @@ import fi.jasoft.dragdroplayouts.client.ui.Constants;
 @SuppressWarnings("serial")
 public class LayoutBoundTransferable extends TransferableImpl {
 
+    private MouseEventDetails mouseDownEvent;
+
     /**
      * Default constructor
      * 
@@ -52,11 +55,30 @@ public class LayoutBoundTransferable extends TransferableImpl {
         return (Component) getData(Constants.TRANSFERABLE_DETAIL_COMPONENT);
     }
 
+    /**
+     * Returns an integer detail sent by the client
+     * 
+     * @param key
+     *            The key of the detail
+     * @param defaultValue
+     *            The value to return if the client did not send the detail
+     * @return The value of the detail
+     */
+    protected int getIntData(String key, int defaultValue) {
+        return DDUtil.toInt(getData(key), defaultValue);
+    }
+
     /**
      * @return the mouse down event that started the drag and drop operation
      */
     public MouseEventDetails getMouseDownEvent() {
-        return MouseEventDetails.deSerialize(
-                (String) getData(Constants.TRANSFERABLE_DETAIL_MOUSEDOWN));
+        if (mouseDownEvent == null) {
+            Object data = getData(Constants.TRANSFERABLE_DETAIL_MOUSEDOWN);
+            if (data != null) {
+                mouseDownEvent = MouseEventDetails
+                        .deSerialize(data.toString());
+            }
+        }
+        return mouseDownEvent;
     }
 }
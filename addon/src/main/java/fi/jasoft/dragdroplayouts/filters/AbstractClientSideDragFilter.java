@@ -0,0 +1,84 @@
+/*
+ * Copyright 2015 John Ahlroos
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package fi.jasoft.dragdroplayouts.filters;
+
+import com.vaadin.ui.Component;
+
+import fi.jasoft.dragdroplayouts.client.ui.interfaces.DragFilterRule;
+import fi.jasoft.dragdroplayouts.interfaces.ClientSideDragFilter;
+
+/**
+ * Base class for filters which either allow or deny dragging the components
+ * they match.
+ * 
+ * @author John Ahlroos / www.jasoft.fi
+ * @since 1.3.0
+ */
+@SuppressWarnings("serial")
+public abstract class AbstractClientSideDragFilter
+        implements ClientSideDragFilter {
+
+    private final boolean allow;
+
+    /**
+     * Constructor
+     * 
+     * @param allow
+     *            Should matching components be draggable (true) or should all
+     *            but the matching components be draggable (false)
+     */
+    protected AbstractClientSideDragFilter(boolean allow) {
+        this.allow = allow;
+    }
+
+    /**
+     * Does the filter match the component
+     * 
+     * @param component
+     *            The component to test
+     * @return true if the component matches
+     */
+    protected abstract boolean matches(Component component);
+
+    /**
+     * Creates a rule of the given type with the allow flag set
+     * 
+     * @param type
+     *            The type of the rule
+     * @return the rule
+     */
+    protected DragFilterRule createRule(DragFilterRule.Type type) {
+        DragFilterRule rule = new DragFilterRule();
+        rule.type = type;
+        rule.allow = allow;
+        return rule;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean isDraggable(Component component) {
+        return matches(component) == allow;
+    }
+
+    /**
+     * Are the matching components draggable
+     * 
+     * @return true if matching components are draggable, false if all but the
+     *         matching components are draggable
+     */
+    public boolean isAllow() {
+        return allow;
+    }
+}
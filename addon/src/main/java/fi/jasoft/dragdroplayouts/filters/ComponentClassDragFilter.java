@@ -0,0 +1,79 @@
+/*
+ * Copyright 2015 John Ahlroos
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package fi.jasoft.dragdroplayouts.filters;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import com.vaadin.ui.Component;
+
+import fi.jasoft.dragdroplayouts.interfaces.DragFilter;
+
+/**
+ * Drag filter which matches components by their class.
+ * <p>
+ * The client does not know the server side classes of the components so this
+ * filter is evaluated on the server like any other {@link DragFilter}.
+ * 
+ * @author John Ahlroos / www.jasoft.fi
+ * @since 1.3.0
+ */
+@SuppressWarnings("serial")
+public class ComponentClassDragFilter implements DragFilter {
+
+    private final boolean allow;
+
+    private final List<Class<? extends Component>> classes;
+
+    /**
+     * Allows dragging only components of the given classes or their sub
+     * classes
+     * 
+     * @param classes
+     *            The component classes
+     */
+    @SafeVarargs
+    public ComponentClassDragFilter(Class<? extends Component>... classes) {
+        this(true, classes);
+    }
+
+    /**
+     * Constructor
+     * 
+     * @param allow
+     *            Should components of the given classes be draggable (true)
+     *            or all other components (false)
+     * @param classes
+     *            The component classes
+     */
+    @SafeVarargs
+    public ComponentClassDragFilter(boolean allow,
+            Class<? extends Component>... classes) {
+        this.allow = allow;
+        this.classes = Collections.unmodifiableList(Arrays.asList(classes));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean isDraggable(Component component) {
+        for (Class<? extends Component> type : classes) {
+            if (type.isInstance(component)) {
+                return allow;
+            }
+        }
+        return !allow;
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2015 John Ahlroos
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package fi.jasoft.dragdroplayouts.filters;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import com.vaadin.ui.Component;
+
+import fi.jasoft.dragdroplayouts.client.ui.interfaces.DragFilterRule;
+
+/**
+ * Drag filter which allows or denies dragging a set of components. Useful when
+ * only a few components of a large layout should be draggable or locked.
+ * 
+ * @author John Ahlroos / www.jasoft.fi
+ * @since 1.3.0
+ */
+@SuppressWarnings("serial")
+public class ConnectorDragFilter extends AbstractClientSideDragFilter {
+
+    private final Set<Component> components;
+
+    /**
+     * Constructor
+     * 
+     * @param allow
+     *            Should the given components be draggable (true) or all other
+     *            components (false)
+     * @param components
+     *            The components
+     */
+    public ConnectorDragFilter(boolean allow, Component... components) {
+        this(allow, Arrays.asList(components));
+    }
+
+    /**
+     * Constructor
+     * 
+     * @param allow
+     *            Should the given components be draggable (true) or all other
+     *            components (false)
+     * @param components
+     *            The components
+     */
+    public ConnectorDragFilter(boolean allow,
+            Collection<? extends Component> components) {
+        super(allow);
+        this.components = Collections
+                .unmodifiableSet(new HashSet<Component>(components));
+    }
+
+    @Override
+    protected boolean matches(Component component) {
+        return components.contains(component);
+    }
+
+    @Override
+    public DragFilterRule getRule() {
+        DragFilterRule rule = createRule(DragFilterRule.Type.CONNECTOR_ID);
+        for (Component c : components) {
+            // Connector ids are only available for attached components
+            if (c.isAttached()) {
+                rule.values.add(c.getConnectorId());
+            }
+        }
+        return rule;
+    }
+
+    /**
+     * Returns the components matched by the filter
+     * 
+     * @return the components
+     */
+    public Set<Component> getComponents() {
+        return components;
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2015 John Ahlroos
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package fi.jasoft.dragdroplayouts.filters;
+
+import java.util.Iterator;
+
+import com.vaadin.ui.Component;
+import com.vaadin.ui.HasComponents;
+
+import fi.jasoft.dragdroplayouts.client.ui.interfaces.DragFilterRule;
+
+/**
+ * Drag filter which matches components by their position in the layout
+ * 
+ * @author John Ahlroos / www.jasoft.fi
+ * @since 1.3.0
+ */
+@SuppressWarnings("serial")
+public class IndexRangeDragFilter extends AbstractClientSideDragFilter {
+
+    private final int fromIndex;
+
+    private final int toIndex;
+
+    /**
+     * Allows dragging only the components in the index range
+     * 
+     * @param fromIndex
+     *            The first index of the range (inclusive)
+     * @param toIndex
+     *            The last index of the range (exclusive)
+     */
+    public IndexRangeDragFilter(int fromIndex, int toIndex) {
+        this(true, fromIndex, toIndex);
+    }
+
+    /**
+     * Constructor
+     * 
+     * @param allow
+     *            Should the components in the range be draggable (true) or
+     *            the components outside the range (false)
+     * @param fromIndex
+     *            The first index of the range (inclusive)
+     * @param toIndex
+     *            The last index of the range (exclusive)
+     */
+    public IndexRangeDragFilter(boolean allow, int fromIndex, int toIndex) {
+        super(allow);
+        if (fromIndex < 0 || toIndex < fromIndex) {
+            throw new IllegalArgumentException(
+                    "Invalid range " + fromIndex + "-" + toIndex);
+        }
+        this.fromIndex = fromIndex;
+        this.toIndex = toIndex;
+    }
+
+    @Override
+    protected boolean matches(Component component) {
+        int index = getIndex(component);
+        return index >= fromIndex && index < toIndex;
+    }
+
+    @Override
+    public DragFilterRule getRule() {
+        DragFilterRule rule = createRule(DragFilterRule.Type.INDEX_RANGE);
+        rule.fromIndex = fromIndex;
+        rule.toIndex = toIndex;
+        return rule;
+    }
+
+    private static int getIndex(Component component) {
+        if (!(component.getParent() instanceof HasComponents)) {
+            return -1;
+        }
+        Iterator<Component> iter = ((HasComponents) component.getParent())
+                .iterator();
+        int index = 0;
+        while (iter.hasNext()) {
+            if (iter.next() == component) {
+                return index;
+            }
+            index++;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the first index of the range (inclusive)
+     */
+    public int getFromIndex() {
+        return fromIndex;
+    }
+
+    /**
+     * Returns the last index of the range (exclusive)
+     */
+    public int getToIndex() {
+        return toIndex;
+    }
+}
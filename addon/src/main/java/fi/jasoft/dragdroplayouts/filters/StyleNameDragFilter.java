@@ -0,0 +1,90 @@
+/*
+ * Copyright 2015 John Ahlroos
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package fi.jasoft.dragdroplayouts.filters;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import com.vaadin.ui.Component;
+
+import fi.jasoft.dragdroplayouts.client.ui.interfaces.DragFilterRule;
+
+/**
+ * Drag filter which matches components by their style names
+ * 
+ * @author John Ahlroos / www.jasoft.fi
+ * @since 1.3.0
+ */
+@SuppressWarnings("serial")
+public class StyleNameDragFilter extends AbstractClientSideDragFilter {
+
+    private final Set<String> styleNames;
+
+    /**
+     * Allows dragging only the components having any of the style names
+     * 
+     * @param styleNames
+     *            The style names
+     */
+    public StyleNameDragFilter(String... styleNames) {
+        this(true, styleNames);
+    }
+
+    /**
+     * Constructor
+     * 
+     * @param allow
+     *            Should the components with the style names be draggable
+     *            (true) or all other components (false)
+     * @param styleNames
+     *            The style names
+     */
+    public StyleNameDragFilter(boolean allow, String... styleNames) {
+        super(allow);
+        this.styleNames = Collections.unmodifiableSet(
+                new HashSet<String>(Arrays.asList(styleNames)));
+    }
+
+    @Override
+    protected boolean matches(Component component) {
+        String styles = component.getStyleName();
+        if (styles == null || styles.isEmpty()) {
+            return false;
+        }
+        for (String style : styles.split(" ")) {
+            if (styleNames.contains(style)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public DragFilterRule getRule() {
+        DragFilterRule rule = createRule(DragFilterRule.Type.STYLE_NAME);
+        rule.values.addAll(styleNames);
+        return rule;
+    }
+
+    /**
+     * Returns the style names matched by the filter
+     * 
+     * @return the style names
+     */
+    public Set<String> getStyleNames() {
+        return styleNames;
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2015 John Ahlroos
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package fi.jasoft.dragdroplayouts.interfaces;
+
+import fi.jasoft.dragdroplayouts.client.ui.interfaces.DragFilterRule;
+
+/**
+ * A drag filter which can be evaluated on the client side. Instead of sending
+ * every draggable component to the client only the rule is sent.
+ * 
+ * @author John Ahlroos / www.jasoft.fi
+ * @since 1.3.0
+ */
+public interface ClientSideDragFilter extends DragFilter {
+
+    /**
+     * Returns the rule the client uses to evaluate the filter. Called each
+     * time the layout is sent to the client.
+     * 
+     * @return The rule matching the same components as
+     *         {@link #isDraggable(com.vaadin.ui.Component)}
+     */
+    DragFilterRule getRule();
+}
@@ -1,5 +1,7 @@
 package fi.jasoft.dragdroplayouts.interfaces;
 
+import fi.jasoft.dragdroplayouts.client.ui.DragProxyMode;
+
 public interface DragImageReferenceSupport {
 
     /**
@@ -19,4 +21,25 @@ public interface DragImageReferenceSupport {
      * @return the image provider
      */
     DragImageProvider getDragImageProvider();
+
+    /**
+     * Sets what the drag image is built from when no drag image provider
+     * returns an image for the dragged component. Cloning large components
+     * like tables is slow, {@link DragProxyMode#OUTLINE} and
+     * {@link DragProxyMode#SHALLOW} only create a few elements. Default is
+     * {@link DragProxyMode#CLONE}.
+     * 
+     * @param mode
+     *            The drag proxy mode
+     * @since 1.3.0
+     */
+    void setDragProxyMode(DragProxyMode mode);
+
+    /**
+     * Returns what the drag image is built from
+     * 
+     * @return the drag proxy mode
+     * @since 1.3.0
+     */
+    DragProxyMode getDragProxyMode();
 }
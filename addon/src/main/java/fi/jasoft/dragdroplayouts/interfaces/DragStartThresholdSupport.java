@@ -0,0 +1,74 @@
+/*
+ * Copyright 2015 John Ahlroos
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package fi.jasoft.dragdroplayouts.interfaces;
+
+/**
+ * Adds a drag start threshold to layouts. Presses released before the pointer
+ * has moved far and long enough are left as clicks instead of starting a
+ * drag.
+ * 
+ * @author John Ahlroos / www.jasoft.fi
+ * @since 1.3.0
+ */
+public interface DragStartThresholdSupport {
+
+    /**
+     * Sets how far the pointer has to move and how long it has to be pressed
+     * before a drag starts. Presses released before both thresholds are met
+     * are left as clicks, so small movements while clicking a component in
+     * the layout do not start a drag. On touch devices a touch which moves
+     * before the thresholds are met scrolls the page instead.
+     * 
+     * By default both thresholds are 0 and a drag starts on the first move.
+     * Touches always have to be held still for at least 300 milliseconds
+     * before they can start a drag, so swiping over the layout scrolls the
+     * page.
+     * 
+     * @param distance
+     *            The distance in pixels from where the pointer was pressed
+     * @param delay
+     *            The time in milliseconds since the pointer was pressed
+     * @throws IllegalArgumentException
+     *             if the distance or delay is negative
+     */
+    void setDragStartThreshold(int distance, int delay);
+
+    /**
+     * Gets the distance in pixels the pointer has to move before a drag
+     * starts.
+     * 
+     * @see #setDragStartThreshold(int, int)
+     * @return The distance in pixels
+     */
+    int getDragStartDistance();
+
+    /**
+     * Gets the time in milliseconds the pointer has to be pressed before a
+     * drag starts.
+     * 
+     * @see #setDragStartThreshold(int, int)
+     * @return The delay in milliseconds
+     */
+    int getDragStartDelay();
+
+    /**
+     * Gets how many presses in the layout the threshold has kept from
+     * starting a drag. Counts the presses which moved but were released
+     * before the thresholds were met. The client reports the count with its
+     * next request to the server.
+     * 
+     * @return The number of suppressed drag starts
+     */
+    int getSuppressedDragStartCount();
+}
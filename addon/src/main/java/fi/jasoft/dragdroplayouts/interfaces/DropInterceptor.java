@@ -0,0 +1,54 @@
+/*
+ * Copyright 2015 John Ahlroos
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package fi.jasoft.dragdroplayouts.interfaces;
+
+import java.io.Serializable;
+
+import fi.jasoft.dragdroplayouts.drophandlers.AbstractDefaultLayoutDropHandler;
+import fi.jasoft.dragdroplayouts.drophandlers.DropInfo;
+
+/**
+ * Intercepts the drops handled by the default drop handlers, for instance to
+ * authorize, audit or measure them.
+ * 
+ * @see AbstractDefaultLayoutDropHandler#addDropInterceptor(DropInterceptor)
+ * @see AbstractDefaultLayoutDropHandler#addGlobalDropInterceptor(DropInterceptor)
+ * 
+ * @author John Ahlroos / www.jasoft.fi
+ * @since 1.3.0
+ */
+public interface DropInterceptor extends Serializable {
+
+    /**
+     * Called before the drop is applied to the layout
+     * 
+     * @param drop
+     *            The drop
+     * @return false to reject the drop, in which case it is not applied and
+     *         the rest of the interceptors are not asked
+     */
+    boolean beforeDrop(DropInfo drop);
+
+    /**
+     * Called after the drop has been applied, rejected by an interceptor or
+     * failed with an exception. The timings of the validation and apply
+     * stages and the failure are available in the drop. The interceptors are
+     * called in the reverse order of {@link #beforeDrop(DropInfo)}, and an
+     * exception thrown here does not keep the rest from being called.
+     * 
+     * @param drop
+     *            The drop
+     */
+    void afterDrop(DropInfo drop);
+}
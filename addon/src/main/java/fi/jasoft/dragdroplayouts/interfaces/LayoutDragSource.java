@@ -75,6 +75,11 @@ public interface LayoutDragSource extends DragSource {
      * By default the drag filter permits dragging all components when the
      * layout drag mode allows it.
      * 
+     * The drag and drop layouts evaluate the filter for components as they are
+     * added to the layout. If the result of the filter depends on something
+     * else, call refreshDragFilter() of the layout to have it re-evaluated for
+     * all components.
+     * 
      * @param dragFilter
      *            The filter to use, by default {@link DragFilter#ALL} is used.
      */
@@ -0,0 +1,350 @@
+/*
+ * Copyright 2015 John Ahlroos
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package fi.jasoft.dragdroplayouts.metrics;
+
+import java.io.Serializable;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+
+import fi.jasoft.dragdroplayouts.DDVerticalLayout;
+import fi.jasoft.dragdroplayouts.drophandlers.AbstractDefaultLayoutDropHandler;
+import fi.jasoft.dragdroplayouts.drophandlers.DropInfo;
+import fi.jasoft.dragdroplayouts.interfaces.DropInterceptor;
+
+/**
+ * Collects counters and latency histograms of the drops handled by the
+ * default drop handlers, per layout type and drop kind. The validation, apply
+ * and commit stages of the drops are measured separately. The commit stage is
+ * the time spent in the interceptors notified after a drop before the
+ * metrics, see {@link DropInfo#getCommitNanos()}. Installed metrics are
+ * notified after the interceptors of the drop handlers.
+ * <p>
+ * Recording a drop costs a map lookup and a few atomic increments, so the
+ * metrics can be left on in production. Use {@link #install()} to collect the
+ * drops of all default drop handlers and to expose the metrics through JMX.
+ * An instance can also be added to a single drop handler as a
+ * {@link DropInterceptor}.
+ *
+ * @author John Ahlroos / www.jasoft.fi
+ * @since 1.3.0
+ */
+@SuppressWarnings("serial")
+public class DropMetrics implements DropInterceptor, DropMetricsMXBean {
+
+    /**
+     * The name the metrics are registered with in the platform MBean server
+     * by {@link #install()}
+     */
+    public static final String OBJECT_NAME = "fi.jasoft.dragdroplayouts:type=DropMetrics";
+
+    // Upper bounds of the histogram buckets: 100us, 1ms, 10ms, 100ms, 1s
+    private static final long[] BOUNDS = { 100000L, 1000000L, 10000000L,
+            100000000L, 1000000000L };
+
+    private static final String LAYOUT_PACKAGE = DDVerticalLayout.class
+            .getPackage().getName();
+
+    private static DropMetrics installed;
+
+    private static ObjectName installedName;
+
+    private final ConcurrentMap<String, Counter> counters = new ConcurrentHashMap<String, Counter>();
+
+    private final AtomicLong rejected = new AtomicLong();
+
+    /**
+     * The latencies of one stage of the drops
+     */
+    private static class Latency implements Serializable {
+
+        private final AtomicLong count = new AtomicLong();
+
+        private final AtomicLong totalNanos = new AtomicLong();
+
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        private final AtomicLongArray histogram = new AtomicLongArray(
+                BOUNDS.length + 1);
+
+        void record(long nanos) {
+            count.incrementAndGet();
+            totalNanos.addAndGet(nanos);
+
+            long max = maxNanos.get();
+            while (nanos > max && !maxNanos.compareAndSet(max, nanos)) {
+                max = maxNanos.get();
+            }
+
+            int bucket = 0;
+            while (bucket < BOUNDS.length && nanos > BOUNDS[bucket]) {
+                bucket++;
+            }
+            histogram.incrementAndGet(bucket);
+        }
+
+        long[] getHistogram() {
+            long[] buckets = new long[histogram.length()];
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = histogram.get(i);
+            }
+            return buckets;
+        }
+    }
+
+    /**
+     * Counters of one layout type and drop kind
+     */
+    private static class Counter implements Serializable {
+
+        private final String layoutType;
+
+        private final String kind;
+
+        private final Latency validate = new Latency();
+
+        private final Latency apply = new Latency();
+
+        private final Latency commit = new Latency();
+
+        private final AtomicLong rejected = new AtomicLong();
+
+        private final AtomicLong failed = new AtomicLong();
+
+        Counter(String layoutType, String kind) {
+            this.layoutType = layoutType;
+            this.kind = kind;
+        }
+
+        void record(DropInfo drop) {
+            validate.record(drop.getValidateNanos());
+            commit.record(drop.getCommitNanos());
+            if (drop.isRejected()) {
+                rejected.incrementAndGet();
+                return;
+            }
+            apply.record(drop.getApplyNanos());
+            if (drop.getFailure() != null) {
+                failed.incrementAndGet();
+            }
+        }
+
+        DropStatistics snapshot() {
+            return new DropStatistics(layoutType, kind, apply.count.get(),
+                    apply.totalNanos.get(), apply.maxNanos.get(),
+                    apply.getHistogram(), rejected.get(), failed.get(),
+                    validate.totalNanos.get(), validate.maxNanos.get(),
+                    validate.getHistogram(), commit.totalNanos.get(),
+                    commit.maxNanos.get(), commit.getHistogram());
+        }
+    }
+
+    /**
+     * Starts collecting the drops of all default drop handlers and registers
+     * the metrics in the platform MBean server as {@link #OBJECT_NAME}. Does
+     * nothing if the metrics have already been installed.
+     * <p>
+     * The platform MBean server is shared by all applications of the server.
+     * Use {@link #install(String)} if more than one application uses the
+     * metrics.
+     *
+     * @return the installed metrics
+     * @throws IllegalStateException
+     *             if the metrics could not be registered
+     */
+    public static DropMetrics install() {
+        return install(createObjectName(null));
+    }
+
+    /**
+     * Starts collecting the drops of all default drop handlers and registers
+     * the metrics in the platform MBean server as {@link #OBJECT_NAME} with
+     * an application key property, for instance
+     * "fi.jasoft.dragdroplayouts:type=DropMetrics,application=shop". Does
+     * nothing if the metrics have already been installed.
+     *
+     * @param application
+     *            The name of the application
+     * @return the installed metrics
+     * @throws IllegalStateException
+     *             if the metrics could not be registered
+     */
+    public static DropMetrics install(String application) {
+        if (application == null) {
+            throw new IllegalArgumentException(
+                    "Application name cannot be null");
+        }
+        return install(createObjectName(application));
+    }
+
+    /**
+     * Starts collecting the drops of all default drop handlers and registers
+     * the metrics in the platform MBean server with the given name. Does
+     * nothing if the metrics have already been installed.
+     *
+     * @param name
+     *            The name to register the metrics with
+     * @return the installed metrics
+     * @throws IllegalStateException
+     *             if the metrics could not be registered
+     */
+    public static synchronized DropMetrics install(ObjectName name) {
+        if (installed == null) {
+            DropMetrics metrics = new DropMetrics();
+            try {
+                MBeanServer server = ManagementFactory
+                        .getPlatformMBeanServer();
+                server.registerMBean(metrics, name);
+            } catch (JMException e) {
+                throw new IllegalStateException(
+                        "Failed to register drop metrics as " + name, e);
+            }
+            AbstractDefaultLayoutDropHandler.addGlobalDropInterceptor(metrics);
+            installed = metrics;
+            installedName = name;
+        }
+        return installed;
+    }
+
+    /**
+     * Stops collecting the drops and unregisters the metrics installed with
+     * one of the install methods. Should be called when the application is
+     * undeployed.
+     */
+    public static synchronized void uninstall() {
+        if (installed != null) {
+            AbstractDefaultLayoutDropHandler
+                    .removeGlobalDropInterceptor(installed);
+            try {
+                ManagementFactory.getPlatformMBeanServer()
+                        .unregisterMBean(installedName);
+            } catch (JMException e) {
+                // Already unregistered
+            }
+            installed = null;
+            installedName = null;
+        }
+    }
+
+    private static ObjectName createObjectName(String application) {
+        try {
+            if (application == null) {
+                return new ObjectName(OBJECT_NAME);
+            }
+            return new ObjectName(OBJECT_NAME + ",application="
+                    + ObjectName.quote(application));
+        } catch (MalformedObjectNameException e) {
+            throw new IllegalArgumentException(
+                    "Invalid application name " + application, e);
+        }
+    }
+
+    /**
+     * Returns the name the statistics of a drop are collected under, the
+     * simple name of the nearest add-on layout class of the drop target. User
+     * subclasses, including anonymous ones, are counted with the layout they
+     * extend.
+     */
+    private static String getLayoutName(DropInfo drop) {
+        Class<?> type = drop.getEvent().getTargetDetails().getTarget()
+                .getClass();
+        while (type != null && (type.getPackage() == null
+                || !LAYOUT_PACKAGE.equals(type.getPackage().getName()))) {
+            type = type.getSuperclass();
+        }
+        if (type == null) {
+            // Not an add-on layout
+            type = drop.getLayoutType();
+        }
+        return type.getSimpleName();
+    }
+
+    @Override
+    public boolean beforeDrop(DropInfo drop) {
+        return true;
+    }
+
+    @Override
+    public void afterDrop(DropInfo drop) {
+        if (drop.isRejected()) {
+            rejected.incrementAndGet();
+        }
+
+        // The layout class, for instance DDVerticalLayout
+        String layoutType = getLayoutName(drop);
+        String kind = drop.getKind().name();
+        String key = layoutType + '.' + kind;
+        Counter counter = counters.get(key);
+        if (counter == null) {
+            Counter created = new Counter(layoutType, kind);
+            counter = counters.putIfAbsent(key, created);
+            if (counter == null) {
+                counter = created;
+            }
+        }
+        counter.record(drop);
+    }
+
+    @Override
+    public long getDropCount() {
+        long count = 0;
+        for (Counter counter : counters.values()) {
+            count += counter.apply.count.get();
+        }
+        return count;
+    }
+
+    @Override
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    @Override
+    public long getFailedCount() {
+        long count = 0;
+        for (Counter counter : counters.values()) {
+            count += counter.failed.get();
+        }
+        return count;
+    }
+
+    @Override
+    public long[] getHistogramBounds() {
+        return BOUNDS.clone();
+    }
+
+    @Override
+    public List<DropStatistics> getStatistics() {
+        List<DropStatistics> statistics = new ArrayList<DropStatistics>();
+        for (Counter counter : counters.values()) {
+            statistics.add(counter.snapshot());
+        }
+        return statistics;
+    }
+
+    @Override
+    public void reset() {
+        counters.clear();
+        rejected.set(0);
+    }
+}
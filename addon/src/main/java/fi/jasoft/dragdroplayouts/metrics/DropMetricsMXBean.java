@@ -0,0 +1,59 @@
+/*
+ * Copyright 2015 John Ahlroos
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package fi.jasoft.dragdroplayouts.metrics;
+
+import java.util.List;
+
+/**
+ * Management interface of {@link DropMetrics}
+ * 
+ * @author John Ahlroos / www.jasoft.fi
+ * @since 1.3.0
+ */
+public interface DropMetricsMXBean {
+
+    /**
+     * @return the number of drops applied since the metrics were last reset,
+     *         including the drops which failed
+     */
+    long getDropCount();
+
+    /**
+     * @return the number of drops rejected by interceptors since the metrics
+     *         were last reset
+     */
+    long getRejectedCount();
+
+    /**
+     * @return the number of drops which failed with an exception while being
+     *         applied since the metrics were last reset
+     */
+    long getFailedCount();
+
+    /**
+     * @return the upper bounds of the latency histogram buckets in
+     *         nanoseconds. The last bucket has no upper bound.
+     */
+    long[] getHistogramBounds();
+
+    /**
+     * @return the statistics per layout type and drop kind
+     */
+    List<DropStatistics> getStatistics();
+
+    /**
+     * Resets all counters and histograms
+     */
+    void reset();
+}
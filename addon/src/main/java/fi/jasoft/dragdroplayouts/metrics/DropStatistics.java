@@ -0,0 +1,189 @@
+/*
+ * Copyright 2015 John Ahlroos
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package fi.jasoft.dragdroplayouts.metrics;
+
+import java.beans.ConstructorProperties;
+import java.io.Serializable;
+
+/**
+ * A snapshot of the drop statistics of one layout type and drop kind
+ * 
+ * @author John Ahlroos / www.jasoft.fi
+ * @since 1.3.0
+ */
+@SuppressWarnings("serial")
+public class DropStatistics implements Serializable {
+
+    private final String layoutType;
+
+    private final String kind;
+
+    private final long count;
+
+    private final long totalNanos;
+
+    private final long maxNanos;
+
+    private final long[] histogram;
+
+    private final long rejectedCount;
+
+    private final long failedCount;
+
+    private final long validateTotalNanos;
+
+    private final long validateMaxNanos;
+
+    private final long[] validateHistogram;
+
+    private final long commitTotalNanos;
+
+    private final long commitMaxNanos;
+
+    private final long[] commitHistogram;
+
+    @ConstructorProperties({ "layoutType", "kind", "count", "totalNanos",
+            "maxNanos", "histogram", "rejectedCount", "failedCount",
+            "validateTotalNanos", "validateMaxNanos", "validateHistogram",
+            "commitTotalNanos", "commitMaxNanos", "commitHistogram" })
+    public DropStatistics(String layoutType, String kind, long count,
+            long totalNanos, long maxNanos, long[] histogram,
+            long rejectedCount, long failedCount, long validateTotalNanos,
+            long validateMaxNanos, long[] validateHistogram,
+            long commitTotalNanos, long commitMaxNanos,
+            long[] commitHistogram) {
+        this.layoutType = layoutType;
+        this.kind = kind;
+        this.count = count;
+        this.totalNanos = totalNanos;
+        this.maxNanos = maxNanos;
+        this.histogram = histogram;
+        this.rejectedCount = rejectedCount;
+        this.failedCount = failedCount;
+        this.validateTotalNanos = validateTotalNanos;
+        this.validateMaxNanos = validateMaxNanos;
+        this.validateHistogram = validateHistogram;
+        this.commitTotalNanos = commitTotalNanos;
+        this.commitMaxNanos = commitMaxNanos;
+        this.commitHistogram = commitHistogram;
+    }
+
+    /**
+     * @return the simple class name of the add-on layout the drops were made
+     *         on, for instance DDVerticalLayout
+     */
+    public String getLayoutType() {
+        return layoutType;
+    }
+
+    /**
+     * @return the kind of the drops
+     */
+    public String getKind() {
+        return kind;
+    }
+
+    /**
+     * @return the number of applied drops, including the failed ones
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return the total time spent applying the drops in nanoseconds
+     */
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * @return the longest time spent applying a drop in nanoseconds
+     */
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    /**
+     * @return the number of drops in each latency bucket, see
+     *         {@link DropMetricsMXBean#getHistogramBounds()}
+     */
+    public long[] getHistogram() {
+        return histogram;
+    }
+
+    /**
+     * @return the number of drops rejected by interceptors
+     */
+    public long getRejectedCount() {
+        return rejectedCount;
+    }
+
+    /**
+     * @return the number of drops which failed with an exception while being
+     *         applied
+     */
+    public long getFailedCount() {
+        return failedCount;
+    }
+
+    /**
+     * @return the total time spent validating the drops in the interceptors
+     *         in nanoseconds, including the rejected drops
+     */
+    public long getValidateTotalNanos() {
+        return validateTotalNanos;
+    }
+
+    /**
+     * @return the longest time spent validating a drop in nanoseconds
+     */
+    public long getValidateMaxNanos() {
+        return validateMaxNanos;
+    }
+
+    /**
+     * @return the number of validated drops in each latency bucket, see
+     *         {@link DropMetricsMXBean#getHistogramBounds()}
+     */
+    public long[] getValidateHistogram() {
+        return validateHistogram;
+    }
+
+    /**
+     * @return the total time spent in the interceptors notified after the
+     *         drops, before the metrics, in nanoseconds, including the
+     *         rejected drops
+     */
+    public long getCommitTotalNanos() {
+        return commitTotalNanos;
+    }
+
+    /**
+     * @return the longest time spent in the interceptors notified after a
+     *         drop in nanoseconds
+     */
+    public long getCommitMaxNanos() {
+        return commitMaxNanos;
+    }
+
+    /**
+     * @return the number of drops in each latency bucket of the interceptors
+     *         notified after the drops, see
+     *         {@link DropMetricsMXBean#getHistogramBounds()}
+     */
+    public long[] getCommitHistogram() {
+        return commitHistogram;
+    }
+}
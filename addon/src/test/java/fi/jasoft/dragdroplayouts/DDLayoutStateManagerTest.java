@@ -0,0 +1,188 @@
+/*
+ * Copyright 2015 John Ahlroos
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package fi.jasoft.dragdroplayouts;
+
+import junit.framework.TestCase;
+
+import org.junit.Test;
+
+import com.vaadin.ui.Component;
+import com.vaadin.ui.Label;
+
+import fi.jasoft.dragdroplayouts.client.ui.LayoutDragMode;
+import fi.jasoft.dragdroplayouts.client.ui.interfaces.DragFilterRule;
+import fi.jasoft.dragdroplayouts.client.ui.verticallayout.DDVerticalLayoutState;
+import fi.jasoft.dragdroplayouts.drophandlers.DefaultVerticalLayoutDropHandler;
+import fi.jasoft.dragdroplayouts.filters.StyleNameDragFilter;
+import fi.jasoft.dragdroplayouts.interfaces.DragFilter;
+
+/**
+ * Tests that the drag filter is only evaluated for changed components
+ */
+public class DDLayoutStateManagerTest extends TestCase {
+
+  /**
+   * Filter counting how many times it has been evaluated
+   */
+  @SuppressWarnings("serial")
+  private static class CountingFilter implements DragFilter {
+
+    private int evaluations = 0;
+
+    public boolean isDraggable(Component component) {
+      evaluations++;
+      return !"locked".equals(component.getCaption());
+    }
+  }
+
+  /**
+   * Tests that unchanged responses do not evaluate the filter regardless of
+   * how many children the layout has
+   */
+  @Test
+  public void testResponseCostIsIndependentOfChildCount() {
+    for (int size : new int[] {10, 100, 2000}) {
+      DDVerticalLayout layout = createLayout(size);
+      CountingFilter filter = new CountingFilter();
+      layout.setDragFilter(filter);
+
+      DDVerticalLayoutState state = new DDVerticalLayoutState();
+      state.ddState.dragMode = LayoutDragMode.CLONE;
+      DDLayoutStateManager manager = new DDLayoutStateManager(layout);
+
+      manager.updateState(state);
+      assertEquals(size, filter.evaluations);
+      assertEquals(size, state.ddState.draggable.size());
+
+      // Changing a caption should not re-evaluate anything
+      filter.evaluations = 0;
+      layout.getComponent(0).setCaption("changed");
+      manager.updateState(state);
+      assertEquals(0, filter.evaluations);
+
+      // Adding a component only evaluates the added component
+      layout.addComponent(new Label("added"));
+      manager.updateState(state);
+      assertEquals(1, filter.evaluations);
+      assertEquals(size + 1, state.ddState.draggable.size());
+
+      // Removing a component does not evaluate anything
+      Component removed = layout.getComponent(1);
+      layout.removeComponent(removed);
+      manager.updateState(state);
+      assertEquals(1, filter.evaluations);
+      assertFalse(state.ddState.draggable.contains(removed));
+      assertEquals(size, state.ddState.draggable.size());
+    }
+  }
+
+  /**
+   * Tests that nothing is evaluated while dragging is disabled
+   */
+  @Test
+  public void testDisabledDragModeSkipsEvaluation() {
+    DDVerticalLayout layout = createLayout(100);
+    CountingFilter filter = new CountingFilter();
+    layout.setDragFilter(filter);
+
+    DDVerticalLayoutState state = new DDVerticalLayoutState();
+    state.ddState.dragMode = LayoutDragMode.NONE;
+    DDLayoutStateManager manager = new DDLayoutStateManager(layout);
+
+    manager.updateState(state);
+    layout.addComponent(new Label("added"));
+    manager.updateState(state);
+    assertEquals(0, filter.evaluations);
+    assertTrue(state.ddState.draggable.isEmpty());
+
+    state.ddState.dragMode = LayoutDragMode.CLONE;
+    manager.updateState(state);
+    assertEquals(101, filter.evaluations);
+    assertEquals(101, state.ddState.draggable.size());
+  }
+
+  /**
+   * Tests that refreshing the filter of a layout re-evaluates it for all
+   * components on the next response
+   */
+  @Test
+  public void testRefreshDragFilter() {
+    DDVerticalLayout layout = createLayout(10);
+    layout.setDragMode(LayoutDragMode.CLONE);
+    CountingFilter filter = new CountingFilter();
+    layout.setDragFilter(filter);
+    layout.beforeClientResponse(true);
+    assertEquals(10, layout.getState().ddState.draggable.size());
+
+    Component locked = layout.getComponent(3);
+    locked.setCaption("locked");
+    layout.beforeClientResponse(false);
+    assertTrue(layout.getState().ddState.draggable.contains(locked));
+
+    layout.refreshDragFilter();
+    layout.beforeClientResponse(false);
+    assertFalse(layout.getState().ddState.draggable.contains(locked));
+    assertEquals(9, layout.getState().ddState.draggable.size());
+  }
+
+  /**
+   * Tests that client side filters are sent as a rule instead of a list
+   */
+  @Test
+  public void testClientSideFilterSendsRule() {
+    DDVerticalLayout layout = createLayout(5000);
+    layout.setDragMode(LayoutDragMode.CLONE);
+    layout.setDragFilter(new StyleNameDragFilter("draggable"));
+    layout.beforeClientResponse(true);
+
+    DDVerticalLayoutState state = layout.getState();
+    assertTrue(state.ddState.draggable.isEmpty());
+    assertNotNull(state.ddState.dragFilterRule);
+    assertEquals(DragFilterRule.Type.STYLE_NAME,
+        state.ddState.dragFilterRule.type);
+
+    layout.setDragFilter(DragFilter.ALL);
+    layout.beforeClientResponse(false);
+    assertNull(state.ddState.dragFilterRule);
+    assertEquals(5000, state.ddState.draggable.size());
+  }
+
+  /**
+   * Tests that the drop handler presence is sent in the state
+   */
+  @Test
+  public void testAcceptDrops() {
+    DDVerticalLayout layout = createLayout(1);
+    DDVerticalLayoutState state = new DDVerticalLayoutState();
+    DDLayoutStateManager manager = new DDLayoutStateManager(layout);
+    manager.updateState(state, true);
+    assertFalse(state.ddState.acceptDrops);
+
+    layout.setDropHandler(new DefaultVerticalLayoutDropHandler());
+    manager.updateState(state, false);
+    assertTrue(state.ddState.acceptDrops);
+
+    layout.setEnabled(false);
+    manager.updateState(state, false);
+    assertFalse(state.ddState.acceptDrops);
+  }
+
+  private static DDVerticalLayout createLayout(int size) {
+    DDVerticalLayout layout = new DDVerticalLayout();
+    for (int i = 0; i < size; i++) {
+      layout.addComponent(new Label("Label " + i));
+    }
+    return layout;
+  }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2015 John Ahlroos
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package fi.jasoft.dragdroplayouts;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.vaadin.ui.Component;
+
+/**
+ * Creates one of each drag and drop layout for tests
+ */
+public final class DDLayouts {
+
+  private DDLayouts() {
+    // Only static helpers
+  }
+
+  /**
+   * Creates a new instance of every drag and drop layout
+   *
+   * @param type The type the layouts are tested as
+   * @return the layouts
+   */
+  public static <T> List<T> createLayouts(Class<T> type) {
+    Component[] layouts = { new DDAbsoluteLayout(), new DDAccordion(),
+        new DDCssLayout(), new DDFormLayout(), new DDGridLayout(),
+        new DDHorizontalLayout(), new DDHorizontalSplitPanel(),
+        new DDPanel(), new DDTabSheet(), new DDVerticalLayout(),
+        new DDVerticalSplitPanel() };
+    List<T> result = new ArrayList<T>();
+    for (Component layout : layouts) {
+      result.add(type.cast(layout));
+    }
+    return result;
+  }
+}
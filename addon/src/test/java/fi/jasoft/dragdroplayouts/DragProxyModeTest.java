@@ -0,0 +1,58 @@
+/*
+ * Copyright 2015 John Ahlroos
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package fi.jasoft.dragdroplayouts;
+
+import junit.framework.TestCase;
+
+import org.junit.Test;
+
+import fi.jasoft.dragdroplayouts.client.ui.DragProxyMode;
+import fi.jasoft.dragdroplayouts.interfaces.DragImageReferenceSupport;
+
+/**
+ * Tests the drag proxy mode of the layouts
+ */
+public class DragProxyModeTest extends TestCase {
+
+  /**
+   * Tests that every layout clones by default and keeps its mode when given
+   * an invalid one
+   */
+  @Test
+  public void testLayoutsStoreMode() {
+    for (DragImageReferenceSupport layout : DDLayouts
+        .createLayouts(DragImageReferenceSupport.class)) {
+      assertEquals(DragProxyMode.CLONE, layout.getDragProxyMode());
+      layout.setDragProxyMode(DragProxyMode.SHALLOW);
+      try {
+        layout.setDragProxyMode(null);
+        fail("Null mode accepted by " + layout.getClass());
+      } catch (IllegalArgumentException e) {
+        // Expected
+      }
+      assertEquals(DragProxyMode.SHALLOW, layout.getDragProxyMode());
+    }
+  }
+
+  /**
+   * Tests that the mode is stored in the drag and drop state
+   */
+  @Test
+  public void testModeIsSentInState() {
+    DDVerticalLayout layout = new DDVerticalLayout();
+    layout.setDragProxyMode(DragProxyMode.OUTLINE);
+    assertEquals(DragProxyMode.OUTLINE,
+        layout.getState().ddState.dragProxyMode);
+  }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2015 John Ahlroos
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package fi.jasoft.dragdroplayouts;
+
+import java.util.Collections;
+
+import junit.framework.TestCase;
+
+import org.junit.Test;
+
+import fi.jasoft.dragdroplayouts.client.ui.Constants;
+import fi.jasoft.dragdroplayouts.client.ui.VDragStartThreshold;
+import fi.jasoft.dragdroplayouts.interfaces.DragStartThresholdSupport;
+
+/**
+ * Tests the drag start threshold of the layouts
+ */
+public class DragStartThresholdTest extends TestCase {
+
+  /**
+   * Tests that drags start on the first move by default
+   */
+  @Test
+  public void testDefaultThreshold() {
+    for (DragStartThresholdSupport layout : DDLayouts
+        .createLayouts(DragStartThresholdSupport.class)) {
+      assertEquals(0, layout.getDragStartDistance());
+      assertEquals(0, layout.getDragStartDelay());
+    }
+  }
+
+  /**
+   * Tests that the threshold is stored in the drag and drop state
+   */
+  @Test
+  public void testThresholdIsSentInState() {
+    DDVerticalLayout layout = new DDVerticalLayout();
+    layout.setDragStartThreshold(5, 150);
+    assertEquals(5, layout.getDragStartDistance());
+    assertEquals(150, layout.getDragStartDelay());
+    assertEquals(5, layout.getState().ddState.dragStartDistance);
+    assertEquals(150, layout.getState().ddState.dragStartDelay);
+  }
+
+  /**
+   * Tests that negative thresholds are rejected
+   */
+  @Test
+  public void testNegativeThresholdIsRejected() {
+    for (DragStartThresholdSupport layout : DDLayouts
+        .createLayouts(DragStartThresholdSupport.class)) {
+      try {
+        layout.setDragStartThreshold(-1, 0);
+        fail("Negative distance accepted by " + layout.getClass());
+      } catch (IllegalArgumentException e) {
+        // Expected
+      }
+      try {
+        layout.setDragStartThreshold(0, -1);
+        fail("Negative delay accepted by " + layout.getClass());
+      } catch (IllegalArgumentException e) {
+        // Expected
+      }
+    }
+  }
+
+  /**
+   * Tests that a move starts a drag only when it is past both the distance
+   * and the delay
+   */
+  @Test
+  public void testIsPastThreshold() {
+    assertTrue(VDragStartThreshold.isPastThreshold(0, 0, 0, 0, 0));
+    assertFalse(VDragStartThreshold.isPastThreshold(3, 3, 200, 5, 150));
+    assertTrue(VDragStartThreshold.isPastThreshold(3, 4, 200, 5, 150));
+    assertTrue(VDragStartThreshold.isPastThreshold(0, -5, 150, 5, 150));
+    assertFalse(VDragStartThreshold.isPastThreshold(10, 0, 149, 5, 150));
+  }
+
+  /**
+   * Tests that touches have to be held before they can start a drag even
+   * without a threshold
+   */
+  @Test
+  public void testTouchDelay() {
+    VDragStartThreshold threshold = new VDragStartThreshold();
+    assertEquals(VDragStartThreshold.TOUCH_DELAY, threshold.getTouchDelay());
+    assertTrue(VDragStartThreshold.TOUCH_DELAY > 0);
+
+    threshold.setThreshold(0, VDragStartThreshold.TOUCH_DELAY + 100);
+    assertEquals(VDragStartThreshold.TOUCH_DELAY + 100,
+        threshold.getTouchDelay());
+  }
+
+  /**
+   * Tests that only held back gestures which do not start a drag are
+   * counted as suppressed drag starts
+   */
+  @Test
+  public void testSuppressedDragStarts() {
+    VDragStartThreshold threshold = new VDragStartThreshold();
+    threshold.setThreshold(5, 0);
+    int suppressed = VDragStartThreshold.getSuppressedDragStartCount();
+
+    // Held back and released
+    threshold.startGesture();
+    assertFalse(threshold.isPast(1, 1, 10));
+    assertTrue(threshold.endGesture(false));
+    assertEquals(suppressed + 1,
+        VDragStartThreshold.getSuppressedDragStartCount());
+
+    // Held back but dragged further
+    threshold.startGesture();
+    assertFalse(threshold.isPast(1, 1, 10));
+    assertTrue(threshold.isPast(5, 0, 20));
+    assertFalse(threshold.endGesture(true));
+
+    // Released without moving
+    threshold.startGesture();
+    assertFalse(threshold.endGesture(false));
+
+    assertEquals(1, threshold.getSuppressedCount());
+    assertEquals(suppressed + 1,
+        VDragStartThreshold.getSuppressedDragStartCount());
+  }
+
+  /**
+   * Tests that the layouts count the suppressed drag starts the client
+   * reports, also after the client side widget has been recreated
+   */
+  @Test
+  public void testSuppressedDragStartsAreReported() {
+    DDVerticalLayout layout = new DDVerticalLayout();
+    assertEquals(0, layout.getSuppressedDragStartCount());
+
+    layout.changeVariables(layout, Collections.<String, Object> singletonMap(
+        Constants.VARIABLE_SUPPRESSED_DRAG_STARTS, 2));
+    layout.changeVariables(layout, Collections.<String, Object> singletonMap(
+        Constants.VARIABLE_SUPPRESSED_DRAG_STARTS, 3));
+    assertEquals(3, layout.getSuppressedDragStartCount());
+
+    // Reported by a new widget after a page reload
+    layout.changeVariables(layout, Collections.<String, Object> singletonMap(
+        Constants.VARIABLE_SUPPRESSED_DRAG_STARTS, 1));
+    assertEquals(4, layout.getSuppressedDragStartCount());
+
+    layout.changeVariables(layout, Collections.<String, Object> emptyMap());
+    assertEquals(4, layout.getSuppressedDragStartCount());
+  }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2015 John Ahlroos
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package fi.jasoft.dragdroplayouts;
+
+import junit.framework.TestCase;
+
+import org.junit.Test;
+
+import com.vaadin.ui.HasComponents.ComponentDetachEvent;
+import com.vaadin.ui.HasComponents.ComponentDetachListener;
+import com.vaadin.ui.Label;
+
+/**
+ * Tests moving components within a layout
+ */
+public class MoveComponentTest extends TestCase {
+
+  /**
+   * Tests that moving a component reorders it without detaching it
+   */
+  @Test
+  @SuppressWarnings("serial")
+  public void testMoveDoesNotDetach() {
+    Label a = new Label("a");
+    Label b = new Label("b");
+    Label c = new Label("c");
+    DDVerticalLayout layout = new DDVerticalLayout(a, b, c);
+
+    final int[] detaches = new int[1];
+    layout.addComponentDetachListener(new ComponentDetachListener() {
+      public void componentDetachedFromContainer(ComponentDetachEvent event) {
+        detaches[0]++;
+      }
+    });
+
+    layout.moveComponent(a, 2);
+    assertEquals(0, detaches[0]);
+    assertSame(layout, a.getParent());
+    assertSame(b, layout.getComponent(0));
+    assertSame(c, layout.getComponent(1));
+    assertSame(a, layout.getComponent(2));
+
+    layout.moveComponent(a, 0);
+    assertSame(a, layout.getComponent(0));
+    assertSame(b, layout.getComponent(1));
+  }
+
+  /**
+   * Tests moving components in the CSS and form layouts
+   */
+  @Test
+  public void testMoveInCssAndFormLayout() {
+    Label a = new Label("a");
+    Label b = new Label("b");
+    DDCssLayout css = new DDCssLayout(a, b);
+    css.moveComponent(b, 0);
+    assertSame(b, css.getComponent(0));
+    assertSame(a, css.getComponent(1));
+    assertSame(css, b.getParent());
+
+    Label c = new Label("c");
+    Label d = new Label("d");
+    DDFormLayout form = new DDFormLayout(c, d);
+    form.moveComponent(c, 1);
+    assertSame(d, form.getComponent(0));
+    assertSame(c, form.getComponent(1));
+    assertSame(form, c.getParent());
+  }
+
+  /**
+   * Tests that only children can be moved
+   */
+  @Test
+  public void testMoveNonChild() {
+    DDHorizontalLayout layout = new DDHorizontalLayout(new Label());
+    try {
+      layout.moveComponent(new Label(), 0);
+      fail("Moving a component which is not a child should fail");
+    } catch (IllegalArgumentException e) {
+      // Expected
+    }
+  }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2015 John Ahlroos
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package fi.jasoft.dragdroplayouts.details;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+import org.junit.Test;
+
+import com.vaadin.shared.MouseEventDetails;
+
+import fi.jasoft.dragdroplayouts.DDAbsoluteLayout;
+import fi.jasoft.dragdroplayouts.client.ui.Constants;
+
+/**
+ * Tests parsing the target details sent by the client
+ */
+public class TargetDetailsTest extends TestCase {
+
+  /**
+   * Tests that the details are parsed into typed values and the mouse event
+   * is only deserialized once
+   */
+  @Test
+  public void testDetailsAreParsedOnce() {
+    MouseEventDetails mouseUp = new MouseEventDetails();
+    mouseUp.setClientX(120);
+    mouseUp.setClientY(80);
+
+    Map<String, Object> data = new HashMap<String, Object>();
+    data.put(Constants.DROP_DETAIL_MOUSE_EVENT, mouseUp.serialize());
+    data.put(Constants.DROP_DETAIL_RELATIVE_LEFT, "15");
+    data.put(Constants.DROP_DETAIL_RELATIVE_TOP, 25);
+    data.put(Constants.DROP_DETAIL_ABSOLUTE_LEFT, 115);
+    data.put(Constants.DROP_DETAIL_ABSOLUTE_TOP, "125");
+    data.put(Constants.DROP_DETAIL_COMPONENT_WIDTH, -1);
+    data.put(Constants.DROP_DETAIL_COMPONENT_HEIGHT, -1);
+
+    AbsoluteLayoutTargetDetails details = new AbsoluteLayoutTargetDetails(
+        new DDAbsoluteLayout(), data);
+    assertEquals(15, details.getRelativeLeft());
+    assertEquals(25, details.getRelativeTop());
+    assertEquals(115, details.getAbsoluteLeft());
+    assertEquals(125, details.getAbsoluteTop());
+    assertEquals(-1, details.getComponentWidth());
+
+    MouseEventDetails parsed = details.getMouseEvent();
+    assertEquals(120, parsed.getClientX());
+    assertEquals(80, parsed.getClientY());
+    assertSame(parsed, details.getMouseEvent());
+  }
+
+  /**
+   * Tests that drops without coordinates are rejected instead of placing the
+   * component in the corner
+   */
+  @Test
+  public void testMissingCoordinatesFail() {
+    Map<String, Object> data = new HashMap<String, Object>();
+    data.put(Constants.DROP_DETAIL_RELATIVE_LEFT, 15);
+    try {
+      new AbsoluteLayoutTargetDetails(new DDAbsoluteLayout(), data);
+      fail("Missing coordinates were accepted");
+    } catch (IllegalArgumentException e) {
+      // Expected
+    }
+  }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2015 John Ahlroos
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package fi.jasoft.dragdroplayouts.drophandlers;
+
+/**
+ * Fills in drop infos for tests outside the drop handler package
+ */
+public final class DropInfos {
+
+  private DropInfos() {
+    // Only static helpers
+  }
+
+  /**
+   * Sets the timings of the stages of a drop
+   *
+   * @param drop The drop
+   * @param validateNanos The time spent validating the drop
+   * @param applyNanos The time spent applying the drop
+   * @param commitNanos The time spent notifying the interceptors after the
+   *        drop
+   * @return the drop
+   */
+  public static DropInfo setTimings(DropInfo drop, long validateNanos,
+      long applyNanos, long commitNanos) {
+    drop.setValidateNanos(validateNanos);
+    drop.setApplyNanos(applyNanos);
+    drop.setCommitNanos(commitNanos);
+    return drop;
+  }
+
+  /**
+   * Marks a drop rejected by an interceptor
+   *
+   * @param drop The drop
+   * @return the drop
+   */
+  public static DropInfo reject(DropInfo drop) {
+    drop.setRejected(true);
+    return drop;
+  }
+
+  /**
+   * Marks a drop failed
+   *
+   * @param drop The drop
+   * @param failure The exception the drop failed with
+   * @return the drop
+   */
+  public static DropInfo fail(DropInfo drop, Throwable failure) {
+    drop.setFailure(failure);
+    return drop;
+  }
+}
@@ -0,0 +1,241 @@
+/*
+ * Copyright 2015 John Ahlroos
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package fi.jasoft.dragdroplayouts.drophandlers;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+import org.junit.Test;
+
+import com.vaadin.event.dd.DragAndDropEvent;
+import com.vaadin.shared.ui.dd.VerticalDropLocation;
+import com.vaadin.ui.Component;
+import com.vaadin.ui.Label;
+
+import fi.jasoft.dragdroplayouts.DDVerticalLayout;
+import fi.jasoft.dragdroplayouts.client.ui.Constants;
+import fi.jasoft.dragdroplayouts.events.LayoutBoundTransferable;
+import fi.jasoft.dragdroplayouts.interfaces.DropInterceptor;
+
+/**
+ * Tests intercepting drops of the default drop handlers
+ */
+public class DropInterceptorTest extends TestCase {
+
+  /**
+   * Interceptor recording the drops it has seen
+   */
+  @SuppressWarnings("serial")
+  private static class RecordingInterceptor implements DropInterceptor {
+
+    private final boolean accept;
+
+    private DropInfo before;
+
+    private DropInfo after;
+
+    RecordingInterceptor(boolean accept) {
+      this.accept = accept;
+    }
+
+    public boolean beforeDrop(DropInfo drop) {
+      before = drop;
+      return accept;
+    }
+
+    public void afterDrop(DropInfo drop) {
+      after = drop;
+    }
+  }
+
+  /**
+   * Tests that an accepted drop is applied and reported
+   */
+  @Test
+  public void testAcceptedDrop() {
+    Label a = new Label("a");
+    Label b = new Label("b");
+    DDVerticalLayout layout = new DDVerticalLayout(a, b);
+    DefaultVerticalLayoutDropHandler handler = new DefaultVerticalLayoutDropHandler();
+    RecordingInterceptor interceptor = new RecordingInterceptor(true);
+    handler.addDropInterceptor(interceptor);
+
+    handler.drop(createReorderEvent(layout, a, 1));
+
+    assertSame(a, layout.getComponent(1));
+    assertSame(interceptor.before, interceptor.after);
+    assertEquals(DropInfo.Kind.REORDER, interceptor.after.getKind());
+    assertFalse(interceptor.after.isRejected());
+    assertTrue(interceptor.after.getApplyNanos() >= 0);
+  }
+
+  /**
+   * Tests that a rejected drop is not applied
+   */
+  @Test
+  public void testRejectedDrop() {
+    Label a = new Label("a");
+    Label b = new Label("b");
+    DDVerticalLayout layout = new DDVerticalLayout(a, b);
+    DefaultVerticalLayoutDropHandler handler = new DefaultVerticalLayoutDropHandler();
+    RecordingInterceptor interceptor = new RecordingInterceptor(false);
+    handler.addDropInterceptor(interceptor);
+
+    handler.drop(createReorderEvent(layout, a, 1));
+
+    assertSame(a, layout.getComponent(0));
+    assertTrue(interceptor.after.isRejected());
+    assertEquals(0, interceptor.after.getApplyNanos());
+  }
+
+  /**
+   * Tests that a drop failing with an exception is reported
+   */
+  @Test
+  @SuppressWarnings("serial")
+  public void testFailedDrop() {
+    Label a = new Label("a");
+    Label b = new Label("b");
+    DDVerticalLayout layout = new DDVerticalLayout(a, b);
+    final IllegalStateException failure = new IllegalStateException();
+    DefaultVerticalLayoutDropHandler handler = new DefaultVerticalLayoutDropHandler() {
+
+      @Override
+      protected void handleComponentReordering(DragAndDropEvent event) {
+        throw failure;
+      }
+    };
+    RecordingInterceptor interceptor = new RecordingInterceptor(true);
+    handler.addDropInterceptor(interceptor);
+
+    try {
+      handler.drop(createReorderEvent(layout, a, 1));
+      fail("The failure was not passed on");
+    } catch (IllegalStateException e) {
+      assertSame(failure, e);
+    }
+
+    assertNotNull(interceptor.after);
+    assertSame(failure, interceptor.after.getFailure());
+    assertFalse(interceptor.after.isRejected());
+  }
+
+  /**
+   * Tests that an interceptor failing after a drop neither keeps the others
+   * from being notified nor hides the failure of the drop
+   */
+  @Test
+  @SuppressWarnings("serial")
+  public void testFailingInterceptor() {
+    Label a = new Label("a");
+    Label b = new Label("b");
+    DDVerticalLayout layout = new DDVerticalLayout(a, b);
+    final IllegalStateException failure = new IllegalStateException();
+    DefaultVerticalLayoutDropHandler handler = new DefaultVerticalLayoutDropHandler() {
+
+      @Override
+      protected void handleComponentReordering(DragAndDropEvent event) {
+        throw failure;
+      }
+    };
+    RecordingInterceptor first = new RecordingInterceptor(true);
+    final UnsupportedOperationException error = new UnsupportedOperationException();
+    RecordingInterceptor failing = new RecordingInterceptor(true) {
+
+      @Override
+      public void afterDrop(DropInfo drop) {
+        throw error;
+      }
+    };
+    handler.addDropInterceptor(first);
+    handler.addDropInterceptor(failing);
+
+    try {
+      handler.drop(createReorderEvent(layout, a, 1));
+      fail("The failure was not passed on");
+    } catch (IllegalStateException e) {
+      assertSame(failure, e);
+      assertSame(error, e.getSuppressed()[0]);
+    }
+    assertNotNull(first.after);
+
+    // Without a failed drop the exception of the interceptor is passed on
+    DefaultVerticalLayoutDropHandler working = new DefaultVerticalLayoutDropHandler();
+    working.addDropInterceptor(first);
+    working.addDropInterceptor(failing);
+    first.after = null;
+    try {
+      working.drop(createReorderEvent(layout, a, 1));
+      fail("The exception of the interceptor was not passed on");
+    } catch (UnsupportedOperationException e) {
+      assertSame(error, e);
+    }
+    assertNotNull(first.after);
+  }
+
+  /**
+   * Tests that the interceptors are notified in reverse order and see the
+   * time spent in the interceptors notified before them
+   */
+  @Test
+  @SuppressWarnings("serial")
+  public void testCommitTiming() {
+    Label a = new Label("a");
+    Label b = new Label("b");
+    DDVerticalLayout layout = new DDVerticalLayout(a, b);
+    DefaultVerticalLayoutDropHandler handler = new DefaultVerticalLayoutDropHandler();
+    final long[] seen = new long[2];
+    handler.addDropInterceptor(new RecordingInterceptor(true) {
+
+      @Override
+      public void afterDrop(DropInfo drop) {
+        seen[0] = drop.getCommitNanos();
+      }
+    });
+    handler.addDropInterceptor(new RecordingInterceptor(true) {
+
+      @Override
+      public void afterDrop(DropInfo drop) {
+        seen[1] = drop.getCommitNanos();
+        try {
+          Thread.sleep(2);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    });
+
+    handler.drop(createReorderEvent(layout, a, 1));
+
+    assertEquals(0, seen[1]);
+    assertTrue(seen[0] >= 2000000L);
+  }
+
+  private static DragAndDropEvent createReorderEvent(DDVerticalLayout layout,
+      Component component, int index) {
+    Map<String, Object> transferableData = new HashMap<String, Object>();
+    transferableData.put(Constants.TRANSFERABLE_DETAIL_COMPONENT, component);
+    LayoutBoundTransferable transferable = (LayoutBoundTransferable) layout
+        .getTransferable(transferableData);
+
+    Map<String, Object> dropData = new HashMap<String, Object>();
+    dropData.put(Constants.DROP_DETAIL_TO, index);
+    dropData.put(Constants.DROP_DETAIL_VERTICAL_DROP_LOCATION,
+        VerticalDropLocation.MIDDLE.name());
+    return new DragAndDropEvent(transferable,
+        layout.translateDropTargetDetails(dropData));
+  }
+}
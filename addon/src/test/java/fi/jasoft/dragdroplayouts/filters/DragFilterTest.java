@@ -23,6 +23,12 @@ import junit.framework.TestCase;
 
 import org.junit.Test;
 
+import com.vaadin.ui.Button;
+import com.vaadin.ui.Label;
+import com.vaadin.ui.VerticalLayout;
+
+import fi.jasoft.dragdroplayouts.DDVerticalLayout;
+import fi.jasoft.dragdroplayouts.client.ui.interfaces.DragFilterRule;
 import fi.jasoft.dragdroplayouts.interfaces.DragFilter;
 
 /**
@@ -43,6 +49,78 @@ public class DragFilterTest extends TestCase {
     assertSame(DragFilter.NONE, reserialize(DragFilter.NONE));
   }
 
+  /**
+   * Tests the client side evaluable filters on the server side
+   */
+  @Test
+  public void testClientSideFilters() {
+    VerticalLayout layout = new VerticalLayout();
+    Label first = new Label();
+    Button second = new Button();
+    second.addStyleName("draggable other");
+    Label third = new Label();
+    layout.addComponents(first, second, third);
+
+    StyleNameDragFilter styleFilter = new StyleNameDragFilter("draggable");
+    assertFalse(styleFilter.isDraggable(first));
+    assertTrue(styleFilter.isDraggable(second));
+    assertEquals(DragFilterRule.Type.STYLE_NAME, styleFilter.getRule().type);
+    assertTrue(styleFilter.getRule().values.contains("draggable"));
+
+    IndexRangeDragFilter rangeFilter = new IndexRangeDragFilter(false, 1, 3);
+    assertTrue(rangeFilter.isDraggable(first));
+    assertFalse(rangeFilter.isDraggable(second));
+    assertFalse(rangeFilter.isDraggable(third));
+    assertFalse(rangeFilter.getRule().allow);
+
+    ConnectorDragFilter connectorFilter = new ConnectorDragFilter(true, third);
+    assertFalse(connectorFilter.isDraggable(first));
+    assertTrue(connectorFilter.isDraggable(third));
+
+    @SuppressWarnings("unchecked")
+    ComponentClassDragFilter classFilter = new ComponentClassDragFilter(
+        Button.class);
+    assertFalse(classFilter.isDraggable(first));
+    assertTrue(classFilter.isDraggable(second));
+  }
+
+  /**
+   * Tests that the index range filter follows changes to the children
+   */
+  @Test
+  public void testIndexRangeFollowsChildren() {
+    DDVerticalLayout layout = new DDVerticalLayout();
+    Label first = new Label();
+    Label second = new Label();
+    layout.addComponents(first, second);
+
+    IndexRangeDragFilter rangeFilter = new IndexRangeDragFilter(0, 1);
+    layout.setDragFilter(rangeFilter);
+    assertTrue(rangeFilter.isDraggable(first));
+    assertFalse(rangeFilter.isDraggable(second));
+
+    Label added = new Label();
+    layout.addComponent(added, 0);
+    assertTrue(rangeFilter.isDraggable(added));
+    assertFalse(rangeFilter.isDraggable(first));
+
+    layout.moveComponent(second, 0);
+    assertTrue(rangeFilter.isDraggable(second));
+    assertFalse(rangeFilter.isDraggable(added));
+
+    // Swaps the children without detaching them
+    layout.replaceComponent(second, first);
+    assertTrue(rangeFilter.isDraggable(first));
+    assertFalse(rangeFilter.isDraggable(second));
+
+    layout.removeComponent(first);
+    assertTrue(rangeFilter.isDraggable(added));
+
+    IndexRangeDragFilter copy = reserialize(rangeFilter);
+    assertEquals(0, copy.getFromIndex());
+    assertEquals(1, copy.getToIndex());
+  }
+
   /**
    * Helper for re-serializing a filter
    * 
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2015 John Ahlroos
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package fi.jasoft.dragdroplayouts.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.List;
+
+import javax.management.ObjectName;
+
+import junit.framework.TestCase;
+
+import org.junit.Test;
+
+import com.vaadin.event.dd.DragAndDropEvent;
+import com.vaadin.ui.VerticalLayout;
+
+import fi.jasoft.dragdroplayouts.DDVerticalLayout;
+import fi.jasoft.dragdroplayouts.drophandlers.DropInfo;
+import fi.jasoft.dragdroplayouts.drophandlers.DropInfos;
+
+/**
+ * Tests collecting drop metrics
+ */
+public class DropMetricsTest extends TestCase {
+
+  /**
+   * Tests that drops are counted per layout and kind
+   */
+  @Test
+  public void testRecordDrops() {
+    DropMetrics metrics = new DropMetrics();
+    DDVerticalLayout layout = new DDVerticalLayout();
+
+    metrics.afterDrop(createDrop(layout, DropInfo.Kind.REORDER, 50000L));
+    metrics.afterDrop(createDrop(layout, DropInfo.Kind.REORDER, 5000000L));
+    metrics.afterDrop(DropInfos.reject(
+        createDrop(layout, DropInfo.Kind.FROM_LAYOUT, 0)));
+
+    assertEquals(2, metrics.getDropCount());
+    assertEquals(1, metrics.getRejectedCount());
+
+    List<DropStatistics> statistics = metrics.getStatistics();
+    assertEquals(2, statistics.size());
+    DropStatistics reorders = find(statistics, "REORDER");
+    assertEquals("DDVerticalLayout", reorders.getLayoutType());
+    assertEquals("REORDER", reorders.getKind());
+    assertEquals(5000000L, reorders.getMaxNanos());
+    assertEquals(1, reorders.getHistogram()[0]);
+    assertEquals(1, reorders.getHistogram()[2]);
+
+    DropStatistics moves = find(statistics, "FROM_LAYOUT");
+    assertEquals(0, moves.getCount());
+    assertEquals(1, moves.getRejectedCount());
+
+    metrics.reset();
+    assertEquals(0, metrics.getDropCount());
+  }
+
+  /**
+   * Tests that the validation and commit times and failures are recorded
+   */
+  @Test
+  public void testRecordStages() {
+    DropMetrics metrics = new DropMetrics();
+    DDVerticalLayout layout = new DDVerticalLayout();
+
+    metrics.afterDrop(DropInfos.setTimings(
+        createDrop(layout, DropInfo.Kind.REORDER, 0), 2000000L, 50000L,
+        200000000L));
+    metrics.afterDrop(DropInfos.fail(
+        createDrop(layout, DropInfo.Kind.REORDER, 0),
+        new IllegalStateException()));
+
+    assertEquals(2, metrics.getDropCount());
+    assertEquals(1, metrics.getFailedCount());
+    DropStatistics reorders = find(metrics.getStatistics(), "REORDER");
+    assertEquals(1, reorders.getFailedCount());
+    assertEquals(2000000L, reorders.getValidateMaxNanos());
+    assertEquals(2000000L, reorders.getValidateTotalNanos());
+    assertEquals(1, reorders.getValidateHistogram()[2]);
+    assertEquals(200000000L, reorders.getCommitMaxNanos());
+    assertEquals(200000000L, reorders.getCommitTotalNanos());
+    assertEquals(1, reorders.getCommitHistogram()[4]);
+    assertEquals(1, reorders.getCommitHistogram()[0]);
+  }
+
+  /**
+   * Tests that drops on subclasses are counted with the layout they extend
+   */
+  @Test
+  @SuppressWarnings("serial")
+  public void testAnonymousSubclass() {
+    DropMetrics metrics = new DropMetrics();
+    DDVerticalLayout layout = new DDVerticalLayout() {
+      {
+        setSpacing(true);
+      }
+    };
+
+    metrics.afterDrop(createDrop(layout, DropInfo.Kind.REORDER, 50000L));
+
+    assertEquals("DDVerticalLayout",
+        metrics.getStatistics().get(0).getLayoutType());
+  }
+
+  /**
+   * Tests registering the metrics in the platform MBean server
+   */
+  @Test
+  public void testInstall() throws Exception {
+    DropMetrics metrics = DropMetrics.install();
+    try {
+      assertSame(metrics, DropMetrics.install());
+      assertTrue(ManagementFactory.getPlatformMBeanServer().isRegistered(
+          new ObjectName(DropMetrics.OBJECT_NAME)));
+    } finally {
+      DropMetrics.uninstall();
+    }
+    assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(
+        new ObjectName(DropMetrics.OBJECT_NAME)));
+  }
+
+  /**
+   * Tests installing the metrics of an application
+   */
+  @Test
+  public void testInstallApplication() throws Exception {
+    ObjectName name = new ObjectName(DropMetrics.OBJECT_NAME
+        + ",application=\"shop\"");
+    DropMetrics.install("shop");
+    try {
+      assertTrue(ManagementFactory.getPlatformMBeanServer()
+          .isRegistered(name));
+      assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(
+          new ObjectName(DropMetrics.OBJECT_NAME)));
+    } finally {
+      DropMetrics.uninstall();
+    }
+    assertFalse(ManagementFactory.getPlatformMBeanServer()
+        .isRegistered(name));
+  }
+
+  private static DropStatistics find(List<DropStatistics> statistics,
+      String kind) {
+    for (DropStatistics s : statistics) {
+      if (s.getKind().equals(kind)) {
+        return s;
+      }
+    }
+    fail("No statistics for " + kind);
+    return null;
+  }
+
+  private static DropInfo createDrop(DDVerticalLayout layout,
+      DropInfo.Kind kind, long nanos) {
+    DragAndDropEvent event = new DragAndDropEvent(null,
+        layout.translateDropTargetDetails(new HashMap<String, Object>()));
+    return DropInfos.setTimings(
+        new DropInfo(event, kind, VerticalLayout.class), 0, nanos, 0);
+  }
+}
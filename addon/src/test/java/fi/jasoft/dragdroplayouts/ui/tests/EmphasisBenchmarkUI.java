@@ -0,0 +1,84 @@
+/*
+ * Copyright 2015 John Ahlroos
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package fi.jasoft.dragdroplayouts.ui.tests;
+
+import com.vaadin.server.VaadinRequest;
+import com.vaadin.ui.HorizontalLayout;
+import com.vaadin.ui.JavaScript;
+import com.vaadin.ui.Label;
+import com.vaadin.ui.UI;
+import com.vaadin.ui.VerticalLayout;
+
+import fi.jasoft.dragdroplayouts.DDGridLayout;
+import fi.jasoft.dragdroplayouts.DDVerticalLayout;
+import fi.jasoft.dragdroplayouts.client.ui.LayoutDragMode;
+import fi.jasoft.dragdroplayouts.drophandlers.DefaultGridLayoutDropHandler;
+import fi.jasoft.dragdroplayouts.drophandlers.DefaultVerticalLayoutDropHandler;
+
+/**
+ * Counts the class and style attribute mutations per second while dragging
+ * over a vertical and a grid layout. Open with
+ * ?test=fi.jasoft.dragdroplayouts.ui.tests.EmphasisBenchmarkUI and keep
+ * dragging a label within the same cell or slot, the counts should stay close
+ * to the mutations of the drag image alone.
+ */
+@SuppressWarnings("serial")
+public class EmphasisBenchmarkUI extends UI {
+
+  private static final String COUNTER_SCRIPT = "(function() {"
+      + "var out = document.getElementById('style-mutations');"
+      + "var classes = 0, styles = 0;"
+      + "new MutationObserver(function(records) {"
+      + "  for (var i = 0; i < records.length; i++) {"
+      + "    if (records[i].attributeName == 'class') { classes++; }"
+      + "    else { styles++; }"
+      + "  }"
+      + "}).observe(document.body, {subtree: true,"
+      + "  attributeFilter: ['class', 'style']});"
+      + "setInterval(function() {"
+      + "  out.textContent = 'Class mutations/s: ' + classes"
+      + "    + ', style mutations/s: ' + styles;"
+      + "  classes = 0; styles = 0;"
+      + "}, 1000);"
+      + "})();";
+
+  @Override
+  protected void init(VaadinRequest request) {
+    DDVerticalLayout vertical = new DDVerticalLayout();
+    vertical.setDragMode(LayoutDragMode.CLONE);
+    vertical.setDropHandler(new DefaultVerticalLayoutDropHandler());
+    for (int i = 0; i < 50; i++) {
+      vertical.addComponent(new Label("Slot " + i));
+    }
+
+    DDGridLayout grid = new DDGridLayout(20, 20);
+    grid.setDragMode(LayoutDragMode.CLONE);
+    grid.setDropHandler(new DefaultGridLayoutDropHandler());
+    for (int row = 0; row < 20; row++) {
+      for (int column = 0; column < 20; column++) {
+        grid.addComponent(new Label(row + "," + column), column, row);
+      }
+    }
+
+    Label mutations = new Label("Drag to measure");
+    mutations.setId("style-mutations");
+
+    VerticalLayout root = new VerticalLayout(mutations,
+        new HorizontalLayout(vertical, grid));
+    root.setMargin(true);
+    setContent(root);
+
+    JavaScript.getCurrent().execute(COUNTER_SCRIPT);
+  }
+}
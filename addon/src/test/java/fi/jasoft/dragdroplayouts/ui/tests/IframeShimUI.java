@@ -0,0 +1,90 @@
+/*
+ * Copyright 2015 John Ahlroos
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package fi.jasoft.dragdroplayouts.ui.tests;
+
+import com.vaadin.server.ExternalResource;
+import com.vaadin.server.VaadinRequest;
+import com.vaadin.shared.ui.label.ContentMode;
+import com.vaadin.ui.BrowserFrame;
+import com.vaadin.ui.HorizontalLayout;
+import com.vaadin.ui.JavaScript;
+import com.vaadin.ui.Label;
+import com.vaadin.ui.UI;
+import com.vaadin.ui.VerticalLayout;
+
+import fi.jasoft.dragdroplayouts.DDVerticalLayout;
+import fi.jasoft.dragdroplayouts.client.ui.LayoutDragMode;
+import fi.jasoft.dragdroplayouts.drophandlers.DefaultVerticalLayoutDropHandler;
+
+/**
+ * Shows whether the iframes of a layout with shims enabled are covered. Open
+ * with ?test=fi.jasoft.dragdroplayouts.ui.tests.IframeShimUI
+ * <p>
+ * Drag the native draggable text onto the drop target, drop it and then
+ * click into the iframe without releasing any other mouse button first. The
+ * iframe should receive the click and the status should show no covered
+ * iframes. The iframe should only be covered while a label is dragged within
+ * the layout holding it.
+ */
+@SuppressWarnings("serial")
+public class IframeShimUI extends UI {
+
+  private static final String STATUS_SCRIPT = "(function() {"
+      + "var out = document.getElementById('iframe-status');"
+      + "setInterval(function() {"
+      + "  var iframes = document.getElementsByTagName('iframe');"
+      + "  var covered = document.getElementsByClassName("
+      + "    'v-dragdrop-iframe-cover').length;"
+      + "  for (var i = 0; i < iframes.length; i++) {"
+      + "    if (iframes[i].style.pointerEvents == 'none') { covered++; }"
+      + "  }"
+      + "  out.textContent = 'Covered iframes: ' + covered;"
+      + "}, 250);"
+      + "})();";
+
+  @Override
+  protected void init(VaadinRequest request) {
+    Label draggable = new Label(
+        "<div draggable=\"true\" style=\"cursor:move\">"
+            + "Drag me onto the drop target</div>",
+        ContentMode.HTML);
+
+    DDVerticalLayout dropTarget = new DDVerticalLayout();
+    dropTarget.setWidth("300px");
+    dropTarget.setDropHandler(new DefaultVerticalLayoutDropHandler());
+    dropTarget.addComponent(new Label("Drop target"));
+
+    BrowserFrame frame = new BrowserFrame("Iframe",
+        new ExternalResource("https://vaadin.com"));
+    frame.setWidth("400px");
+    frame.setHeight("300px");
+
+    DDVerticalLayout shimmed = new DDVerticalLayout();
+    shimmed.setDragMode(LayoutDragMode.CLONE);
+    shimmed.setShim(true);
+    shimmed.addComponent(new Label("Drag me over the iframe"));
+    shimmed.addComponent(frame);
+
+    Label status = new Label("Covered iframes: 0");
+    status.setId("iframe-status");
+
+    VerticalLayout root = new VerticalLayout(status, draggable,
+        new HorizontalLayout(dropTarget, shimmed));
+    root.setMargin(true);
+    root.setSpacing(true);
+    setContent(root);
+
+    JavaScript.getCurrent().execute(STATUS_SCRIPT);
+  }
+}